@@ -0,0 +1,211 @@
+package ru.sudoku.game.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import ru.sudoku.game.codec.BoardCodec;
+import ru.sudoku.game.dto.ConflictsDto;
+import ru.sudoku.game.dto.LeaderboardDto;
+import ru.sudoku.game.dto.MoveResultDto;
+import ru.sudoku.game.dto.PlayerStatsDto;
+import ru.sudoku.game.dto.SudokuCellDto;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Клиент sudoku-service: каждый вызов возвращает {@link CompletableFuture}, поэтому независимые
+ * запросы и отправку в Telegram можно выполнять одновременно. Доски запрашиваются в бинарном
+ * формате {@link BoardCodec} с JSON в качестве запасного варианта: сервер без поддержки
+ * бинарного формата ответит JSON.
+ *
+ * <p>Транспорт — {@link HttpClient} из JDK: пул соединений, HTTP/2 (h2c) там, где сервер его
+ * поддерживает, и асинхронная отправка без выделенного потока на запрос. Экземпляр
+ * sudoku-service выбирается балансировщиком Spring Cloud по заголовку {@link #CHAT_ID_HEADER}
+ * (см. {@code ChatIdAffinityLoadBalancer}), так что чат остаётся на своём экземпляре.</p>
+ *
+ * <p>У каждого запроса явный таймаут {@code requestTimeout}. Превышение таймаута, недоступность
+ * сервиса и ответы с кодом ошибки завершают future исключением {@link GameServiceException}
+ * ({@link GameNotFoundException} для 404).</p>
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AsyncGameServiceClient {
+    public static final String SERVICE_ID = "sudoku-service";
+    // идентификатор чата запроса, по которому балансировщик выбирает экземпляр
+    public static final String CHAT_ID_HEADER = "X-Chat-Id";
+    static final String BOARD_ACCEPT = BoardCodec.MEDIA_TYPE + ", " + MediaType.APPLICATION_JSON_VALUE;
+
+    HttpClient httpClient;
+    LoadBalancerClient loadBalancer;
+    ObjectMapper objectMapper;
+    Duration requestTimeout;
+
+    /**
+     * Новая игра в чате {@code chatId}; результат засчитывается игроку {@code userId}.
+     */
+    public CompletableFuture<SudokuCellDto[][]> newGame(long chatId, long userId, int blanks) {
+        return call(chatId, HttpMethod.POST, "/games/new?chatId=" + chatId + "&userId=" + userId
+                + "&blanks=" + blanks, BOARD_ACCEPT, this::readBoard);
+    }
+
+    public CompletableFuture<Void> setCell(long chatId, int row, int col, int value) {
+        return call(chatId, HttpMethod.POST, "/games/cell?chatId=" + chatId + "&row=" + row
+                + "&col=" + col + "&value=" + value, MediaType.APPLICATION_JSON_VALUE, response -> null);
+    }
+
+    public CompletableFuture<MoveResultDto> applyMove(long chatId, int row, int col, int value) {
+        return call(chatId, HttpMethod.POST, "/games/move?chatId=" + chatId + "&row=" + row
+                        + "&col=" + col + "&value=" + value, MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, MoveResultDto.class));
+    }
+
+    public CompletableFuture<MoveResultDto> undo(long chatId) {
+        return call(chatId, HttpMethod.POST, "/games/undo?chatId=" + chatId, MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, MoveResultDto.class));
+    }
+
+    public CompletableFuture<MoveResultDto> redo(long chatId) {
+        return call(chatId, HttpMethod.POST, "/games/redo?chatId=" + chatId, MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, MoveResultDto.class));
+    }
+
+    public CompletableFuture<MoveResultDto> toggleNote(long chatId, int row, int col, int value) {
+        return call(chatId, HttpMethod.POST, "/games/note?chatId=" + chatId + "&row=" + row
+                        + "&col=" + col + "&value=" + value, MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, MoveResultDto.class));
+    }
+
+    public CompletableFuture<MoveResultDto> eliminateNotes(long chatId) {
+        return call(chatId, HttpMethod.POST, "/games/notes/eliminate?chatId=" + chatId,
+                MediaType.APPLICATION_JSON_VALUE, response -> readJson(response, MoveResultDto.class));
+    }
+
+    public CompletableFuture<SudokuCellDto[][]> getBoard(long chatId) {
+        return call(chatId, HttpMethod.GET, "/games/board/" + chatId, BOARD_ACCEPT, this::readBoard);
+    }
+
+    public CompletableFuture<Boolean> isSolved(long chatId) {
+        return call(chatId, HttpMethod.GET, "/games/" + chatId + "/solved", MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, Boolean.class));
+    }
+
+    public CompletableFuture<Boolean> isBoardFull(long chatId) {
+        return call(chatId, HttpMethod.GET, "/games/" + chatId + "/full", MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, Boolean.class));
+    }
+
+    public CompletableFuture<Integer> getHint(long chatId, int row, int col) {
+        return call(chatId, HttpMethod.GET, "/games/" + chatId + "/hint?row=" + row + "&col=" + col,
+                MediaType.APPLICATION_JSON_VALUE, response -> readJson(response, Integer.class));
+    }
+
+    public CompletableFuture<Boolean> checkMove(long chatId, int row, int col, int value) {
+        return call(chatId, HttpMethod.GET, "/games/" + chatId + "/check?row=" + row + "&col=" + col
+                        + "&value=" + value, MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, Boolean.class));
+    }
+
+    public CompletableFuture<ConflictsDto> getConflicts(long chatId) {
+        return call(chatId, HttpMethod.GET, "/games/" + chatId + "/conflicts", MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, ConflictsDto.class));
+    }
+
+    /**
+     * Таблицы лидеров за период ({@code WEEK} или {@code ALL_TIME}). Таблицы есть на каждом
+     * экземпляре, {@code chatId} нужен только для выбора экземпляра.
+     */
+    public CompletableFuture<LeaderboardDto> getLeaderboard(long chatId, String period) {
+        return call(chatId, HttpMethod.GET, "/leaderboard?period=" + period, MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, LeaderboardDto.class));
+    }
+
+    /**
+     * Статистика игрока {@code userId}; {@code chatId} нужен только для выбора экземпляра.
+     */
+    public CompletableFuture<PlayerStatsDto> getStats(long chatId, long userId) {
+        return call(chatId, HttpMethod.GET, "/stats/" + userId, MediaType.APPLICATION_JSON_VALUE,
+                response -> readJson(response, PlayerStatsDto.class));
+    }
+
+    private <T> CompletableFuture<T> call(long chatId, HttpMethod method, String pathAndQuery, String accept,
+                                          BodyReader<T> reader) {
+        ServiceInstance instance;
+        try {
+            instance = choose(chatId);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(
+                    new GameServiceException("Не удалось выбрать экземпляр " + SERVICE_ID, 0, e));
+        }
+        if (instance == null) {
+            return CompletableFuture.failedFuture(
+                    new GameServiceException("Нет доступных экземпляров " + SERVICE_ID, 0, null));
+        }
+        HttpRequest request = HttpRequest.newBuilder(instance.getUri().resolve(pathAndQuery))
+                .timeout(requestTimeout)
+                .header(HttpHeaders.ACCEPT, accept)
+                .header(CHAT_ID_HEADER, Long.toString(chatId))
+                .method(method.name(), HttpRequest.BodyPublishers.noBody())
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error;
+                        throw new GameServiceException(method + " " + pathAndQuery + ": " + cause, 0, cause);
+                    }
+                    int status = response.statusCode();
+                    if (status == 404) {
+                        throw new GameNotFoundException(chatId);
+                    }
+                    if (status >= 400) {
+                        throw new GameServiceException(method + " " + pathAndQuery + ": HTTP " + status, status, null);
+                    }
+                    try {
+                        return reader.read(response);
+                    } catch (IOException | IllegalArgumentException e) {
+                        throw new GameServiceException("Некорректный ответ на " + method + " " + pathAndQuery,
+                                status, e);
+                    }
+                });
+    }
+
+    // балансировщик с привязкой чата к экземпляру
+    private ServiceInstance choose(long chatId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(CHAT_ID_HEADER, Long.toString(chatId));
+        RequestData data = new RequestData(HttpMethod.GET, URI.create("http://" + SERVICE_ID), headers, null, null);
+        return loadBalancer.choose(SERVICE_ID, new DefaultRequest<>(new RequestDataContext(data)));
+    }
+
+    private SudokuCellDto[][] readBoard(HttpResponse<byte[]> response) throws IOException {
+        boolean binary = response.headers().firstValue(HttpHeaders.CONTENT_TYPE)
+                .map(type -> type.startsWith(BoardCodec.MEDIA_TYPE))
+                .orElse(false);
+        return binary ? BoardCodec.decode(response.body()) : readJson(response, SudokuCellDto[][].class);
+    }
+
+    private <T> T readJson(HttpResponse<byte[]> response, Class<T> type) throws IOException {
+        return objectMapper.readValue(response.body(), type);
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(HttpResponse<byte[]> response) throws IOException;
+    }
+}
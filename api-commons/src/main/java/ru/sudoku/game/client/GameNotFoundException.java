@@ -0,0 +1,12 @@
+package ru.sudoku.game.client;
+
+/**
+ * sudoku-service ответил 404: игры для чата нет (не создавалась, вытеснена или живёт на
+ * другом экземпляре).
+ */
+public class GameNotFoundException extends GameServiceException {
+
+    public GameNotFoundException(long chatId) {
+        super("Игра для чата " + chatId + " не найдена", 404, null);
+    }
+}
@@ -0,0 +1,19 @@
+package ru.sudoku.game.client;
+
+/**
+ * Ошибка вызова sudoku-service через {@link AsyncGameServiceClient}: ответ с кодом ошибки,
+ * превышение таймаута или недоступность сервиса.
+ */
+public class GameServiceException extends RuntimeException {
+    // HTTP-статус ответа или 0, если ответа не было
+    private final int status;
+
+    public GameServiceException(String message, int status, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.sudoku.game.codec;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import ru.sudoku.game.dto.SudokuCellDto;
+
+import java.io.IOException;
+
+/**
+ * Читает и пишет доску {@code SudokuCellDto[][]} в формате {@link BoardCodec}.
+ *
+ * <p>Конвертер выбирается только по заголовку {@code Accept}/{@code Content-Type}
+ * {@value BoardCodec#MEDIA_TYPE}; клиенты, запрашивающие JSON, получают JSON как раньше.</p>
+ */
+public class BoardHttpMessageConverter extends AbstractHttpMessageConverter<SudokuCellDto[][]> {
+    public static final MediaType BOARD = MediaType.parseMediaType(BoardCodec.MEDIA_TYPE);
+
+    public BoardHttpMessageConverter() {
+        super(BOARD);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SudokuCellDto[][].class == clazz;
+    }
+
+    @Override
+    protected SudokuCellDto[][] readInternal(Class<? extends SudokuCellDto[][]> clazz, HttpInputMessage inputMessage)
+            throws IOException {
+        byte[] body = inputMessage.getBody().readAllBytes();
+        try {
+            return BoardCodec.decode(body);
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(SudokuCellDto[][] board, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(BoardCodec.encode(board));
+    }
+
+    @Override
+    protected Long getContentLength(SudokuCellDto[][] board, MediaType contentType) {
+        return (long) BoardCodec.encodedLength(board);
+    }
+}
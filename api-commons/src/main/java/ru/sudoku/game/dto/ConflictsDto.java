@@ -0,0 +1,16 @@
+package ru.sudoku.game.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConflictsDto {
+    private List<Integer> rows;     // строки с повторяющимися числами (0-based)
+    private List<Integer> columns;  // столбцы с повторяющимися числами (0-based)
+    private List<Integer> boxes;    // блоки 2x2 с повторами, нумерация слева направо, сверху вниз
+}
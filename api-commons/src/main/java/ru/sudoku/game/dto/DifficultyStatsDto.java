@@ -0,0 +1,18 @@
+package ru.sudoku.game.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DifficultyStatsDto {
+    private String difficulty;
+    private int gamesPlayed;          // все завершённые игры, включая брошенные
+    private int gamesSolved;
+    private double solveRate;         // доля решённых, от 0 до 1
+    private Long averageTime;         // среднее время решения в секундах, null без решённых игр
+    private Long bestTime;            // лучшее время решения в секундах, null без решённых игр
+    private double averageMistakes;   // ошибок в среднем за игру
+}
@@ -0,0 +1,16 @@
+package ru.sudoku.game.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardDto {
+    private String period;                                // WEEK или ALL_TIME
+    private Map<String, List<LeaderboardEntryDto>> boards; // уровень сложности -> таблица
+}
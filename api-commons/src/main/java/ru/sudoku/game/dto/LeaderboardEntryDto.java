@@ -0,0 +1,15 @@
+package ru.sudoku.game.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryDto {
+    private int rank;                 // место в таблице, с 1
+    private long userId;
+    private long completionTime;      // время решения в секундах
+    private int score;
+}
@@ -0,0 +1,18 @@
+package ru.sudoku.game.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MoveResultDto {
+    private SudokuCellDto[][] board;  // доска после хода
+    private int version;              // версия доски, увеличивается с каждым ходом
+    private boolean applied;          // false, если клетка фиксирована или отменять (повторять) нечего
+    private boolean full;             // все клетки заполнены
+    private boolean solved;           // доска решена правильно
+    private ConflictsDto conflicts;   // группы с повторяющимися числами
+    private boolean correct;          // число совпадает с решением (true для стирания)
+}
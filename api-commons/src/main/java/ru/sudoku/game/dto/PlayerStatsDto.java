@@ -0,0 +1,15 @@
+package ru.sudoku.game.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayerStatsDto {
+    private long userId;
+    private List<DifficultyStatsDto> difficulties; // только уровни, на которых игрок играл
+}
@@ -0,0 +1,15 @@
+package ru.sudoku.game.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PuzzleDto {
+    private int size;                // сторона доски: 4, 6, 9 или 16
+    private int boxRows;             // блок boxRows x boxCols, например 2x3 у доски 6x6
+    private int boxCols;
+    private SudokuCellDto[][] board; // головоломка: все числа фиксированы
+}
@@ -10,4 +10,9 @@ import lombok.NoArgsConstructor;
 public class SudokuCellDto {
     private int value;      // текущее значение клетки
     private boolean fixed;
+    private int notes;      // заметки: бит value - 1 для каждого отмеченного числа
+
+    public SudokuCellDto(int value, boolean fixed) {
+        this(value, fixed, 0);
+    }
 }
@@ -0,0 +1,54 @@
+package ru.sudoku.game.feign;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import ru.sudoku.game.client.AsyncGameServiceClient;
+
+import java.util.Collection;
+
+/**
+ * Копирует идентификатор чата запроса в заголовок {@value AsyncGameServiceClient#CHAT_ID_HEADER},
+ * по которому балансировщик выбирает экземпляр sudoku-service.
+ *
+ * <p>Идентификатор берётся из параметра {@code chatId}, а если его нет — из первого числового
+ * сегмента пути ({@code /games/board/{chatId}}, {@code /games/{chatId}/solved} и т.п.).</p>
+ */
+public class ChatIdRequestInterceptor implements RequestInterceptor {
+    @Override
+    public void apply(RequestTemplate template) {
+        String chatId = chatId(template);
+        if (chatId != null) {
+            template.header(AsyncGameServiceClient.CHAT_ID_HEADER, chatId);
+        }
+    }
+
+    private String chatId(RequestTemplate template) {
+        Collection<String> query = template.queries().get("chatId");
+        if (query != null && !query.isEmpty()) {
+            return query.iterator().next();
+        }
+        String path = template.path();
+        int start = 0;
+        while (start < path.length()) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            if (end > start && isNumber(path, start, end)) {
+                return path.substring(start, end);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    private boolean isNumber(String s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char ch = s.charAt(i);
+            if ((ch < '0' || ch > '9') && !(ch == '-' && i == from && to - from > 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
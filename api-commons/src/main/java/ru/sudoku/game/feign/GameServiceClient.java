@@ -1,16 +1,30 @@
 package ru.sudoku.game.feign;
 
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.sudoku.game.codec.BoardCodec;
+import ru.sudoku.game.dto.ConflictsDto;
+import ru.sudoku.game.dto.LeaderboardDto;
+import ru.sudoku.game.dto.MoveResultDto;
+import ru.sudoku.game.dto.PlayerStatsDto;
 import ru.sudoku.game.dto.SudokuCellDto;
 
-@FeignClient(name = "sudoku-service")
+/**
+ * Блокирующий клиент sudoku-service. Доски запрашиваются в бинарном формате {@link BoardCodec}
+ * с JSON в качестве запасного варианта: сервер без поддержки бинарного формата ответит JSON.
+ * Неблокирующий вариант тех же вызовов — {@link ru.sudoku.game.client.AsyncGameServiceClient}.
+ */
+@FeignClient(name = "sudoku-service", configuration = GameServiceClientConfiguration.class)
 public interface GameServiceClient {
-    @PostMapping("/games/new")
-    SudokuCellDto[][] newGame(@RequestParam long chatId, @RequestParam int blanks);
+    // produces у клиента задаёт заголовок Accept
+    String BOARD_ACCEPT = BoardCodec.MEDIA_TYPE + ", " + MediaType.APPLICATION_JSON_VALUE;
+
+    @PostMapping(value = "/games/new", produces = BOARD_ACCEPT)
+    SudokuCellDto[][] newGame(@RequestParam long chatId, @RequestParam long userId, @RequestParam int blanks);
 
     @PostMapping("/games/cell")
     void setCell(@RequestParam long chatId,
@@ -18,7 +32,28 @@ public interface GameServiceClient {
                  @RequestParam int col,
                  @RequestParam int value);
 
-    @GetMapping("/games/board/{chatId}")
+    @PostMapping("/games/move")
+    MoveResultDto applyMove(@RequestParam long chatId,
+                            @RequestParam int row,
+                            @RequestParam int col,
+                            @RequestParam int value);
+
+    @PostMapping("/games/undo")
+    MoveResultDto undo(@RequestParam long chatId);
+
+    @PostMapping("/games/redo")
+    MoveResultDto redo(@RequestParam long chatId);
+
+    @PostMapping("/games/note")
+    MoveResultDto toggleNote(@RequestParam long chatId,
+                             @RequestParam int row,
+                             @RequestParam int col,
+                             @RequestParam int value);
+
+    @PostMapping("/games/notes/eliminate")
+    MoveResultDto eliminateNotes(@RequestParam long chatId);
+
+    @GetMapping(value = "/games/board/{chatId}", produces = BOARD_ACCEPT)
     SudokuCellDto[][] getBoard(@PathVariable("chatId") long chatId);
 
     @GetMapping("/games/{chatId}/solved")
@@ -26,4 +61,24 @@ public interface GameServiceClient {
 
     @GetMapping("/games/{chatId}/full")
     boolean isBoardFull(@PathVariable("chatId") long chatId);
+
+    @GetMapping("/games/{chatId}/hint")
+    int getHint(@PathVariable("chatId") long chatId,
+                @RequestParam int row,
+                @RequestParam int col);
+
+    @GetMapping("/games/{chatId}/check")
+    boolean checkMove(@PathVariable("chatId") long chatId,
+                      @RequestParam int row,
+                      @RequestParam int col,
+                      @RequestParam int value);
+
+    @GetMapping("/games/{chatId}/conflicts")
+    ConflictsDto getConflicts(@PathVariable("chatId") long chatId);
+
+    @GetMapping("/leaderboard")
+    LeaderboardDto getLeaderboard(@RequestParam String period);
+
+    @GetMapping("/stats/{userId}")
+    PlayerStatsDto getStats(@PathVariable("userId") long userId);
 }
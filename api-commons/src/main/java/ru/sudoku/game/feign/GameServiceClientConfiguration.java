@@ -0,0 +1,44 @@
+package ru.sudoku.game.feign;
+
+import feign.codec.Decoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.HttpMessageConverter;
+import ru.sudoku.game.client.AsyncGameServiceClient;
+import ru.sudoku.game.codec.BoardHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Конфигурация {@link GameServiceClient}: декодер понимает ответы
+ * {@code application/x-sudoku-board} в дополнение к конвертерам приложения, а каждый
+ * запрос помечается заголовком {@link AsyncGameServiceClient#CHAT_ID_HEADER} для привязки
+ * чата к экземпляру sudoku-service.
+ *
+ * <p>Класс намеренно без {@code @Configuration}: бины создаются только в контексте
+ * Feign-клиента и не попадают в MVC приложения.</p>
+ */
+public class GameServiceClientConfiguration {
+
+    @Bean
+    public ChatIdRequestInterceptor chatIdRequestInterceptor() {
+        return new ChatIdRequestInterceptor();
+    }
+
+    @Bean
+    public Decoder feignDecoder(ObjectFactory<HttpMessageConverters> messageConverters,
+                                ObjectProvider<HttpMessageConverterCustomizer> customizers) {
+        // конвертер выбирается по Content-Type ответа, поэтому порядок не важен
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(messageConverters.getObject().getConverters());
+        converters.add(new BoardHttpMessageConverter());
+        HttpMessageConverters withBoard = new HttpMessageConverters(false, converters);
+        return new OptionalDecoder(new ResponseEntityDecoder(new SpringDecoder(() -> withBoard, customizers)));
+    }
+}
@@ -0,0 +1,29 @@
+package ru.sudoku.game.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Подключает {@link ChatIdAffinityLoadBalancer} для клиента балансировщика, например
+ * {@code @LoadBalancerClient(name = "sudoku-service", configuration = ChatIdAffinityConfiguration.class)}.
+ *
+ * <p>Класс намеренно без {@code @Configuration}: бин создаётся в контексте конкретного
+ * клиента балансировщика.</p>
+ */
+public class ChatIdAffinityConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> chatIdAffinityLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory factory,
+            @Value("${sudoku.routing.virtual-nodes:160}") int virtualNodes) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new ChatIdAffinityLoadBalancer(
+                factory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId, virtualNodes);
+    }
+}
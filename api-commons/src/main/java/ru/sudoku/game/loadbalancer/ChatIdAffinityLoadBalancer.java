@@ -0,0 +1,178 @@
+package ru.sudoku.game.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+import ru.sudoku.game.client.AsyncGameServiceClient;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Балансировщик с привязкой чата к экземпляру: живые игры хранятся в памяти конкретного
+ * экземпляра sudoku-service, поэтому все запросы одного чата должны попадать туда же.
+ *
+ * <p>Экземпляры из Eureka раскладываются на кольцо консистентного хеширования, по
+ * {@code virtualNodes} точек на экземпляр; запрос уходит к первой точке кольца не меньше
+ * хеша {@code chatId} из заголовка {@link AsyncGameServiceClient#CHAT_ID_HEADER}. При
+ * появлении или уходе экземпляра меняют владельца только чаты соседних с его точками дуг —
+ * в среднем {@code 1/N} игр, остальные остаются на своих экземплярах.</p>
+ *
+ * <p>Кольцо пересобирается только при изменении набора экземпляров: пока поставщик
+ * экземпляров отдаёт тот же список (кэширующий поставщик Spring Cloud отдаёт один и тот же
+ * объект до обновления из Eureka), запрос стоит одного сравнения ссылок и бинарного поиска.
+ * Новый список с тем же набором идентификаторов кольцо не пересобирает. Запросы без
+ * идентификатора чата распределяются по кругу.</p>
+ *
+ * <p>Игры при смене владельца не передаются: чат, перешедший к другому экземпляру,
+ * получает на следующем ходе «игра не найдена» и начинает новую игру, а его прежняя игра
+ * остаётся на старом экземпляре, пока не истечёт срок хранения, и записывается брошенной.
+ * Поэтому экземпляры добавляются и выводятся по одному, а каждому экземпляру нужен свой
+ * каталог журнала ({@code sudoku.journal.dir}): журнал захватывает каталог и не запускается
+ * в каталоге, занятом другим экземпляром.</p>
+ */
+@Slf4j
+public class ChatIdAffinityLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final int virtualNodes;
+    private final AtomicInteger position = new AtomicInteger();
+    private volatile Ring ring = new Ring(List.of(), new String[0], new long[0], new ServiceInstance[0]);
+
+    public ChatIdAffinityLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                                      String serviceId, int virtualNodes) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+        this.virtualNodes = virtualNodes;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        Long chatId = chatIdOf(request);
+        return supplier.get(request).next().map(instances -> choose(instances, chatId));
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances, Long chatId) {
+        if (instances.isEmpty()) {
+            log.warn("Нет доступных экземпляров сервиса {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (chatId == null) {
+            int next = Math.floorMod(position.getAndIncrement(), instances.size());
+            return new DefaultResponse(instances.get(next));
+        }
+        return new DefaultResponse(ring(instances).owner(chatId));
+    }
+
+    private Ring ring(List<ServiceInstance> instances) {
+        Ring current = ring;
+        if (current.source == instances) {
+            return current;
+        }
+        String[] ids = new String[instances.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idOf(instances.get(i));
+        }
+        Arrays.sort(ids);
+        if (Arrays.equals(current.ids, ids)) {
+            // тот же набор в новом списке: запоминаем список, чтобы следующие запросы не сортировали
+            Ring same = new Ring(instances, current.ids, current.hashes, current.owners);
+            ring = same;
+            return same;
+        }
+        Ring rebuilt = Ring.build(ids, instances, virtualNodes);
+        ring = rebuilt;
+        log.info("Кольцо экземпляров {} пересобрано: {}", serviceId, Arrays.toString(ids));
+        return rebuilt;
+    }
+
+    private static Long chatIdOf(Request<?> request) {
+        if (!(request.getContext() instanceof RequestDataContext context) || context.getClientRequest() == null) {
+            return null;
+        }
+        String header = context.getClientRequest().getHeaders().getFirst(AsyncGameServiceClient.CHAT_ID_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(header);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static String idOf(ServiceInstance instance) {
+        String id = instance.getInstanceId();
+        return id != null ? id : instance.getHost() + ":" + instance.getPort();
+    }
+
+    // splitmix64: равномерно разносит последовательные идентификаторы чатов по кольцу
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Кольцо: список, из которого оно построено, отсортированные хеши точек и владелец каждой точки.
+     */
+    private record Ring(List<ServiceInstance> source, String[] ids, long[] hashes, ServiceInstance[] owners) {
+
+        static Ring build(String[] ids, List<ServiceInstance> instances, int virtualNodes) {
+            int points = instances.size() * virtualNodes;
+            long[] hashes = new long[points];
+            ServiceInstance[] byPoint = new ServiceInstance[points];
+            int n = 0;
+            for (ServiceInstance instance : instances) {
+                long seed = fnv(idOf(instance));
+                for (int v = 0; v < virtualNodes; v++) {
+                    hashes[n] = mix(seed + v);
+                    byPoint[n] = instance;
+                    n++;
+                }
+            }
+            // сортируем точки вместе с владельцами
+            Integer[] order = new Integer[points];
+            for (int i = 0; i < points; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+            long[] sortedHashes = new long[points];
+            ServiceInstance[] owners = new ServiceInstance[points];
+            for (int i = 0; i < points; i++) {
+                sortedHashes[i] = hashes[order[i]];
+                owners[i] = byPoint[order[i]];
+            }
+            return new Ring(instances, ids, sortedHashes, owners);
+        }
+
+        ServiceInstance owner(long chatId) {
+            int i = Arrays.binarySearch(hashes, mix(chatId));
+            if (i < 0) {
+                i = -i - 1;
+            }
+            return owners[i == hashes.length ? 0 : i];
+        }
+
+        // FNV-1a по идентификатору экземпляра: все экземпляры бота строят одинаковое кольцо
+        private static long fnv(String s) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < s.length(); i++) {
+                hash ^= s.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
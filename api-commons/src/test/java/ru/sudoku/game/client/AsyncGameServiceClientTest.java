@@ -0,0 +1,184 @@
+package ru.sudoku.game.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import ru.sudoku.game.codec.BoardCodec;
+import ru.sudoku.game.dto.SudokuCellDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncGameServiceClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LoadBalancerClient loadBalancer = mock(LoadBalancerClient.class);
+    // заголовки последнего запроса, полученного сервером
+    private final AtomicReference<Headers> received = new AtomicReference<>();
+    private HttpServer server;
+    private AsyncGameServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        DefaultServiceInstance instance = new DefaultServiceInstance("sudoku-service-1",
+                AsyncGameServiceClient.SERVICE_ID, "127.0.0.1", server.getAddress().getPort(), false);
+        when(loadBalancer.choose(eq(AsyncGameServiceClient.SERVICE_ID), any())).thenReturn(instance);
+        client = new AsyncGameServiceClient(HttpClient.newHttpClient(), loadBalancer, objectMapper,
+                Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void chatIdIsSentToBalancerAndService() throws Exception {
+        respond("/games/move", 200, MediaType.APPLICATION_JSON_VALUE, "{\"applied\":true}".getBytes());
+
+        client.applyMove(42, 1, 2, 3).get(5, TimeUnit.SECONDS);
+
+        assertThat(received.get().getFirst(AsyncGameServiceClient.CHAT_ID_HEADER)).isEqualTo("42");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Request<RequestDataContext>> request = ArgumentCaptor.forClass(Request.class);
+        verify(loadBalancer).choose(eq(AsyncGameServiceClient.SERVICE_ID), request.capture());
+        assertThat(request.getValue().getContext().getClientRequest().getHeaders()
+                .getFirst(AsyncGameServiceClient.CHAT_ID_HEADER)).isEqualTo("42");
+    }
+
+    @Test
+    void binaryBoardIsDecoded() throws Exception {
+        SudokuCellDto[][] board = board();
+        respond("/games/board/7", 200, BoardCodec.MEDIA_TYPE, BoardCodec.encode(board));
+
+        SudokuCellDto[][] result = client.getBoard(7).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isDeepEqualTo(board);
+        assertThat(received.get().getFirst(HttpHeaders.ACCEPT)).isEqualTo(AsyncGameServiceClient.BOARD_ACCEPT);
+    }
+
+    @Test
+    void jsonBoardIsAcceptedFromOldServer() throws Exception {
+        SudokuCellDto[][] board = board();
+        respond("/games/new", 200, MediaType.APPLICATION_JSON_VALUE, objectMapper.writeValueAsBytes(board));
+
+        SudokuCellDto[][] result = client.newGame(7, 7, 3).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isDeepEqualTo(board);
+        assertThat(received.get().getFirst(HttpHeaders.ACCEPT)).isEqualTo(AsyncGameServiceClient.BOARD_ACCEPT);
+    }
+
+    @Test
+    void notFoundIsGameNotFound() {
+        respond("/games/board/7", 404, MediaType.APPLICATION_JSON_VALUE, "{}".getBytes());
+
+        assertFailsWith(client.getBoard(7), GameNotFoundException.class, 404);
+    }
+
+    @Test
+    void otherErrorIsGameServiceException() {
+        respond("/games/move", 500, MediaType.APPLICATION_JSON_VALUE, "{}".getBytes());
+        respond("/games/7/hint", 409, MediaType.APPLICATION_JSON_VALUE, "{}".getBytes());
+
+        GameServiceException serverError = assertFailsWith(client.applyMove(7, 0, 0, 1),
+                GameServiceException.class, 500);
+        assertThat(serverError).isNotInstanceOf(GameNotFoundException.class);
+        assertFailsWith(client.getHint(7, 0, 0), GameServiceException.class, 409);
+    }
+
+    @Test
+    void malformedBodyIsGameServiceException() {
+        respond("/games/board/7", 200, BoardCodec.MEDIA_TYPE, new byte[]{4, 1});
+
+        assertFailsWith(client.getBoard(7), GameServiceException.class, 200);
+    }
+
+    @Test
+    void slowServiceTimesOut() {
+        server.createContext("/games/7/solved", exchange -> {
+            try {
+                Thread.sleep(3_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+
+        long start = System.nanoTime();
+        GameServiceException error = assertFailsWith(client.isSolved(7), GameServiceException.class, 0);
+
+        assertThat(error.getCause()).isInstanceOf(HttpTimeoutException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(2_500));
+    }
+
+    @Test
+    void missingInstanceFailsWithoutRequest() {
+        when(loadBalancer.choose(eq(AsyncGameServiceClient.SERVICE_ID), any())).thenReturn(null);
+
+        assertFailsWith(client.getBoard(7), GameServiceException.class, 0);
+        assertThat(received.get()).isNull();
+    }
+
+    private void respond(String path, int status, String contentType, byte[] body) {
+        server.createContext(path, exchange -> {
+            received.set(exchange.getRequestHeaders());
+            write(exchange, status, contentType, body);
+        });
+    }
+
+    private static void write(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static <E extends GameServiceException> E assertFailsWith(CompletableFuture<?> future, Class<E> type,
+                                                                      int status) {
+        Throwable error = catchThrowableOfType(() -> future.get(5, TimeUnit.SECONDS), ExecutionException.class)
+                .getCause();
+        assertThat(error).isInstanceOf(type);
+        assertThat(((GameServiceException) error).getStatus()).isEqualTo(status);
+        return type.cast(error);
+    }
+
+    private static SudokuCellDto[][] board() {
+        SudokuCellDto[][] board = new SudokuCellDto[4][4];
+        for (int i = 0; i < 16; i++) {
+            board[i / 4][i % 4] = new SudokuCellDto(i % 5, i % 5 != 0);
+        }
+        return board;
+    }
+}
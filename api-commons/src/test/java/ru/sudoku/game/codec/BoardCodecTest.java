@@ -0,0 +1,105 @@
+package ru.sudoku.game.codec;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.sudoku.game.dto.SudokuCellDto;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoardCodecTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 6, 9, 16, 25, 64})
+    void boardRoundTrip(int size) {
+        SudokuCellDto[][] board = board(size, false);
+
+        byte[] encoded = BoardCodec.encode(board);
+
+        assertThat(encoded).hasSize(BoardCodec.encodedLength(size));
+        assertThat(encoded).hasSize(BoardCodec.encodedLength(board));
+        assertThat(BoardCodec.decode(encoded)).isDeepEqualTo(board);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 9, 16})
+    void boardWithNotesRoundTrip(int size) {
+        SudokuCellDto[][] board = board(size, true);
+
+        byte[] encoded = BoardCodec.encode(board);
+
+        assertThat(encoded).hasSize(BoardCodec.encodedLength(size) + BoardCodec.notesLength(size));
+        assertThat(encoded).hasSize(BoardCodec.encodedLength(board));
+        assertThat(BoardCodec.decode(encoded)).isDeepEqualTo(board);
+    }
+
+    @Test
+    void boardFourByFourTakesNineBytes() {
+        assertThat(BoardCodec.encodedLength(4)).isEqualTo(9);
+        assertThat(BoardCodec.notesLength(4)).isEqualTo(8);
+    }
+
+    @Test
+    void boardWithoutNotesKeepsOldLayout() {
+        // 4x4: размер, 2 байта маски фиксированных, 6 байт значений по 3 бита
+        SudokuCellDto[][] board = new SudokuCellDto[4][4];
+        for (int i = 0; i < 16; i++) {
+            board[i / 4][i % 4] = new SudokuCellDto(i == 0 ? 4 : 0, i == 0 || i == 9);
+        }
+
+        assertThat(BoardCodec.encode(board)).containsExactly(4, 0b1, 0b10, 4, 0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void invalidBoardsAreRejected() {
+        assertThatThrownBy(() -> BoardCodec.encode(new SudokuCellDto[0][0]))
+                .isInstanceOf(IllegalArgumentException.class);
+        SudokuCellDto[][] notSquare = {{new SudokuCellDto(0, false)}, {}};
+        assertThatThrownBy(() -> BoardCodec.encode(notSquare))
+                .isInstanceOf(IllegalArgumentException.class);
+        SudokuCellDto[][] outOfRange = board(4, false);
+        outOfRange[1][1].setValue(5);
+        assertThatThrownBy(() -> BoardCodec.encode(outOfRange))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void corruptedInputIsRejected() {
+        byte[] encoded = BoardCodec.encode(board(4, false));
+
+        assertThatThrownBy(() -> BoardCodec.decode(new byte[0]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BoardCodec.decode(new byte[]{0}))
+                .isInstanceOf(IllegalArgumentException.class);
+        // обрезанные данные и лишний байт
+        assertThatThrownBy(() -> BoardCodec.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BoardCodec.decode(Arrays.copyOf(encoded, encoded.length + 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        // значение 7 на доске 4x4: все три бита первой клетки
+        encoded[3] |= 0b111;
+        assertThatThrownBy(() -> BoardCodec.decode(encoded))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SudokuCellDto[][] board(int size, boolean notes) {
+        Random random = new Random(size);
+        SudokuCellDto[][] board = new SudokuCellDto[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int value = random.nextInt(size + 1);
+                int cellNotes = notes && value == 0 ? random.nextInt(1 << size) : 0;
+                board[r][c] = new SudokuCellDto(value, value != 0 && random.nextBoolean(), cellNotes);
+            }
+        }
+        if (notes) {
+            // хотя бы одна клетка с заметками, чтобы раздел заметок точно писался
+            board[0][0] = new SudokuCellDto(0, false, 1);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.sudoku.game.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import ru.sudoku.game.dto.SudokuCellDto;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoardHttpMessageConverterTest {
+
+    private final BoardHttpMessageConverter converter = new BoardHttpMessageConverter();
+
+    @Test
+    void boardWithNotesRoundTripWithExactContentLength() throws IOException {
+        SudokuCellDto[][] board = board();
+        board[0][1] = new SudokuCellDto(0, false, 0b1010);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(board, BoardHttpMessageConverter.BOARD, output);
+
+        byte[] body = output.getBodyAsBytes();
+        assertThat(body).hasSize(BoardCodec.encodedLength(4) + BoardCodec.notesLength(4));
+        assertThat(output.getHeaders().getContentLength()).isEqualTo(body.length);
+        SudokuCellDto[][] read = converter.read(SudokuCellDto[][].class, new MockHttpInputMessage(body));
+        assertThat(read).isDeepEqualTo(board);
+    }
+
+    @Test
+    void boardWithoutNotesKeepsShortLength() throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(board(), BoardHttpMessageConverter.BOARD, output);
+
+        assertThat(output.getHeaders().getContentLength()).isEqualTo(BoardCodec.encodedLength(4));
+        assertThat(output.getBodyAsBytes()).hasSize(BoardCodec.encodedLength(4));
+    }
+
+    private static SudokuCellDto[][] board() {
+        SudokuCellDto[][] board = new SudokuCellDto[4][4];
+        for (int i = 0; i < 16; i++) {
+            board[i / 4][i % 4] = new SudokuCellDto(i % 3 == 0 ? 0 : i % 4 + 1, i % 5 == 0);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.sudoku.game.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sudoku.game.codec.BoardCodec;
+import ru.sudoku.game.dto.SudokuCellDto;
+import ru.sudoku.game.mapper.SudokuCellMapperImpl;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static ru.sudoku.game.benchmarks.Fixtures.generator;
+
+/**
+ * Сериализация доски {@code SudokuCellDto[][]}: JSON (Jackson) против {@code application/x-sudoku-board}.
+ * Размер ответа: JSON ~417 байт, бинарный формат 9 байт.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BoardSerializationBenchmark {
+    ObjectMapper objectMapper;
+    SudokuCellDto[][] board;
+    byte[] json;
+    byte[] binary;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = new ObjectMapper();
+        board = new SudokuCellMapperImpl().toDto(generator().generate(6).board());
+        json = objectMapper.writeValueAsBytes(board);
+        binary = BoardCodec.encode(board);
+    }
+
+    @Benchmark
+    public byte[] writeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(board);
+    }
+
+    @Benchmark
+    public SudokuCellDto[][] readJson() throws IOException {
+        return objectMapper.readValue(json, SudokuCellDto[][].class);
+    }
+
+    @Benchmark
+    public byte[] writeBinary() {
+        return BoardCodec.encode(board);
+    }
+
+    @Benchmark
+    public SudokuCellDto[][] readBinary() {
+        return BoardCodec.decode(binary);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.sudoku.game.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sudoku.game.model.BoardState;
+import ru.sudoku.game.model.Puzzle;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ход и операции с заметками на снимке {@link BoardState}: ход снимает число с заметок соседей,
+ * поэтому {@link #move} сравнивается на доске с заметками и без них.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BoardStateBenchmark {
+    BoardState plain;
+    BoardState withNotes;
+    int emptyCell;
+
+    @Setup
+    public void setup() {
+        Puzzle puzzle = Fixtures.generator().generate(8);
+        plain = BoardState.of(puzzle.board());
+        withNotes = plain;
+        for (int idx = 0; idx < 16; idx++) {
+            if (plain.value(idx) == 0) {
+                emptyCell = idx;
+                for (int value = 1; value <= 4; value++) {
+                    withNotes = withNotes.withNoteToggled(idx, value);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public BoardState move() {
+        return plain.withValue(emptyCell, 3);
+    }
+
+    @Benchmark
+    public BoardState moveWithNotes() {
+        return withNotes.withValue(emptyCell, 3);
+    }
+
+    @Benchmark
+    public BoardState toggleNote() {
+        return withNotes.withNoteToggled(emptyCell, 2);
+    }
+
+    @Benchmark
+    public BoardState eliminateNotes() {
+        return withNotes.withNotesEliminated();
+    }
+}
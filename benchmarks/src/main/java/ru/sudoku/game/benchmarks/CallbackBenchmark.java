@@ -0,0 +1,54 @@
+package ru.sudoku.game.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sudoku.game.ui.CallbackCodec;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор callback-данных кнопки хода: компактный формат, старый формат через
+ * {@link CallbackCodec} и прежний разбор бота через {@code startsWith}/{@code split}/{@code parseInt}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CallbackBenchmark {
+    String compact = CallbackCodec.value(1, 3, 4);
+    String legacy = "VALUE_1_3_4";
+
+    @Benchmark
+    public int decodeCompact() {
+        return CallbackCodec.decode(compact);
+    }
+
+    @Benchmark
+    public int decodeLegacy() {
+        return CallbackCodec.decode(legacy);
+    }
+
+    // так SudokuBot разбирал нажатия до CallbackCodec
+    @Benchmark
+    public int splitBaseline() {
+        if (legacy.startsWith("DIFFICULTY_")) {
+            return -1;
+        } else if (legacy.startsWith("CELL_")) {
+            String[] parts = legacy.split("_");
+            return Integer.parseInt(parts[1]) << 8 | Integer.parseInt(parts[2]);
+        } else if (legacy.startsWith("VALUE_")) {
+            String[] parts = legacy.split("_");
+            return Integer.parseInt(parts[1]) << 16 | Integer.parseInt(parts[2]) << 8 | Integer.parseInt(parts[3]);
+        }
+        return 0;
+    }
+}
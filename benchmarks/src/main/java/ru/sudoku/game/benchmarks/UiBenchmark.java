@@ -0,0 +1,63 @@
+package ru.sudoku.game.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import ru.sudoku.game.dto.SudokuCellDto;
+import ru.sudoku.game.generator.SudokuGenerator;
+import ru.sudoku.game.mapper.SudokuCellMapperImpl;
+import ru.sudoku.game.ui.SudokuUIHelper;
+
+import java.util.concurrent.TimeUnit;
+
+import static ru.sudoku.game.benchmarks.Fixtures.generator;
+
+/**
+ * Построение сообщения с доской в {@link SudokuUIHelper}. При {@code cacheSize = 0} кэш
+ * раскладок ничего не хранит, и каждая доска строится заново; при попадании в кэш остаётся
+ * только копирование раскладки в новую клавиатуру.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class UiBenchmark {
+    static final int BOARDS = 64;
+
+    @Param({"0", "10000"})
+    int cacheSize;
+
+    SudokuUIHelper uiHelper;
+    SudokuCellDto[][][] boards;
+    int next;
+
+    @Setup
+    public void setup() {
+        uiHelper = Fixtures.uiHelper(cacheSize);
+
+        SudokuGenerator generator = generator();
+        SudokuCellMapperImpl mapper = new SudokuCellMapperImpl();
+        boards = new SudokuCellDto[BOARDS][][];
+        for (int i = 0; i < BOARDS; i++) {
+            boards[i] = mapper.toDto(generator.generate(6).board());
+        }
+    }
+
+    @Benchmark
+    public SendMessage buildBoardMessage() {
+        SudokuCellDto[][] board = boards[next];
+        next = (next + 1) % BOARDS;
+        return uiHelper.buildBoardMessage(42L, board);
+    }
+}
@@ -0,0 +1,311 @@
+package ru.sudoku.game.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+import ru.sudoku.game.benchmarks.Fixtures;
+import ru.sudoku.game.client.AsyncGameServiceClient;
+import ru.sudoku.game.ui.CallbackCodec;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Нагрузочный тест бота без Telegram: тысячи симулированных чатов проходят сценарий
+ * {@code /start} → выбор сложности → ходы до решения через {@code SudokuBot.onUpdateReceived}.
+ *
+ * <p>Каждый чат — отдельный виртуальный поток, который шлёт следующее обновление только после
+ * обработки предыдущего, как живой пользователь. Ответы Telegram заглушены ({@link StubSudokuBot}),
+ * игровой сервер — настоящий ({@code --target=http://host:port}) или поднятый внутри процесса
+ * ({@link InProcessGameServer}). Отчёт: обновления в секунду, p50/p99 задержки от получения
+ * обновления до конца его обработки и число вызовов игрового сервера и Telegram на обновление.</p>
+ *
+ * <p>Запуск: {@code mvn -pl benchmarks -am test -Pload -Dload.args="--chats=5000 --difficulty=HARD"}</p>
+ */
+public class BotLoadTest {
+    static final long FIRST_CHAT = 1_000_000L;
+
+    final int chats;
+    final int warmupChats;
+    final String difficulty;
+    final URI target;
+    final int maxInFlight;
+    final Duration timeout;
+    final AtomicInteger updateIds = new AtomicInteger();
+
+    BotLoadTest(String[] args) {
+        int chats = 2000;
+        int warmupChats = 200;
+        String difficulty = "MEDIUM";
+        URI target = null;
+        int maxInFlight = 256;
+        Duration timeout = Duration.ofSeconds(2);
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Ожидается --ключ=значение: " + arg);
+            }
+            switch (kv[0]) {
+                case "--chats" -> chats = Integer.parseInt(kv[1]);
+                case "--warmup-chats" -> warmupChats = Integer.parseInt(kv[1]);
+                case "--difficulty" -> difficulty = kv[1].toUpperCase(Locale.ROOT);
+                case "--target" -> target = URI.create(kv[1]);
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(kv[1]);
+                case "--timeout" -> timeout = Duration.parse(kv[1]);
+                default -> throw new IllegalArgumentException("Неизвестный параметр: " + kv[0]);
+            }
+        }
+        this.chats = chats;
+        this.warmupChats = warmupChats;
+        this.difficulty = difficulty;
+        this.target = target;
+        this.maxInFlight = maxInFlight;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new BotLoadTest(args).run();
+    }
+
+    void run() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        InProcessGameServer server = target == null
+                ? new InProcessGameServer(Fixtures.gameService(new Fixtures.MapGameStore(), meterRegistry))
+                : null;
+        try {
+            URI backend = target != null ? target : server.uri();
+            CountingLoadBalancerClient loadBalancer = new CountingLoadBalancerClient(backend);
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(timeout)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            AsyncGameServiceClient gameClient =
+                    new AsyncGameServiceClient(httpClient, loadBalancer, new ObjectMapper(), timeout);
+            TimedDispatcher dispatcher = new TimedDispatcher(meterRegistry, Math.max(chats, warmupChats) * updatesPerChat());
+            Fixtures.set(dispatcher, "maxInFlight", maxInFlight);
+            // у симулированного чата одно необработанное обновление, очередь не переполняется
+            Fixtures.set(dispatcher, "mailboxCapacity", 32);
+            Fixtures.set(dispatcher, "shutdownTimeout", Duration.ofSeconds(10));
+            dispatcher.init();
+            StubSudokuBot bot = new StubSudokuBot(gameClient, Fixtures.uiHelper(10_000), dispatcher);
+            Fixtures.set(bot, "boardMessageTtl", Duration.ofHours(24));
+            Fixtures.set(bot, "maxBoardMessages", 100_000);
+            bot.init();
+
+            System.out.printf("Игровой сервер: %s%s%n", backend, server != null ? " (в процессе)" : "");
+            if (warmupChats > 0) {
+                simulate(bot, dispatcher, FIRST_CHAT, warmupChats);
+                System.out.printf("Прогрев: %d чатов%n", warmupChats);
+            }
+            dispatcher.recorded.set(0);
+            long backendBefore = loadBalancer.calls();
+            long telegramBefore = bot.telegramCalls();
+            long start = System.nanoTime();
+            int solved = simulate(bot, dispatcher, FIRST_CHAT + warmupChats, chats);
+            long elapsed = System.nanoTime() - start;
+            report(dispatcher, elapsed, solved, loadBalancer.calls() - backendBefore,
+                    bot.telegramCalls() - telegramBefore);
+            dispatcher.shutdown();
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    int updatesPerChat() {
+        return 2 + 2 * blanks();
+    }
+
+    // бот сам переводит уровень в число пустых клеток; здесь оно нужно только для размера буфера
+    int blanks() {
+        return switch (difficulty) {
+            case "EASY" -> 3;
+            case "HARD" -> 8;
+            default -> 6;
+        };
+    }
+
+    int level() {
+        return switch (difficulty) {
+            case "EASY" -> CallbackCodec.DIFFICULTY_EASY;
+            case "HARD" -> CallbackCodec.DIFFICULTY_HARD;
+            default -> CallbackCodec.DIFFICULTY_MEDIUM;
+        };
+    }
+
+    /**
+     * Прогоняет {@code count} чатов одновременно.
+     *
+     * @return сколько чатов дошли до решённой доски
+     */
+    int simulate(StubSudokuBot bot, TimedDispatcher dispatcher, long firstChat, int count) throws Exception {
+        List<Future<Boolean>> results = new ArrayList<>(count);
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                long chatId = firstChat + i;
+                results.add(users.submit(() -> play(bot, dispatcher, chatId)));
+            }
+        }
+        int solved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                solved++;
+            }
+        }
+        return solved;
+    }
+
+    boolean play(StubSudokuBot bot, TimedDispatcher dispatcher, long chatId) throws Exception {
+        send(bot, dispatcher, chatId, textUpdate(chatId, "/start"));
+        send(bot, dispatcher, chatId, callbackUpdate(chatId, CallbackCodec.difficulty(level())));
+        InlineKeyboardMarkup keyboard = bot.keyboards.get(chatId);
+        if (keyboard == null) {
+            return false;
+        }
+        int[] board = readBoard(keyboard);
+        int size = keyboard.getKeyboard().size();
+        int[] solution = board.clone();
+        if (!solve(solution, size, 0)) {
+            return false;
+        }
+        for (int idx = 0; idx < board.length; idx++) {
+            if (board[idx] == 0) {
+                int row = idx / size;
+                int col = idx % size;
+                send(bot, dispatcher, chatId, callbackUpdate(chatId, CallbackCodec.cell(row, col)));
+                send(bot, dispatcher, chatId, callbackUpdate(chatId, CallbackCodec.value(row, col, solution[idx])));
+            }
+        }
+        // после решения бот показывает кнопку новой игры
+        InlineKeyboardMarkup last = bot.keyboards.get(chatId);
+        return last != null && CallbackCodec.op(CallbackCodec.decode(
+                last.getKeyboard().get(0).get(0).getCallbackData())) == CallbackCodec.NEW_GAME;
+    }
+
+    void send(StubSudokuBot bot, TimedDispatcher dispatcher, long chatId, Update update) throws Exception {
+        CompletableFuture<Void> done = dispatcher.expect(chatId);
+        bot.onUpdateReceived(update);
+        done.get(timeout.multipliedBy(5).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    Update textUpdate(long chatId, String text) {
+        Update update = new Update();
+        update.setUpdateId(updateIds.incrementAndGet());
+        update.setMessage(message(chatId, text));
+        return update;
+    }
+
+    Update callbackUpdate(long chatId, String data) {
+        CallbackQuery query = new CallbackQuery();
+        query.setId(String.valueOf(updateIds.get()));
+        query.setData(data);
+        query.setMessage(message(chatId, null));
+        Update update = new Update();
+        update.setUpdateId(updateIds.incrementAndGet());
+        update.setCallbackQuery(query);
+        return update;
+    }
+
+    private Message message(long chatId, String text) {
+        Message message = new Message();
+        message.setMessageId(1);
+        message.setChat(new Chat(chatId, "private"));
+        message.setText(text);
+        return message;
+    }
+
+    // доска глазами пользователя: "❓" — пустая клетка, "N." — своё число, "N" — фиксированное
+    static int[] readBoard(InlineKeyboardMarkup keyboard) {
+        List<List<InlineKeyboardButton>> rows = keyboard.getKeyboard();
+        int size = rows.size();
+        int[] board = new int[size * size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                String text = rows.get(r).get(c).getText();
+                board[r * size + c] = Character.isDigit(text.charAt(0))
+                        ? Integer.parseInt(text.endsWith(".") ? text.substring(0, text.length() - 1) : text)
+                        : 0;
+            }
+        }
+        return board;
+    }
+
+    static boolean solve(int[] board, int size, int from) {
+        int idx = from;
+        while (idx < board.length && board[idx] != 0) {
+            idx++;
+        }
+        if (idx == board.length) {
+            return true;
+        }
+        for (int value = 1; value <= size; value++) {
+            if (fits(board, size, idx, value)) {
+                board[idx] = value;
+                if (solve(board, size, idx + 1)) {
+                    return true;
+                }
+                board[idx] = 0;
+            }
+        }
+        return false;
+    }
+
+    private static boolean fits(int[] board, int size, int idx, int value) {
+        int row = idx / size;
+        int col = idx % size;
+        int block = (int) Math.sqrt(size);
+        int blockRows = size / block;
+        int startRow = row - row % blockRows;
+        int startCol = col - col % block;
+        for (int i = 0; i < size; i++) {
+            if (board[row * size + i] == value || board[i * size + col] == value) {
+                return false;
+            }
+            if (board[(startRow + i / block) * size + startCol + i % block] == value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void report(TimedDispatcher dispatcher, long elapsedNanos, int solved, long backendCalls,
+                        long telegramCalls) {
+        int updates = Math.min(dispatcher.recorded.get(), dispatcher.latencies.length);
+        long[] latencies = Arrays.copyOf(dispatcher.latencies, updates);
+        Arrays.sort(latencies);
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Чатов: %d (решено %d), обновлений: %d за %.2f с%n", chats, solved, updates, seconds);
+        System.out.printf("Пропускная способность: %.0f обновлений/с%n", updates / seconds);
+        System.out.printf("Задержка: p50 %.2f мс, p99 %.2f мс, max %.2f мс%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 1.0));
+        System.out.printf("Вызовов игрового сервера на обновление: %.2f%n", (double) backendCalls / updates);
+        System.out.printf("Вызовов Telegram API на обновление: %.2f%n", (double) telegramCalls / updates);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(i, 0)] / 1e6;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.sudoku.game.loadtest;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Балансировщик с одним экземпляром sudoku-service. Клиент выбирает экземпляр перед каждым
+ * запросом, поэтому число выборов равно числу вызовов игрового сервера.
+ */
+class CountingLoadBalancerClient implements LoadBalancerClient {
+    final ServiceInstance instance;
+    final LongAdder calls = new LongAdder();
+
+    CountingLoadBalancerClient(URI target) {
+        instance = new DefaultServiceInstance("load-test", "sudoku-service", target.getHost(), target.getPort(),
+                "https".equals(target.getScheme()));
+    }
+
+    long calls() {
+        return calls.sum();
+    }
+
+    @Override
+    public ServiceInstance choose(String serviceId) {
+        calls.increment();
+        return instance;
+    }
+
+    @Override
+    public <T> ServiceInstance choose(String serviceId, Request<T> request) {
+        return choose(serviceId);
+    }
+
+    @Override
+    public <T> T execute(String serviceId, LoadBalancerRequest<T> request) throws IOException {
+        return execute(serviceId, choose(serviceId), request);
+    }
+
+    @Override
+    public <T> T execute(String serviceId, ServiceInstance serviceInstance, LoadBalancerRequest<T> request)
+            throws IOException {
+        try {
+            return request.apply(serviceInstance);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public URI reconstructURI(ServiceInstance instance, URI original) {
+        return instance.getUri().resolve(original.getRawPath());
+    }
+}
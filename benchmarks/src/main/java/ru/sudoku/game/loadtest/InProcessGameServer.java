@@ -0,0 +1,109 @@
+package ru.sudoku.game.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ru.sudoku.game.codec.BoardCodec;
+import ru.sudoku.game.dto.SudokuCellDto;
+import ru.sudoku.game.exception.BoardNotFoundException;
+import ru.sudoku.game.service.GameService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * sudoku-service внутри процесса теста: HTTP-сервер JDK поверх настоящего {@link GameService}.
+ *
+ * <p>Повторяет те эндпоинты {@code GameController}, которые вызывает бот ({@code /games/new},
+ * {@code /games/move}, {@code /games/board/{chatId}}), вместе с выбором формата доски по
+ * {@code Accept}. Spring MVC, база данных и журнал не участвуют — для замера бота с
+ * настоящим сервисом используйте {@code --target}.</p>
+ */
+class InProcessGameServer implements AutoCloseable {
+    final GameService gameService;
+    final ObjectMapper objectMapper = new ObjectMapper();
+    final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    final HttpServer server;
+
+    InProcessGameServer(GameService gameService) throws IOException {
+        this.gameService = gameService;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/games/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+            try {
+                if (path.equals("/games/new")) {
+                    long chatId = Long.parseLong(query.get("chatId"));
+                    long userId = query.containsKey("userId") ? Long.parseLong(query.get("userId")) : chatId;
+                    writeBoard(exchange, gameService.newGame(chatId, userId, Integer.parseInt(query.get("blanks"))));
+                } else if (path.equals("/games/move")) {
+                    writeJson(exchange, gameService.applyMove(Long.parseLong(query.get("chatId")),
+                            Integer.parseInt(query.get("row")), Integer.parseInt(query.get("col")),
+                            Integer.parseInt(query.get("value"))));
+                } else if (path.startsWith("/games/board/")) {
+                    writeBoard(exchange, gameService.getBoard(Long.parseLong(path.substring("/games/board/".length()))));
+                } else {
+                    exchange.sendResponseHeaders(404, -1);
+                }
+            } catch (BoardNotFoundException e) {
+                exchange.sendResponseHeaders(404, -1);
+            } catch (RuntimeException e) {
+                exchange.sendResponseHeaders(500, -1);
+            }
+        }
+    }
+
+    private void writeBoard(HttpExchange exchange, SudokuCellDto[][] board) throws IOException {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept != null && accept.contains(BoardCodec.MEDIA_TYPE)) {
+            write(exchange, BoardCodec.MEDIA_TYPE, BoardCodec.encode(board));
+        } else {
+            writeJson(exchange, board);
+        }
+    }
+
+    private void writeJson(HttpExchange exchange, Object body) throws IOException {
+        write(exchange, "application/json", objectMapper.writeValueAsBytes(body));
+    }
+
+    private void write(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static Map<String, String> query(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(pair.substring(0, eq), pair.substring(eq + 1));
+            }
+        }
+        return params;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
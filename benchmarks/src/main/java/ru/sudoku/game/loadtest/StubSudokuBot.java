@@ -0,0 +1,69 @@
+package ru.sudoku.game.loadtest;
+
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboard;
+import ru.sudoku.game.bot.SudokuBot;
+import ru.sudoku.game.bot.UpdateDispatcher;
+import ru.sudoku.game.client.AsyncGameServiceClient;
+import ru.sudoku.game.ui.SudokuUIHelper;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link SudokuBot}, у которого все вызовы Telegram API уходят в заглушку: она запоминает
+ * последнюю клавиатуру каждого чата (по ней симулированный пользователь видит доску) и
+ * выдаёт идентификаторы сообщений.
+ */
+class StubSudokuBot extends SudokuBot {
+    final Map<Long, InlineKeyboardMarkup> keyboards = new ConcurrentHashMap<>();
+    final Map<Long, String> texts = new ConcurrentHashMap<>();
+    final AtomicInteger messageIds = new AtomicInteger();
+    final LongAdder telegramCalls = new LongAdder();
+
+    StubSudokuBot(AsyncGameServiceClient gameClient, SudokuUIHelper uiHelper, UpdateDispatcher dispatcher) {
+        super(gameClient, uiHelper, dispatcher);
+    }
+
+    long telegramCalls() {
+        return telegramCalls.sum();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Serializable, Method extends BotApiMethod<T>> T execute(Method method) {
+        telegramCalls.increment();
+        if (method instanceof SendMessage send) {
+            record(send.getChatId(), send.getText(), send.getReplyMarkup());
+            Message message = new Message();
+            message.setMessageId(messageIds.incrementAndGet());
+            return (T) message;
+        }
+        if (method instanceof EditMessageText edit) {
+            record(edit.getChatId(), edit.getText(), edit.getReplyMarkup());
+            return (T) Boolean.TRUE;
+        }
+        return null;
+    }
+
+    @Override
+    public <T extends Serializable, Method extends BotApiMethod<T>> CompletableFuture<T> executeAsync(Method method) {
+        return CompletableFuture.completedFuture(execute(method));
+    }
+
+    private void record(String chatId, String text, ReplyKeyboard markup) {
+        long id = Long.parseLong(chatId);
+        texts.put(id, text);
+        if (markup instanceof InlineKeyboardMarkup inline) {
+            keyboards.put(id, inline);
+        }
+    }
+}
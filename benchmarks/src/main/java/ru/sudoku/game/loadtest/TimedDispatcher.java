@@ -0,0 +1,50 @@
+package ru.sudoku.game.loadtest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.sudoku.game.bot.UpdateDispatcher;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link UpdateDispatcher}, который замеряет время от постановки обновления в очередь чата
+ * до конца его обработки и сообщает симулированному пользователю, что можно слать следующее.
+ */
+class TimedDispatcher extends UpdateDispatcher {
+    final long[] latencies;
+    final AtomicInteger recorded = new AtomicInteger();
+    // у каждого симулированного чата не больше одного необработанного обновления
+    final Map<Long, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    TimedDispatcher(MeterRegistry meterRegistry, int expectedUpdates) {
+        super(meterRegistry);
+        latencies = new long[expectedUpdates];
+    }
+
+    CompletableFuture<Void> expect(long chatId) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        pending.put(chatId, done);
+        return done;
+    }
+
+    @Override
+    public boolean dispatch(long chatId, Runnable task) {
+        long start = System.nanoTime();
+        return super.dispatch(chatId, () -> {
+            try {
+                task.run();
+            } finally {
+                int i = recorded.getAndIncrement();
+                if (i < latencies.length) {
+                    latencies[i] = System.nanoTime() - start;
+                }
+                CompletableFuture<Void> done = pending.remove(chatId);
+                if (done != null) {
+                    done.complete(null);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,4 @@
+package ru.sudoku.game.benchmarks.jmh_generated;
+public class BoardSerializationBenchmark_jmhType extends BoardSerializationBenchmark_jmhType_B3 {
+}
+
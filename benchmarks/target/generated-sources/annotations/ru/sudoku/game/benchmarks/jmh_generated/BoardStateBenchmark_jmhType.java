@@ -0,0 +1,4 @@
+package ru.sudoku.game.benchmarks.jmh_generated;
+public class BoardStateBenchmark_jmhType extends BoardStateBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package ru.sudoku.game.benchmarks.jmh_generated;
+public class CallbackBenchmark_jmhType extends CallbackBenchmark_jmhType_B3 {
+}
+
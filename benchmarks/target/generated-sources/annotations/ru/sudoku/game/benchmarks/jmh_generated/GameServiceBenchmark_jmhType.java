@@ -0,0 +1,4 @@
+package ru.sudoku.game.benchmarks.jmh_generated;
+public class GameServiceBenchmark_jmhType extends GameServiceBenchmark_jmhType_B3 {
+}
+
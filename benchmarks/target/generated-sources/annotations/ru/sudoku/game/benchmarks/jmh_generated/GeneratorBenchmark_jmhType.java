@@ -0,0 +1,4 @@
+package ru.sudoku.game.benchmarks.jmh_generated;
+public class GeneratorBenchmark_jmhType extends GeneratorBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package ru.sudoku.game.benchmarks.jmh_generated;
+public class GridGeneratorBenchmark_jmhType extends GridGeneratorBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package ru.sudoku.game.benchmarks.jmh_generated;
+public class UiBenchmark_jmhType extends UiBenchmark_jmhType_B3 {
+}
+
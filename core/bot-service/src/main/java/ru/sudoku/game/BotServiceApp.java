@@ -2,10 +2,14 @@ package ru.sudoku.game;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import ru.sudoku.game.loadbalancer.ChatIdAffinityConfiguration;
 
 @SpringBootApplication
 @EnableFeignClients
+// игры живут в памяти экземпляра sudoku-service: запросы одного чата идут на один экземпляр
+@LoadBalancerClient(name = "sudoku-service", configuration = ChatIdAffinityConfiguration.class)
 public class BotServiceApp {
     public static void main(String[] args) {
         SpringApplication.run(BotServiceApp.class, args);
@@ -1,36 +1,98 @@
 package ru.sudoku.game.bot;
 
-import feign.FeignException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
 import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import ru.sudoku.game.dto.LeaderboardDto;
+import ru.sudoku.game.dto.MoveResultDto;
+import ru.sudoku.game.dto.PlayerStatsDto;
 import ru.sudoku.game.dto.SudokuCellDto;
-import ru.sudoku.game.feign.GameServiceClient;
+import ru.sudoku.game.client.AsyncGameServiceClient;
+import ru.sudoku.game.client.GameNotFoundException;
+import ru.sudoku.game.client.GameServiceException;
+import ru.sudoku.game.ui.CallbackCodec;
 import ru.sudoku.game.ui.SudokuUIHelper;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Component
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Slf4j
 public class SudokuBot extends TelegramLongPollingBot {
-    final GameServiceClient gameServiceclient;
+    static final String NOT_MODIFIED = "message is not modified";
+
+    final AsyncGameServiceClient gameClient;
     final SudokuUIHelper uiHelper;
+    final UpdateDispatcher dispatcher;
+    @Value("${bot.ui.board-message-ttl:PT24H}")
+    Duration boardMessageTtl;
+    @Value("${bot.ui.board-messages:100000}")
+    int maxBoardMessages;
+    // идентификатор сообщения с доской каждого чата: ходы редактируют его, а не шлют новое;
+    // чат без нажатий дольше board-message-ttl забывается, как и его игра на сервере
+    Cache<Long, Integer> boardMessageIds;
+    // показывать над доской, что поставленное число не совпадает с решением
+    @Value("${bot.feedback.wrong-move:true}")
+    boolean wrongMoveFeedback;
     @Value("${telegram.bot.username}")
     String botUserName;
     @Value("${telegram.bot.token}")
     String botToken;
 
+    @PostConstruct
+    public void init() {
+        boardMessageIds = Caffeine.newBuilder()
+                .expireAfterAccess(boardMessageTtl)
+                .maximumSize(maxBoardMessages)
+                .build();
+    }
+
+    // вызывается в потоке long polling: только передаём обновление в очередь чата
     @Override
     public void onUpdateReceived(Update update) {
         log.info(" Получено новое обновление от Telegram");
+        Long chatId = chatIdOf(update);
+        if (chatId == null) {
+            log.info("Обновление без чата пропущено");
+            return;
+        }
+        if (!dispatcher.dispatch(chatId, () -> handleUpdate(update)) && update.hasCallbackQuery()) {
+            // очередь чата переполнена: нажатие отклонено, но «часики» у кнопки надо убрать
+            answerCallback(update.getCallbackQuery());
+        }
+    }
+
+    private Long chatIdOf(Update update) {
+        if (update.hasCallbackQuery() && update.getCallbackQuery().getMessage() != null) {
+            return update.getCallbackQuery().getMessage().getChatId();
+        }
+        if (update.hasMessage()) {
+            return update.getMessage().getChatId();
+        }
+        return null;
+    }
+
+    private void handleUpdate(Update update) {
         if (update.hasCallbackQuery()) {
             log.info("Обработка нажатия кнопки пользователем");
             handleCallback(update.getCallbackQuery());
@@ -49,88 +111,200 @@ public class SudokuBot extends TelegramLongPollingBot {
                 log.info("Пользователь {} запросил правила игры", chatId);
                 String rulesText = getRules();
                 sendText(chatId, rulesText);
+            } else if ("/top".equalsIgnoreCase(text) || "/top all".equalsIgnoreCase(text)) {
+                log.info("Пользователь {} запросил таблицу лидеров", chatId);
+                showLeaderboard(chatId, update.getMessage().getFrom().getId(),
+                        text.length() > "/top".length() ? "ALL_TIME" : "WEEK");
+            } else if ("/stats".equalsIgnoreCase(text)) {
+                log.info("Пользователь {} запросил статистику", chatId);
+                showStats(chatId, update.getMessage().getFrom().getId());
             } else {
                 log.warn("Неизвестная команда от пользователя {}", chatId);
-                sendText(chatId, "Напиши /start чтобы начать новую игру\n/rules- показать правила игры");
+                sendText(chatId, "Напиши /start чтобы начать новую игру\n/rules- показать правила игры"
+                        + "\n/top - лучшие результаты недели\n/top all - лучшие результаты за всё время"
+                        + "\n/stats - ваша статистика");
             }
         }
     }
 
 
-    private void executeSafe(SendMessage msg) {
+    private Message executeSafe(SendMessage msg) {
         try {
-            execute(msg);
+            return execute(msg);
         } catch (TelegramApiException e) {
             log.error("Ошибка при отправке сообщения в Telegram: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // сообщение с живой доской чата; если бот его ещё не знает (например, после перезапуска) — нажатое
+    private Integer boardMessageId(long chatId, Integer tappedMessageId) {
+        Integer messageId = boardMessageIds.getIfPresent(chatId);
+        return messageId == null ? tappedMessageId : messageId;
+    }
+
+    /**
+     * Показывает доску или выбор числа в сообщении с доской и запоминает его как доску чата.
+     */
+    private void showBoard(long chatId, Integer messageId, SendMessage msg) {
+        Integer shown = editOrSend(messageId, msg);
+        if (shown != null) {
+            boardMessageIds.put(chatId, shown);
         }
     }
 
+    /**
+     * Редактирует сообщение {@code messageId} так, чтобы оно совпало с {@code msg}: текст
+     * и inline-клавиатура меняются одним запросом. Новое сообщение отправляется, только
+     * если править нечего или правка не удалась (сообщение удалено, слишком старое и т.п.).
+     *
+     * @return идентификатор сообщения, в котором теперь показан {@code msg}, или {@code null}
+     */
+    private Integer editOrSend(Integer messageId, SendMessage msg) {
+        if (messageId != null) {
+            EditMessageText edit = EditMessageText.builder()
+                    .chatId(msg.getChatId())
+                    .messageId(messageId)
+                    .text(msg.getText())
+                    .replyMarkup((InlineKeyboardMarkup) msg.getReplyMarkup())
+                    .build();
+            try {
+                execute(edit);
+                return messageId;
+            } catch (TelegramApiRequestException e) {
+                // повторное нажатие той же кнопки: сообщение уже в нужном виде
+                if (e.getApiResponse() != null && e.getApiResponse().contains(NOT_MODIFIED)) {
+                    return messageId;
+                }
+                log.warn("Не удалось отредактировать сообщение {}: {}", messageId, e.getMessage());
+            } catch (TelegramApiException e) {
+                log.warn("Не удалось отредактировать сообщение {}: {}", messageId, e.getMessage());
+            }
+        }
+        Message sent = executeSafe(msg);
+        return sent == null ? null : sent.getMessageId();
+    }
+
     private void handleCallback(CallbackQuery query) {
         String data = query.getData();
         long chatId = query.getMessage().getChatId();
+        Integer tappedMessageId = query.getMessage().getMessageId();
         log.info("Обработка callback-запроса '{}' от пользователя {}", data, chatId);
+        int callback = CallbackCodec.decode(data);
+        // ответ на нажатие убирает «часики» у кнопки и уходит в Telegram, пока идёт запрос к игровому серверу
+        answerCallback(query);
         try {
-            if (data.startsWith("DIFFICULTY_")) {
-                String level = data.substring("DIFFICULTY_".length());
-                log.info("Пользователь {} выбрал уровень сложности: {}", chatId, level);
-                int blanks;
-                switch (level) {
-                    case "EASY" -> blanks = 3;
-                    case "MEDIUM" -> blanks = 6;
-                    case "HARD" -> blanks = 8;
-                    default -> blanks = 4;
+            switch (CallbackCodec.op(callback)) {
+                case CallbackCodec.DIFFICULTY -> {
+                    int blanks = blanksFor(CallbackCodec.value(callback));
+                    log.info("Пользователь {} выбрал уровень сложности, пустых клеток: {}", chatId, blanks);
+
+                    SudokuCellDto[][] board = await(gameClient.newGame(chatId, query.getFrom().getId(), blanks));
+                    log.info("Новая игра создана для пользователя {}", chatId);
+                    SendMessage msg = uiHelper.buildBoardMessage(chatId, board);
+                    // выбор сложности превращается в доску новой игры
+                    showBoard(chatId, tappedMessageId, msg);
+                }
+                case CallbackCodec.CELL -> {
+                    int r = CallbackCodec.row(callback);
+                    int c = CallbackCodec.col(callback);
+                    log.info(" Пользователь {} выбрал клетку ({}, {})", chatId, r, c);
+                    SendMessage msg = uiHelper.buildNumberSelection(chatId, r, c);
+                    showBoard(chatId, boardMessageId(chatId, tappedMessageId), msg);
                 }
+                case CallbackCodec.VALUE -> {
+                    int row = CallbackCodec.row(callback);
+                    int col = CallbackCodec.col(callback);
+                    int value = CallbackCodec.value(callback);
+                    log.info(" Пользователь {} устанавливает значение {} в клетку ({}, {})", chatId, value, row, col);
+                    // один запрос: ход, новая доска и статус заполненности/решения
+                    MoveResultDto result = await(gameClient.applyMove(chatId, row, col, value));
 
-                SudokuCellDto[][] board = gameServiceclient.newGame(chatId, blanks);
-                log.info("Новая игра создана для пользователя {}", chatId);
-                SendMessage msg = uiHelper.buildBoardMessage(chatId, board);
-                executeSafe(msg);
-            } else if (data.startsWith("CELL_")) {
-                String[] parts = data.split("_");
-                int r = Integer.parseInt(parts[1]);
-                int c = Integer.parseInt(parts[2]);
-                log.info(" Пользователь {} выбрал клетку ({}, {})", chatId, r, c);
-                SendMessage msg = uiHelper.buildNumberSelection(chatId, r, c);
-                executeSafe(msg);
-            } else if (data.startsWith("VALUE_")) {
-                String[] parts = data.split("_");
-                int row = Integer.parseInt(parts[1]);
-                int col = Integer.parseInt(parts[2]);
-                int value = Integer.parseInt(parts[3]);
-                log.info(" Пользователь {} устанавливает значение {} в клетку ({}, {})", chatId, value, row, col);
-                gameServiceclient.setCell(chatId, row, col, value);
-                SudokuCellDto[][] board = gameServiceclient.getBoard(chatId);
-
-                SendMessage msg = uiHelper.buildBoardMessage(chatId, board);
-                executeSafe(msg);
-                if (gameServiceclient.isBoardFull(chatId)) { // метод проверяет есть ли нули
-                    log.info(" Проверка заполненности поля у пользователя {}", chatId);
-                    if (gameServiceclient.isSolved(chatId)) {
-                        log.info("Пользователь {} успешно решил судоку!", chatId);
-                        sendText(chatId, "Поздравляем! Sudoku решено правильно 🎉");
-                        SendMessage startButtonMessage = uiHelper.buildStartButtonMessage(chatId);
-                        executeSafe(startButtonMessage);
-                    } else {
-                        log.info(" Пользователь {} заполнил судоку неверно", chatId);
-                        sendText(chatId, "Все клетки заполнены, но решение неверное ❌");
+                    String note = wrongMoveFeedback && result.isApplied() && !result.isCorrect()
+                            ? "❌ Число " + value + " не подходит в клетку [" + (row + 1) + "," + (col + 1) + "]"
+                            : null;
+                    SendMessage msg = uiHelper.buildBoardMessage(chatId, result.getBoard(), note);
+                    showBoard(chatId, boardMessageId(chatId, tappedMessageId), msg);
+                    reportFull(chatId, result);
+                }
+                case CallbackCodec.UNDO -> {
+                    log.info("Пользователь {} отменяет ход", chatId);
+                    MoveResultDto result = await(gameClient.undo(chatId));
+                    SendMessage msg = uiHelper.buildBoardMessage(chatId, result.getBoard(),
+                            result.isApplied() ? null : "Нечего отменять");
+                    showBoard(chatId, boardMessageId(chatId, tappedMessageId), msg);
+                    reportFull(chatId, result);
+                }
+                case CallbackCodec.REDO -> {
+                    log.info("Пользователь {} повторяет ход", chatId);
+                    MoveResultDto result = await(gameClient.redo(chatId));
+                    SendMessage msg = uiHelper.buildBoardMessage(chatId, result.getBoard(),
+                            result.isApplied() ? null : "Нечего повторять");
+                    showBoard(chatId, boardMessageId(chatId, tappedMessageId), msg);
+                    reportFull(chatId, result);
+                }
+                case CallbackCodec.HINT -> {
+                    int r = CallbackCodec.row(callback);
+                    int c = CallbackCodec.col(callback);
+                    log.info("Пользователь {} запросил подсказку для клетки ({}, {})", chatId, r, c);
+                    int hint;
+                    try {
+                        hint = await(gameClient.getHint(chatId, r, c));
+                    } catch (GameServiceException ex) {
+                        if (ex.getStatus() != HttpStatus.CONFLICT.value()) {
+                            throw ex;
+                        }
+                        // решение неизвестно: игра восстановлена после обновления сервиса
+                        sendText(chatId, "Подсказка недоступна для этой игры. Начните новую игру командой /start");
+                        return;
                     }
+                    SendMessage msg = uiHelper.buildHint(chatId, r, c, hint);
+                    showBoard(chatId, boardMessageId(chatId, tappedMessageId), msg);
                 }
-            } else if ("CANCEL".equals(data)) {
-                log.info("↩Пользователь {} нажал отмену", chatId);
-                SudokuCellDto[][] board = gameServiceclient.getBoard(chatId);
-                SendMessage msg = uiHelper.buildBoardMessage(chatId, board);
-                executeSafe(msg);
-            }
-            else if ("NEW_GAME".equals(data)) {
-                log.info("Пользователь {} начал новую игру через кнопку", chatId);
-                SendMessage msg = uiHelper.buildDifficultySelection(chatId);
-                executeSafe(msg);
-                return;
+                case CallbackCodec.NOTES -> {
+                    int r = CallbackCodec.row(callback);
+                    int c = CallbackCodec.col(callback);
+                    log.info("Пользователь {} открыл заметки клетки ({}, {})", chatId, r, c);
+                    SudokuCellDto[][] board = await(gameClient.getBoard(chatId));
+                    SendMessage msg = uiHelper.buildNoteSelection(chatId, r, c, board[r][c].getNotes());
+                    showBoard(chatId, boardMessageId(chatId, tappedMessageId), msg);
+                }
+                case CallbackCodec.NOTE -> {
+                    int r = CallbackCodec.row(callback);
+                    int c = CallbackCodec.col(callback);
+                    int value = CallbackCodec.value(callback);
+                    log.info("Пользователь {} переключает заметку {} в клетке ({}, {})", chatId, value, r, c);
+                    MoveResultDto result = await(gameClient.toggleNote(chatId, r, c, value));
+                    // клавиатура заметок остаётся открытой, чтобы отметить несколько чисел подряд
+                    SendMessage msg = result.isApplied()
+                            ? uiHelper.buildNoteSelection(chatId, r, c, result.getBoard()[r][c].getNotes())
+                            : uiHelper.buildBoardMessage(chatId, result.getBoard());
+                    showBoard(chatId, boardMessageId(chatId, tappedMessageId), msg);
+                }
+                case CallbackCodec.ELIMINATE -> {
+                    log.info("Пользователь {} снимает лишние заметки", chatId);
+                    MoveResultDto result = await(gameClient.eliminateNotes(chatId));
+                    SendMessage msg = uiHelper.buildBoardMessage(chatId, result.getBoard());
+                    showBoard(chatId, boardMessageId(chatId, tappedMessageId), msg);
+                }
+                case CallbackCodec.CANCEL -> {
+                    log.info("↩Пользователь {} нажал отмену", chatId);
+                    SudokuCellDto[][] board = await(gameClient.getBoard(chatId));
+                    SendMessage msg = uiHelper.buildBoardMessage(chatId, board);
+                    showBoard(chatId, boardMessageId(chatId, tappedMessageId), msg);
+                }
+                case CallbackCodec.NEW_GAME -> {
+                    log.info("Пользователь {} начал новую игру через кнопку", chatId);
+                    SendMessage msg = uiHelper.buildDifficultySelection(chatId);
+                    editOrSend(tappedMessageId, msg);
+                }
+                case CallbackCodec.LOCKED -> log.debug("Пользователь {} нажал фиксированную клетку", chatId);
+                default -> log.warn("Неизвестные callback-данные '{}' от пользователя {}", data, chatId);
             }
-        } catch (FeignException.NotFound ex) {
+        } catch (GameNotFoundException ex) {
             log.warn("Игра не найдена для пользователя {}: {}", chatId, ex.getMessage());
             sendText(chatId, "\"⚠\uFE0F Игра не найдена. Начните новую игру командой /start\"");
-        } catch (FeignException ex) {
+        } catch (GameServiceException ex) {
             log.error("Ошибка соединения с игровым сервером для пользователя {}: {}", chatId, ex.getMessage());
             sendText(chatId, "⚠\uFE0F Ошибка соединения с игровым сервером. Попробуйте позже.");
         } catch (Exception e) {
@@ -139,6 +313,83 @@ public class SudokuBot extends TelegramLongPollingBot {
         }
     }
 
+    // после хода, который заполнил доску: поздравление или сообщение о неверном решении
+    private void reportFull(long chatId, MoveResultDto result) {
+        if (!result.isApplied() || !result.isFull()) {
+            return;
+        }
+        log.info(" Проверка заполненности поля у пользователя {}", chatId);
+        if (result.isSolved()) {
+            log.info("Пользователь {} успешно решил судоку!", chatId);
+            // игра закончена: следующую доску покажет выбор сложности
+            boardMessageIds.invalidate(chatId);
+            sendText(chatId, "Поздравляем! Sudoku решено правильно 🎉");
+            SendMessage startButtonMessage = uiHelper.buildStartButtonMessage(chatId);
+            executeSafe(startButtonMessage);
+        } else {
+            log.info(" Пользователь {} заполнил судоку неверно", chatId);
+            sendText(chatId, "Все клетки заполнены, но решение неверное ❌");
+        }
+    }
+
+    // таблицы лидеров хранятся в памяти sudoku-service, запрос не доходит до базы
+    private void showLeaderboard(long chatId, long userId, String period) {
+        try {
+            LeaderboardDto leaderboard = await(gameClient.getLeaderboard(chatId, period));
+            executeSafe(uiHelper.buildLeaderboard(chatId, userId, leaderboard));
+        } catch (GameServiceException ex) {
+            log.error("Не удалось получить таблицу лидеров для пользователя {}: {}", chatId, ex.getMessage());
+            sendText(chatId, "⚠\uFE0F Ошибка соединения с игровым сервером. Попробуйте позже.");
+        }
+    }
+
+    // результаты засчитываются пользователю, нажавшему кнопку, а не чату
+    private void showStats(long chatId, long userId) {
+        try {
+            PlayerStatsDto stats = await(gameClient.getStats(chatId, userId));
+            executeSafe(uiHelper.buildStats(chatId, stats));
+        } catch (GameServiceException ex) {
+            log.error("Не удалось получить статистику для пользователя {}: {}", chatId, ex.getMessage());
+            sendText(chatId, "⚠\uFE0F Ошибка соединения с игровым сервером. Попробуйте позже.");
+        }
+    }
+
+    private void answerCallback(CallbackQuery query) {
+        try {
+            executeAsync(new AnswerCallbackQuery(query.getId()))
+                    .exceptionally(e -> {
+                        log.debug("Не удалось ответить на нажатие кнопки: {}", e.getMessage());
+                        return null;
+                    });
+        } catch (TelegramApiException e) {
+            log.debug("Не удалось ответить на нажатие кнопки: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Дожидается ответа игрового сервера. Обработчик чата работает в своём виртуальном потоке,
+     * поэтому ожидание не занимает поток платформы; таймаут задан в самом клиенте.
+     */
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private int blanksFor(int difficulty) {
+        return switch (difficulty) {
+            case CallbackCodec.DIFFICULTY_EASY -> 3;
+            case CallbackCodec.DIFFICULTY_MEDIUM -> 6;
+            case CallbackCodec.DIFFICULTY_HARD -> 8;
+            default -> 4;
+        };
+    }
+
     private String getRules() {
         return "📋 Правила игры Sudoku 4x4:\n\n" +
                 "• Заполните сетку 4x4 числами от 1 до 4 \n" +
@@ -148,7 +399,11 @@ public class SudokuBot extends TelegramLongPollingBot {
                 "✏️ Как играть:\n" +
                 "• Нажмите на клетку со знаком ❓ чтобы выбрать число\n" +
                 "• Используйте кнопку 🧹 стереть для очистки клетки\n" +
-                "• Используйте кнопку ↩️ отмена для отмены действия\n" +
+                "• Используйте кнопку 💡 подсказка, если не знаете, какое число поставить\n" +
+                "• Кнопка ✏️ заметки отмечает возможные числа в пустой клетке, 🧽 снимает заметки, " +
+                "которые уже противоречат доске\n" +
+                "• Используйте кнопку ↩️ отмена, чтобы закрыть выбор числа и вернуться к доске\n" +
+                "• Кнопки ↶ и ↷ под доской отменяют и повторяют ходы\n" +
                 "• Цифры с точкой можно изменять, без точки изменять нельзя";
     }
 
@@ -0,0 +1,191 @@
+package ru.sudoku.game.bot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Распределяет обработку обновлений Telegram по виртуальным потокам.
+ *
+ * <p>У каждого чата свой почтовый ящик: задачи одного чата выполняются строго по очереди
+ * в порядке поступления, задачи разных чатов — параллельно. Почтовый ящик существует,
+ * пока в нём есть задачи, и удаляется, когда его виртуальный поток всё разобрал.
+ * Почтовый ящик вмещает не больше {@code bot.dispatcher.mailbox-capacity} задач: обновления
+ * чата, который шлёт их быстрее, чем они обрабатываются, отклоняются, а не копятся в памяти.</p>
+ *
+ * <p>Одновременно выполняется не больше {@code bot.dispatcher.max-in-flight} задач; остальные
+ * ждут на семафоре, не занимая потоков платформы. Если ожидание прервано, задача и остаток
+ * очереди её чата отбрасываются с записью в лог. При остановке диспетчер ждёт разбора очередей
+ * до {@code bot.dispatcher.shutdown-timeout}. Метрики: {@code bot.dispatcher.queued},
+ * {@code bot.dispatcher.in-flight}, {@code bot.dispatcher.active-chats},
+ * {@code bot.dispatcher.rejected} и {@code bot.dispatcher.dropped}.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class UpdateDispatcher {
+    final MeterRegistry meterRegistry;
+    final ConcurrentHashMap<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    final AtomicInteger queued = new AtomicInteger();
+    final AtomicInteger inFlight = new AtomicInteger();
+    @Value("${bot.dispatcher.max-in-flight:256}")
+    int maxInFlight;
+    @Value("${bot.dispatcher.mailbox-capacity:32}")
+    int mailboxCapacity;
+    @Value("${bot.dispatcher.shutdown-timeout:PT10S}")
+    Duration shutdownTimeout;
+    Semaphore permits;
+    ExecutorService executor;
+    Counter rejected;
+    Counter dropped;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxInFlight);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        Gauge.builder("bot.dispatcher.queued", queued, AtomicInteger::get)
+                .description("Обновления, ожидающие обработки")
+                .register(meterRegistry);
+        Gauge.builder("bot.dispatcher.in-flight", inFlight, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("bot.dispatcher.active-chats", mailboxes, ConcurrentHashMap::size)
+                .register(meterRegistry);
+        rejected = Counter.builder("bot.dispatcher.rejected")
+                .description("Обновления, отклонённые из-за переполненной очереди чата")
+                .register(meterRegistry);
+        dropped = Counter.builder("bot.dispatcher.dropped")
+                .description("Принятые обновления, отброшенные без обработки")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Остановка диспетчера: не обработано обновлений: {}, чатов: {}", queued.get(), mailboxes.size());
+        }
+    }
+
+    /**
+     * Ставит задачу в очередь чата и запускает разбор очереди, если он ещё не идёт.
+     *
+     * @return {@code false}, если очередь чата заполнена и задача отклонена
+     */
+    public boolean dispatch(long chatId, Runnable task) {
+        queued.incrementAndGet();
+        boolean[] accepted = {false};
+        boolean[] start = {false};
+        // compute держит блокировку ячейки карты, поэтому постановка в очередь и удаление
+        // пустого почтового ящика не пересекаются
+        Mailbox mailbox = mailboxes.compute(chatId, (id, current) -> {
+            Mailbox box = current == null ? new Mailbox(mailboxCapacity) : current;
+            accepted[0] = box.tasks.offer(task);
+            if (accepted[0] && !box.running) {
+                box.running = true;
+                start[0] = true;
+            }
+            return box;
+        });
+        if (!accepted[0]) {
+            queued.decrementAndGet();
+            rejected.increment();
+            log.warn("Очередь чата {} заполнена ({} обновлений), обновление отклонено", chatId, mailboxCapacity);
+            return false;
+        }
+        if (start[0]) {
+            executor.execute(() -> drain(chatId, mailbox));
+        }
+        return true;
+    }
+
+    private void drain(long chatId, Mailbox mailbox) {
+        while (true) {
+            Runnable task = mailbox.tasks.poll();
+            if (task == null) {
+                boolean[] finished = {false};
+                mailboxes.computeIfPresent(chatId, (id, box) -> {
+                    if (box.tasks.isEmpty()) {
+                        box.running = false;
+                        finished[0] = true;
+                        return null;
+                    }
+                    return box;
+                });
+                if (finished[0]) {
+                    return;
+                }
+                continue;
+            }
+            queued.decrementAndGet();
+            if (!run(chatId, task)) {
+                abandon(chatId);
+                return;
+            }
+        }
+    }
+
+    // поток прерван: остаток очереди чата уже не будет обработан, это видно в логе и метрике
+    private void abandon(long chatId) {
+        int[] remaining = {0};
+        mailboxes.computeIfPresent(chatId, (id, box) -> {
+            remaining[0] = box.tasks.size();
+            box.tasks.clear();
+            box.running = false;
+            return null;
+        });
+        queued.addAndGet(-remaining[0]);
+        dropped.increment(remaining[0] + 1);
+        log.error("Обработка обновлений чата {} прервана, отброшено обновлений: {}", chatId, remaining[0] + 1);
+    }
+
+    /**
+     * @return {@code false}, если ожидание разрешения прервано и задача не выполнена
+     */
+    private boolean run(long chatId, Runnable task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        inFlight.incrementAndGet();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Ошибка при обработке обновления для чата {}: {}", chatId, e.getMessage(), e);
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+        return true;
+    }
+
+    private static final class Mailbox {
+        final BlockingQueue<Runnable> tasks;
+        // изменяется только внутри compute
+        boolean running;
+
+        Mailbox(int capacity) {
+            tasks = new LinkedBlockingQueue<>(capacity);
+        }
+    }
+}
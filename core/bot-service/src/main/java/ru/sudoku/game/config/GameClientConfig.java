@@ -0,0 +1,34 @@
+package ru.sudoku.game.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.sudoku.game.client.AsyncGameServiceClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class GameClientConfig {
+
+    /**
+     * Асинхронный клиент sudoku-service. Соединения переиспользуются {@link HttpClient},
+     * обработка ответов идёт на виртуальных потоках.
+     */
+    @Bean
+    public AsyncGameServiceClient asyncGameServiceClient(
+            LoadBalancerClient loadBalancerClient,
+            ObjectMapper objectMapper,
+            @Value("${bot.game-client.connect-timeout:PT1S}") Duration connectTimeout,
+            @Value("${bot.game-client.request-timeout:PT2S}") Duration requestTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        return new AsyncGameServiceClient(httpClient, loadBalancerClient, objectMapper, requestTimeout);
+    }
+}
@@ -0,0 +1,234 @@
+package ru.sudoku.game.ui;
+
+/**
+ * Компактный формат callback-данных inline-кнопок и его разбор без аллокаций.
+ *
+ * <p>Формат версии 1: {@code <версия><код операции><аргументы>}, каждый аргумент — одна
+ * цифра base-36 (0–9, a–z), чего хватает для строк, столбцов и чисел досок до 16x16:
+ * <ul>
+ *   <li>{@code 1Crc} — выбор клетки, например {@code 1C12};</li>
+ *   <li>{@code 1Vrcv} — число {@code v} в клетку, {@code v = 0} стирает;</li>
+ *   <li>{@code 1Hrc} — подсказка для клетки;</li>
+ *   <li>{@code 1Prc} — заметки клетки, {@code 1Mrcv} — переключить заметку {@code v},
+ *   {@code 1E} — снять заметки, противоречащие доске;</li>
+ *   <li>{@code 1U} — отменить последний ход, {@code 1R} — повторить отменённый;</li>
+ *   <li>{@code 1Dd} — выбор сложности, {@code d} — порядковый номер 0–2 (легкий, средний, сложный);</li>
+ *   <li>{@code 1X} — отмена, {@code 1N} — новая игра, {@code 1L} — фиксированная клетка.</li>
+ * </ul>
+ * Результат разбора — {@code int}: код операции в младшем байте, затем строка, столбец и
+ * значение по байту; поля читаются через {@link #op}, {@link #row}, {@link #col}, {@link #value}.</p>
+ *
+ * <p>Старые данные ({@code CELL_r_c}, {@code VALUE_r_c_v}, {@code DIFFICULTY_EASY},
+ * {@code CANCEL}, {@code NEW_GAME}, {@code LOCKED}) тоже разбираются, поэтому кнопки,
+ * оставшиеся на экранах пользователей после обновления бота, продолжают работать.
+ * Нераспознанные данные дают {@link #UNKNOWN}.</p>
+ */
+public final class CallbackCodec {
+    public static final int UNKNOWN = 0;
+    public static final int CELL = 1;
+    public static final int VALUE = 2;
+    public static final int DIFFICULTY = 3;
+    public static final int CANCEL = 4;
+    public static final int NEW_GAME = 5;
+    public static final int LOCKED = 6;
+    public static final int HINT = 7;
+    public static final int NOTES = 8;
+    public static final int NOTE = 9;
+    public static final int ELIMINATE = 10;
+    public static final int UNDO = 11;
+    public static final int REDO = 12;
+
+    public static final int DIFFICULTY_EASY = 0;
+    public static final int DIFFICULTY_MEDIUM = 1;
+    public static final int DIFFICULTY_HARD = 2;
+
+    static final char VERSION = '1';
+    private static final int MAX_ARG = Character.MAX_RADIX - 1;
+    private static final String[] LEGACY_DIFFICULTIES = {"EASY", "MEDIUM", "HARD"};
+
+    private CallbackCodec() {
+    }
+
+    public static String cell(int row, int col) {
+        return new String(new char[]{VERSION, 'C', digit(row), digit(col)});
+    }
+
+    public static String value(int row, int col, int value) {
+        return new String(new char[]{VERSION, 'V', digit(row), digit(col), digit(value)});
+    }
+
+    public static String hint(int row, int col) {
+        return new String(new char[]{VERSION, 'H', digit(row), digit(col)});
+    }
+
+    public static String notes(int row, int col) {
+        return new String(new char[]{VERSION, 'P', digit(row), digit(col)});
+    }
+
+    public static String note(int row, int col, int value) {
+        return new String(new char[]{VERSION, 'M', digit(row), digit(col), digit(value)});
+    }
+
+    public static String eliminate() {
+        return VERSION + "E";
+    }
+
+    public static String undo() {
+        return VERSION + "U";
+    }
+
+    public static String redo() {
+        return VERSION + "R";
+    }
+
+    public static String difficulty(int level) {
+        return new String(new char[]{VERSION, 'D', digit(level)});
+    }
+
+    public static String cancel() {
+        return VERSION + "X";
+    }
+
+    public static String newGame() {
+        return VERSION + "N";
+    }
+
+    public static String locked() {
+        return VERSION + "L";
+    }
+
+    /**
+     * Разбирает callback-данные кнопки: компактный формат или старый.
+     *
+     * @param data callback-данные, может быть {@code null}
+     * @return упакованный результат; {@link #op} равен {@link #UNKNOWN}, если данные не распознаны
+     */
+    public static int decode(String data) {
+        if (data == null || data.isEmpty()) {
+            return UNKNOWN;
+        }
+        if (data.charAt(0) == VERSION) {
+            return decodeV1(data);
+        }
+        return decodeLegacy(data);
+    }
+
+    public static int op(int decoded) {
+        return decoded & 0xFF;
+    }
+
+    public static int row(int decoded) {
+        return (decoded >>> 8) & 0xFF;
+    }
+
+    public static int col(int decoded) {
+        return (decoded >>> 16) & 0xFF;
+    }
+
+    public static int value(int decoded) {
+        return decoded >>> 24;
+    }
+
+    private static int decodeV1(String data) {
+        if (data.length() < 2) {
+            return UNKNOWN;
+        }
+        int length = data.length();
+        return switch (data.charAt(1)) {
+            case 'C' -> length == 4 ? pack(CELL, arg(data, 2), arg(data, 3), 0) : UNKNOWN;
+            case 'V' -> length == 5 ? pack(VALUE, arg(data, 2), arg(data, 3), arg(data, 4)) : UNKNOWN;
+            case 'H' -> length == 4 ? pack(HINT, arg(data, 2), arg(data, 3), 0) : UNKNOWN;
+            case 'P' -> length == 4 ? pack(NOTES, arg(data, 2), arg(data, 3), 0) : UNKNOWN;
+            case 'M' -> length == 5 ? pack(NOTE, arg(data, 2), arg(data, 3), arg(data, 4)) : UNKNOWN;
+            case 'E' -> length == 2 ? ELIMINATE : UNKNOWN;
+            case 'U' -> length == 2 ? UNDO : UNKNOWN;
+            case 'R' -> length == 2 ? REDO : UNKNOWN;
+            case 'D' -> length == 3 ? pack(DIFFICULTY, 0, 0, arg(data, 2)) : UNKNOWN;
+            case 'X' -> length == 2 ? CANCEL : UNKNOWN;
+            case 'N' -> length == 2 ? NEW_GAME : UNKNOWN;
+            case 'L' -> length == 2 ? LOCKED : UNKNOWN;
+            default -> UNKNOWN;
+        };
+    }
+
+    // форматы до версии 1: разбираются по первому символу и цифрам без split и parseInt
+    private static int decodeLegacy(String data) {
+        return switch (data.charAt(0)) {
+            case 'C' -> {
+                if (data.equals("CANCEL")) {
+                    yield CANCEL;
+                }
+                yield data.startsWith("CELL_") ? legacyNumbers(data, 5, CELL, 2) : UNKNOWN;
+            }
+            case 'V' -> data.startsWith("VALUE_") ? legacyNumbers(data, 6, VALUE, 3) : UNKNOWN;
+            case 'D' -> {
+                if (!data.startsWith("DIFFICULTY_")) {
+                    yield UNKNOWN;
+                }
+                for (int level = 0; level < LEGACY_DIFFICULTIES.length; level++) {
+                    String name = LEGACY_DIFFICULTIES[level];
+                    if (data.length() == 11 + name.length() && data.startsWith(name, 11)) {
+                        yield pack(DIFFICULTY, 0, 0, level);
+                    }
+                }
+                // старый бот создавал игру и для неизвестного уровня
+                yield pack(DIFFICULTY, 0, 0, MAX_ARG);
+            }
+            case 'N' -> data.equals("NEW_GAME") ? NEW_GAME : UNKNOWN;
+            case 'L' -> data.equals("LOCKED") ? LOCKED : UNKNOWN;
+            default -> UNKNOWN;
+        };
+    }
+
+    // разбирает count неотрицательных чисел, разделённых '_', начиная с позиции from
+    private static int legacyNumbers(String data, int from, int op, int count) {
+        int packed = op;
+        int pos = from;
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                if (pos >= data.length() || data.charAt(pos) != '_') {
+                    return UNKNOWN;
+                }
+                pos++;
+            }
+            int start = pos;
+            int number = 0;
+            while (pos < data.length() && data.charAt(pos) != '_') {
+                int d = data.charAt(pos) - '0';
+                if (d < 0 || d > 9) {
+                    return UNKNOWN;
+                }
+                number = number * 10 + d;
+                if (number > MAX_ARG) {
+                    return UNKNOWN;
+                }
+                pos++;
+            }
+            if (pos == start) {
+                return UNKNOWN;
+            }
+            packed |= number << (8 * (i + 1));
+        }
+        return pos == data.length() ? packed : UNKNOWN;
+    }
+
+    private static int arg(String data, int pos) {
+        int d = Character.digit(data.charAt(pos), Character.MAX_RADIX);
+        // неверная цифра превращает весь результат в UNKNOWN (см. pack)
+        return d < 0 ? 0xFF : d;
+    }
+
+    private static int pack(int op, int row, int col, int value) {
+        if (row == 0xFF || col == 0xFF || value == 0xFF) {
+            return UNKNOWN;
+        }
+        return op | row << 8 | col << 16 | value << 24;
+    }
+
+    private static char digit(int n) {
+        if (n < 0 || n > MAX_ARG) {
+            throw new IllegalArgumentException("Аргумент callback вне диапазона 0–" + MAX_ARG + ": " + n);
+        }
+        return Character.forDigit(n, Character.MAX_RADIX);
+    }
+}
@@ -1,17 +1,117 @@
 package ru.sudoku.game.ui;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+import ru.sudoku.game.dto.DifficultyStatsDto;
+import ru.sudoku.game.dto.LeaderboardDto;
+import ru.sudoku.game.dto.LeaderboardEntryDto;
+import ru.sudoku.game.dto.PlayerStatsDto;
 import ru.sudoku.game.dto.SudokuCellDto;
 
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Строит сообщения и inline-клавиатуры бота.
+ *
+ * <p>Кэшируются не объекты Telegram API (у {@link InlineKeyboardButton} и
+ * {@link InlineKeyboardMarkup} есть сеттеры, и общий объект мог бы изменить чужую доску),
+ * а неизменяемые раскладки {@link Keyboard}: тексты и callback-данные кнопок в неизменяемых
+ * списках. Каждое сообщение получает свою свежую клавиатуру, собранную из раскладки:
+ * <ul>
+ *   <li>выбор сложности, кнопка новой игры и 16 клавиатур выбора числа раскладываются один раз;</li>
+ *   <li>кнопки клеток доски 4x4 (значение 0–4 × фиксированность × позиция) созданы заранее,
+ *   как и кнопки пустых клеток с заметками и клавиатуры заметок (маска 0–15 × позиция);</li>
+ *   <li>раскладка доски 4x4 кэшируется по упакованному состоянию доски (значения и маска
+ *   фиксированных клеток в одном {@code long}); кэш ограничен {@code bot.ui.board-cache-size}
+ *   и при переполнении вытесняет редко и давно показанные доски (Caffeine, W-TinyLFU).
+ *   Доска с заметками в ключ не помещается и собирается из готовых кнопок без кэша.</li>
+ *   <li>под каждой доской — общая строка кнопок отмены и повтора хода.</li>
+ * </ul>
+ * На попадании в кэш построение доски сводится к вычислению ключа и копированию ~20 кнопок.
+ * Метрики: {@code bot.ui.board.cache} (hit/miss) и {@code bot.ui.board.cache.hit.ratio}.</p>
+ */
 @Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
 public class SudokuUIHelper {
+    static final int CACHED_SIZE = 4;
+    static final int MAX_VALUE = 4;
+    static final String BOARD_TEXT = "Ваше Sudoku:";
+
+    final MeterRegistry meterRegistry;
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    @Value("${bot.ui.board-cache-size:10000}")
+    int boardCacheSize;
+    Cache<Long, Keyboard> boardCache;
+    // кнопки клеток доски 4x4: [индекс клетки][значение][1 — фиксированная]
+    Button[][][] cellButtons;
+    // кнопки пустых клеток 4x4 с заметками и клавиатуры заметок: [индекс клетки][маска заметок]
+    Button[][] noteButtons;
+    Keyboard[][] noteSelections;
+    Keyboard[] numberSelections;
+    List<Button> historyRow;
+    String[] numberSelectionTexts;
+    Keyboard difficultyKeyboard;
+    Keyboard startKeyboard;
+
+    @PostConstruct
+    public void init() {
+        boardCache = Caffeine.newBuilder()
+                .maximumSize(boardCacheSize)
+                .build();
+        int cells = CACHED_SIZE * CACHED_SIZE;
+        cellButtons = new Button[cells][MAX_VALUE + 1][2];
+        historyRow = List.of(new Button("↶", CallbackCodec.undo()), new Button("↷", CallbackCodec.redo()));
+        int masks = 1 << MAX_VALUE;
+        noteButtons = new Button[cells][masks];
+        noteSelections = new Keyboard[cells][masks];
+        numberSelections = new Keyboard[cells];
+        numberSelectionTexts = new String[cells];
+        for (int r = 0; r < CACHED_SIZE; r++) {
+            for (int c = 0; c < CACHED_SIZE; c++) {
+                int idx = r * CACHED_SIZE + c;
+                for (int value = 0; value <= MAX_VALUE; value++) {
+                    cellButtons[idx][value][0] = createCellButton(r, c, value, false);
+                    cellButtons[idx][value][1] = createCellButton(r, c, value, true);
+                }
+                for (int notes = 0; notes < masks; notes++) {
+                    noteButtons[idx][notes] = createNoteButton(r, c, notes);
+                    noteSelections[idx][notes] = createNoteSelection(r, c, notes);
+                }
+                numberSelections[idx] = createNumberSelection(r, c);
+                numberSelectionTexts[idx] = numberSelectionText(r, c);
+            }
+        }
+        difficultyKeyboard = createDifficultySelection();
+        startKeyboard = createStartButton();
+
+        FunctionCounter.builder("bot.ui.board.cache", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("bot.ui.board.cache", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("bot.ui.board.cache.hit.ratio", this, SudokuUIHelper::hitRatio)
+                .register(meterRegistry);
+    }
+
     /**
      * Создает интерактивное сообщение с игровым полем Sudoku для Telegram бота
      *
@@ -22,40 +122,25 @@ public class SudokuUIHelper {
      * @apiNote Метод преобразует игровое поле в интерактивную клавиатуру, где:
      *          - Фиксированные ячейки отображаются как обычные числа без возможности взаимодействия
      *          - Изменяемые ячейки отображаются с точкой после числа или "❓" для пустых ячеек
-     *          - Каждая изменяемая ячейка является кнопкой с callback данными в формате "CELL_X_Y"
+     *          - Каждая изменяемая ячейка является кнопкой с callback данными {@link CallbackCodec#cell}
+     *          - Под доской кнопки "↶" и "↷": отмена и повтор хода ({@link CallbackCodec#undo}, {@link CallbackCodec#redo})
+     *          Раскладка доски 4x4 берётся из кэша по состоянию доски.
      */
     public SendMessage buildBoardMessage(long chatId, SudokuCellDto[][] board) {
-        List<List<InlineKeyboardButton>> rows = new ArrayList<>();
-        int size = board.length;
-        for (int r = 0; r < size; r++) {
-            List<InlineKeyboardButton> row = new ArrayList<>();
-            for (int c = 0; c < size; c++) {
-                SudokuCellDto cell = board[r][c];
-                InlineKeyboardButton btn = new InlineKeyboardButton();
-
-                if (cell.isFixed()) {
-                    // фиксированные числа: замок, не интерактивные
-                    btn.setText(cell.getValue() + "");
-                    btn.setCallbackData("LOCKED");
-                } else {
-                    // пустая клетка или пользовательское число: интерактивные
-                    btn.setText(cell.getValue() == 0 ? "❓" : String.valueOf(cell.getValue() + "."));
-                    btn.setCallbackData("CELL_" + r + "_" + c);
-                }
-
-                row.add(btn);
-
-            }
-            rows.add(row);
-        }
-        InlineKeyboardMarkup markup = new InlineKeyboardMarkup();
-        markup.setKeyboard(rows);
+        return buildBoardMessage(chatId, board, null);
+    }
 
-        SendMessage msg = new SendMessage();
-        msg.setChatId(String.valueOf(chatId));
-        msg.setText("Ваше Sudoku:");
-        msg.setReplyMarkup(markup);
-        return msg;
+    /**
+     * То же, что {@link #buildBoardMessage(long, SudokuCellDto[][])}, с пояснением над доской,
+     * например о неверном ходе. Раскладка берётся из того же кэша.
+     *
+     * @param note строка над доской или {@code null}
+     */
+    public SendMessage buildBoardMessage(long chatId, SudokuCellDto[][] board, String note) {
+        Keyboard keyboard = board.length == CACHED_SIZE && !hasNotes(board)
+                ? cachedBoardKeyboard(board)
+                : createBoardKeyboard(board);
+        return message(chatId, note == null ? BOARD_TEXT : note + "\n" + BOARD_TEXT, keyboard);
     }
     /**
      * Создает сообщение с клавиатурой для выбора числа в указанной клетке Sudoku
@@ -66,46 +151,49 @@ public class SudokuUIHelper {
      * @return готовое сообщение SendMessage с клавиатурой выбора чисел
      *
      * @apiNote Метод создает клавиатуру с числами от 1 до 4 и управляющими кнопками:
-     *          - Числа 1-4: кнопки с callback данными в формате "VALUE_row_col_number"
+     *          - Числа 1-4: кнопки с callback данными {@link CallbackCodec#value}
      *          - Кнопка "🧹 стереть": устанавливает значение 0 для клетки
+     *          - Кнопка "💡 подсказка": показывает правильное число для клетки ({@link CallbackCodec#hint})
+     *          - Кнопка "✏️ заметки": открывает заметки клетки ({@link CallbackCodec#notes})
      *          - Кнопка "↩️ отмена": возвращает к предыдущему действию
      *          В тексте сообщения координаты отображаются в user-friendly формате (1-based)
+     *          Раскладка и текст для каждой из 16 клеток построены заранее.
      */
 
     public SendMessage buildNumberSelection(long chatId, int row, int col) {
-        List<List<InlineKeyboardButton>> rows = new ArrayList<>();
-
-        // одна строка со всеми кнопками: цифры 1-4, стереть, отмена
-        List<InlineKeyboardButton> singleRow = new ArrayList<>();
-        // цифры 1-4
-        for (int num = 1; num <= 4; num++) {
-            InlineKeyboardButton btn = new InlineKeyboardButton();
-            btn.setText(String.valueOf(num));
-            btn.setCallbackData("VALUE_" + row + "_" + col + "_" + num);
-            singleRow.add(btn);
+        if (row < 0 || row >= CACHED_SIZE || col < 0 || col >= CACHED_SIZE) {
+            return message(chatId, numberSelectionText(row, col), createNumberSelection(row, col));
         }
-        // стереть
-        InlineKeyboardButton erase = new InlineKeyboardButton();
-        erase.setText("🧹");
-        erase.setCallbackData("VALUE_" + row + "_" + col + "_0");
-        singleRow.add(erase);
-
-        // отмена
-        InlineKeyboardButton cancel = new InlineKeyboardButton();
-        cancel.setText("↩️");
-        cancel.setCallbackData("CANCEL");
-        singleRow.add(cancel);
-
-        rows.add(singleRow);
-
-        InlineKeyboardMarkup markup = new InlineKeyboardMarkup(rows);
+        int idx = row * CACHED_SIZE + col;
+        return message(chatId, numberSelectionTexts[idx], numberSelections[idx]);
+    }
+    /**
+     * Создает сообщение с заметками клетки: числа 1-4 переключают заметку ({@link CallbackCodec#note}),
+     * отмеченные числа помечены галочкой. Кнопка "🧽" снимает заметки, противоречащие доске
+     * ({@link CallbackCodec#eliminate}), "✅" возвращает к доске.
+     *
+     * @param notes текущая маска заметок клетки
+     */
+    public SendMessage buildNoteSelection(long chatId, int row, int col, int notes) {
+        String text = "✏️ Заметки для клетки [" + (row + 1) + "," + (col + 1) + "]: отметьте возможные числа";
+        if (row < 0 || row >= CACHED_SIZE || col < 0 || col >= CACHED_SIZE || notes < 0 || notes >= 1 << MAX_VALUE) {
+            return message(chatId, text, createNoteSelection(row, col, notes));
+        }
+        return message(chatId, text, noteSelections[row * CACHED_SIZE + col][notes]);
+    }
 
-        SendMessage msg = new SendMessage();
-        msg.setChatId(String.valueOf(chatId));
-        msg.setText("Выберите число для клетки [" + (row + 1) + "," + (col + 1) + "]");
-        msg.setReplyMarkup(markup);
-        return msg;
+    /**
+     * Создает сообщение с подсказкой для клетки: та же клавиатура выбора числа, в тексте —
+     * правильное число, чтобы пользователь поставил его сам.
+     */
+    public SendMessage buildHint(long chatId, int row, int col, int value) {
+        String text = "💡 В клетке [" + (row + 1) + "," + (col + 1) + "] должно стоять число " + value;
+        if (row < 0 || row >= CACHED_SIZE || col < 0 || col >= CACHED_SIZE) {
+            return message(chatId, text, createNumberSelection(row, col));
+        }
+        return message(chatId, text, numberSelections[row * CACHED_SIZE + col]);
     }
+
     /**
      * Создает сообщение с выбором уровня сложности для новой игры в Sudoku
      *
@@ -113,64 +201,295 @@ public class SudokuUIHelper {
      * @return готовое сообщение SendMessage с клавиатурой выбора сложности
      *
      * @apiNote Метод предоставляет три уровня сложности:
-     *          -  Легкий (DIFFICULTY_EASY)
-     *          -  Средний (DIFFICULTY_MEDIUM)
-     *          -  Сложный (DIFFICULTY_HARD)
+     *          -  Легкий ({@link CallbackCodec#DIFFICULTY_EASY})
+     *          -  Средний ({@link CallbackCodec#DIFFICULTY_MEDIUM})
+     *          -  Сложный ({@link CallbackCodec#DIFFICULTY_HARD})
      *          Все кнопки расположены в одной строке для компактного отображения
      */
     public SendMessage buildDifficultySelection(long chatId) {
-        List<List<InlineKeyboardButton>> rows = new ArrayList<>();
-
-        List<InlineKeyboardButton> line1 = new ArrayList<>();
-        line1.add(button("🟢 Легкий", "DIFFICULTY_EASY"));
-        line1.add(button("🟡 Средний", "DIFFICULTY_MEDIUM"));
-        line1.add(button("🔴 Сложный", "DIFFICULTY_HARD"));
-        rows.add(line1);
+        return message(chatId, "Выберите уровень сложности Sudoku:", difficultyKeyboard);
+    }
 
-        InlineKeyboardMarkup markup = new InlineKeyboardMarkup(rows);
+    /**
+     * Создает сообщение с кнопкой "Старт" которая отправляет команду /start
+     */
+    public SendMessage buildStartButtonMessage(long chatId) {
+        return message(chatId, "Хотите начать новую игру?", startKeyboard);
+    }
 
-        SendMessage msg = new SendMessage();
-        msg.setChatId(String.valueOf(chatId));
-        msg.setText("Выберите уровень сложности Sudoku:");
-        msg.setReplyMarkup(markup);
-        return msg;
+    /**
+     * Создает сообщение с таблицами лидеров: для каждого уровня сложности место, время решения
+     * и очки. Строка пользователя {@code userId} отмечена, остальные игроки показаны
+     * псевдонимами {@link #playerName(long)}: идентификатор Telegram в общий список не попадает.
+     */
+    public SendMessage buildLeaderboard(long chatId, long userId, LeaderboardDto leaderboard) {
+        StringBuilder text = new StringBuilder("ALL_TIME".equals(leaderboard.getPeriod())
+                ? "🏆 Лучшие результаты за всё время\n"
+                : "🏆 Лучшие результаты недели\n");
+        for (Map.Entry<String, List<LeaderboardEntryDto>> board : leaderboard.getBoards().entrySet()) {
+            text.append('\n').append(difficultyTitle(board.getKey())).append('\n');
+            if (board.getValue().isEmpty()) {
+                text.append("пока никто не решил\n");
+            }
+            for (LeaderboardEntryDto entry : board.getValue()) {
+                text.append(entry.getRank()).append(". ")
+                        .append(entry.getUserId() == userId ? "вы" : playerName(entry.getUserId()))
+                        .append(" — ").append(formatSeconds(entry.getCompletionTime()))
+                        .append(", ").append(entry.getScore()).append(" очк.\n");
+            }
+        }
+        return message(chatId, text.toString(), null);
     }
+
     /**
-     * Вспомогательный метод для создания inline-кнопки с заданным текстом и callback данными
-     *
-     * @param text отображаемый текст на кнопке
-     * @param callback данные для callback при нажатии на кнопку
-     * @return настроенный объект InlineKeyboardButton
-     *
-     * @apiNote Упрощает создание кнопок, сокращая дублирование кода в методах построения клавиатур
+     * Псевдоним игрока в таблице лидеров: 4 шестнадцатеричные цифры перемешанного хеша
+     * идентификатора. Псевдоним одинаков во всех таблицах и между перезапусками, а 16 бит
+     * не позволяют восстановить идентификатор Telegram.
      */
-    private InlineKeyboardButton button(String text, String callback) {
-        InlineKeyboardButton btn = new InlineKeyboardButton();
-        btn.setText(text);
-        btn.setCallbackData(callback);
-        return btn;
+    static String playerName(long userId) {
+        // splitmix64: соседние идентификаторы получают непохожие псевдонимы
+        long z = userId * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z ^= z >>> 31;
+        return String.format("игрок #%04x", z >>> 48);
     }
 
     /**
-     * Создает сообщение с кнопкой "Старт" которая отправляет команду /start
+     * Создает сообщение со статистикой игрока по уровням сложности: сыграно, решено, среднее
+     * и лучшее время, ошибки в среднем за игру.
      */
-    public SendMessage buildStartButtonMessage(long chatId) {
-        List<List<InlineKeyboardButton>> rows = new ArrayList<>();
+    public SendMessage buildStats(long chatId, PlayerStatsDto stats) {
+        if (stats.getDifficulties() == null || stats.getDifficulties().isEmpty()) {
+            return message(chatId, "📊 Статистики пока нет: сыграйте первую игру командой /start", null);
+        }
+        StringBuilder text = new StringBuilder("📊 Ваша статистика\n");
+        for (DifficultyStatsDto s : stats.getDifficulties()) {
+            text.append('\n').append(difficultyTitle(s.getDifficulty())).append('\n')
+                    .append("Сыграно: ").append(s.getGamesPlayed())
+                    .append(", решено: ").append(s.getGamesSolved())
+                    .append(" (").append(Math.round(s.getSolveRate() * 100)).append("%)\n");
+            if (s.getBestTime() != null) {
+                text.append("Лучшее время: ").append(formatSeconds(s.getBestTime()))
+                        .append(", среднее: ").append(formatSeconds(s.getAverageTime())).append('\n');
+            }
+            text.append("Ошибок за игру: ").append(String.format("%.1f", s.getAverageMistakes())).append('\n');
+        }
+        return message(chatId, text.toString(), null);
+    }
 
+    public double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    private Keyboard cachedBoardKeyboard(SudokuCellDto[][] board) {
+        long key = boardKey(board);
+        Keyboard keyboard = boardCache.getIfPresent(key);
+        if (keyboard != null) {
+            hits.increment();
+            return keyboard;
+        }
+        misses.increment();
+        keyboard = createBoardKeyboard(board);
+        boardCache.put(key, keyboard);
+        return keyboard;
+    }
+
+    // та же раскладка, что и у доски в sudoku-service: по 3 бита на значение и маска фиксированных клеток
+    private long boardKey(SudokuCellDto[][] board) {
+        long key = 0L;
+        for (int r = 0; r < CACHED_SIZE; r++) {
+            for (int c = 0; c < CACHED_SIZE; c++) {
+                int idx = r * CACHED_SIZE + c;
+                SudokuCellDto cell = board[r][c];
+                key |= (long) cell.getValue() << (idx * 3);
+                if (cell.isFixed()) {
+                    key |= 1L << (48 + idx);
+                }
+            }
+        }
+        return key;
+    }
+
+    private Keyboard createBoardKeyboard(SudokuCellDto[][] board) {
+        List<List<Button>> rows = new ArrayList<>();
+        int size = board.length;
+        for (int r = 0; r < size; r++) {
+            List<Button> row = new ArrayList<>();
+            for (int c = 0; c < size; c++) {
+                SudokuCellDto cell = board[r][c];
+                row.add(cell.getValue() == 0 && cell.getNotes() != 0
+                        ? noteButton(size, r, c, cell.getNotes())
+                        : cellButton(size, r, c, cell.getValue(), cell.isFixed()));
+            }
+            rows.add(List.copyOf(row));
+        }
+        rows.add(historyRow);
+        return new Keyboard(List.copyOf(rows));
+    }
+
+    private Button cellButton(int size, int row, int col, int value, boolean fixed) {
+        if (size == CACHED_SIZE && value >= 0 && value <= MAX_VALUE) {
+            return cellButtons[row * CACHED_SIZE + col][value][fixed ? 1 : 0];
+        }
+        return createCellButton(row, col, value, fixed);
+    }
+
+    private Button noteButton(int size, int row, int col, int notes) {
+        if (size == CACHED_SIZE && notes < 1 << MAX_VALUE) {
+            return noteButtons[row * CACHED_SIZE + col][notes];
+        }
+        return createNoteButton(row, col, notes);
+    }
+
+    // пустая клетка с заметками: отмеченные числа мелкими цифрами
+    private Button createNoteButton(int row, int col, int notes) {
+        if (notes == 0) {
+            return createCellButton(row, col, 0, false);
+        }
+        StringBuilder text = new StringBuilder();
+        for (int value = 1; notes >>> (value - 1) != 0; value++) {
+            if ((notes & (1 << (value - 1))) == 0) {
+                continue;
+            }
+            if (value <= 9) {
+                text.append((char) ('₀' + value));
+            } else {
+                text.append(value);
+            }
+        }
+        return new Button(text.toString(), CallbackCodec.cell(row, col));
+    }
+
+    private boolean hasNotes(SudokuCellDto[][] board) {
+        for (SudokuCellDto[] row : board) {
+            for (SudokuCellDto cell : row) {
+                if (cell.getNotes() != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Button createCellButton(int row, int col, int value, boolean fixed) {
+        if (fixed) {
+            // фиксированные числа: замок, не интерактивные
+            return new Button(String.valueOf(value), CallbackCodec.locked());
+        }
+        // пустая клетка или пользовательское число: интерактивные
+        return new Button(value == 0 ? "❓" : value + ".", CallbackCodec.cell(row, col));
+    }
+
+    private Keyboard createNumberSelection(int row, int col) {
+        // одна строка со всеми кнопками: цифры 1-4, стереть, подсказка, заметки, отмена
+        List<Button> singleRow = new ArrayList<>();
+        // цифры 1-4
+        for (int num = 1; num <= MAX_VALUE; num++) {
+            singleRow.add(new Button(String.valueOf(num), CallbackCodec.value(row, col, num)));
+        }
+        // стереть
+        singleRow.add(new Button("🧹", CallbackCodec.value(row, col, 0)));
+        // подсказка
+        singleRow.add(new Button("💡", CallbackCodec.hint(row, col)));
+        // заметки
+        singleRow.add(new Button("✏️", CallbackCodec.notes(row, col)));
+        // отмена
+        singleRow.add(new Button("↩️", CallbackCodec.cancel()));
+        return new Keyboard(List.of(List.copyOf(singleRow)));
+    }
+
+    private Keyboard createNoteSelection(int row, int col, int notes) {
+        List<Button> singleRow = new ArrayList<>();
+        for (int num = 1; num <= MAX_VALUE; num++) {
+            boolean marked = (notes & (1 << (num - 1))) != 0;
+            singleRow.add(new Button(marked ? "✓" + num : String.valueOf(num), CallbackCodec.note(row, col, num)));
+        }
+        // снять заметки, противоречащие доске
+        singleRow.add(new Button("🧽", CallbackCodec.eliminate()));
+        // вернуться к доске
+        singleRow.add(new Button("✅", CallbackCodec.cancel()));
+        return new Keyboard(List.of(List.copyOf(singleRow)));
+    }
+
+    private String numberSelectionText(int row, int col) {
+        return "Выберите число для клетки [" + (row + 1) + "," + (col + 1) + "]";
+    }
+
+    private Keyboard createDifficultySelection() {
+        List<Button> line1 = List.of(
+                new Button("🟢 Легкий", CallbackCodec.difficulty(CallbackCodec.DIFFICULTY_EASY)),
+                new Button("🟡 Средний", CallbackCodec.difficulty(CallbackCodec.DIFFICULTY_MEDIUM)),
+                new Button("🔴 Сложный", CallbackCodec.difficulty(CallbackCodec.DIFFICULTY_HARD)));
+        return new Keyboard(List.of(line1));
+    }
+
+    private Keyboard createStartButton() {
         // Ряд с кнопкой "Новая игра"
-        List<InlineKeyboardButton> newGameRow = new ArrayList<>();
-        InlineKeyboardButton newGameButton = new InlineKeyboardButton();
-        newGameButton.setText("\uD83C\uDFAE Новая игра");
-        newGameButton.setCallbackData("NEW_GAME");
-        newGameRow.add(newGameButton);
-        rows.add(newGameRow);
+        List<Button> newGameRow = List.of(new Button("🎮 Новая игра", CallbackCodec.newGame()));
+        return new Keyboard(List.of(newGameRow));
+    }
 
-        InlineKeyboardMarkup markup = new InlineKeyboardMarkup(rows);
+    private String difficultyTitle(String difficulty) {
+        return switch (difficulty) {
+            case "EASY" -> "🟢 Легкий";
+            case "MEDIUM" -> "🟡 Средний";
+            case "HARD" -> "🔴 Сложный";
+            case "CUSTOM" -> "⚪ Другой";
+            default -> difficulty;
+        };
+    }
+
+    private String formatSeconds(long seconds) {
+        return seconds / 60 + ":" + (seconds % 60 < 10 ? "0" : "") + seconds % 60;
+    }
 
+    private SendMessage message(long chatId, String text, Keyboard keyboard) {
         SendMessage msg = new SendMessage();
         msg.setChatId(String.valueOf(chatId));
-        msg.setText("Хотите начать новую игру?");
-        msg.setReplyMarkup(markup);
+        msg.setText(text);
+        msg.setReplyMarkup(keyboard == null ? null : keyboard.markup());
         return msg;
     }
+
+    /**
+     * Неизменяемая кнопка: текст и callback-данные.
+     */
+    record Button(String text, String callback) {
+
+        /**
+         * Вспомогательный метод для создания inline-кнопки с заданным текстом и callback данными
+         *
+         * @return новый объект InlineKeyboardButton, который можно отдать в сообщение
+         */
+        InlineKeyboardButton toButton() {
+            InlineKeyboardButton btn = new InlineKeyboardButton();
+            btn.setText(text);
+            btn.setCallbackData(callback);
+            return btn;
+        }
+    }
+
+    /**
+     * Неизменяемая раскладка клавиатуры, которую можно кэшировать и разделять между чатами.
+     */
+    record Keyboard(List<List<Button>> rows) {
+
+        /**
+         * @return новая клавиатура Telegram API с новыми кнопками
+         */
+        InlineKeyboardMarkup markup() {
+            List<List<InlineKeyboardButton>> keyboard = new ArrayList<>(rows.size());
+            for (List<Button> row : rows) {
+                List<InlineKeyboardButton> buttons = new ArrayList<>(row.size());
+                for (Button button : row) {
+                    buttons.add(button.toButton());
+                }
+                keyboard.add(buttons);
+            }
+            return new InlineKeyboardMarkup(keyboard);
+        }
+    }
 }
@@ -0,0 +1,81 @@
+package ru.sudoku.game.bot;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpdateDispatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private UpdateDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void tasksOfOneChatRunInOrder() throws InterruptedException {
+        dispatcher = dispatcher(100);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            dispatcher.dispatch(1L, () -> {
+                order.add(n);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(order).isSorted().hasSize(50);
+    }
+
+    @Test
+    void fullMailboxRejectsTasks() throws InterruptedException {
+        dispatcher = dispatcher(2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        dispatcher.dispatch(1L, () -> {
+            started.countDown();
+            await(release);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // первая задача уже выполняется, в очереди помещаются ещё две
+        assertThat(dispatcher.dispatch(1L, () -> { })).isTrue();
+        assertThat(dispatcher.dispatch(1L, () -> { })).isTrue();
+        assertThat(dispatcher.dispatch(1L, () -> { })).isFalse();
+        // очередь другого чата не затронута
+        assertThat(dispatcher.dispatch(2L, () -> { })).isTrue();
+        release.countDown();
+
+        assertThat(registry.counter("bot.dispatcher.rejected").count()).isEqualTo(1);
+    }
+
+    private UpdateDispatcher dispatcher(int mailboxCapacity) {
+        UpdateDispatcher dispatcher = new UpdateDispatcher(registry);
+        ReflectionTestUtils.setField(dispatcher, "maxInFlight", 16);
+        ReflectionTestUtils.setField(dispatcher, "mailboxCapacity", mailboxCapacity);
+        ReflectionTestUtils.setField(dispatcher, "shutdownTimeout", Duration.ofSeconds(5));
+        dispatcher.init();
+        return dispatcher;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
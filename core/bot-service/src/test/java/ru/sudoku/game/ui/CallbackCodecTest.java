@@ -0,0 +1,97 @@
+package ru.sudoku.game.ui;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CallbackCodecTest {
+
+    @Test
+    void cellArgumentsRoundTripForAllBoardSizes() {
+        // доски до 16x16: строки и столбцы 0–15, числа 0–16
+        for (int row = 0; row < 16; row++) {
+            for (int col = 0; col < 16; col++) {
+                assertDecoded(CallbackCodec.cell(row, col), CallbackCodec.CELL, row, col, 0);
+                assertDecoded(CallbackCodec.hint(row, col), CallbackCodec.HINT, row, col, 0);
+                assertDecoded(CallbackCodec.notes(row, col), CallbackCodec.NOTES, row, col, 0);
+                for (int value = 0; value <= 16; value++) {
+                    assertDecoded(CallbackCodec.value(row, col, value), CallbackCodec.VALUE, row, col, value);
+                    assertDecoded(CallbackCodec.note(row, col, value), CallbackCodec.NOTE, row, col, value);
+                }
+            }
+        }
+    }
+
+    @Test
+    void commandsRoundTrip() {
+        assertThat(CallbackCodec.decode(CallbackCodec.eliminate())).isEqualTo(CallbackCodec.ELIMINATE);
+        assertThat(CallbackCodec.decode(CallbackCodec.undo())).isEqualTo(CallbackCodec.UNDO);
+        assertThat(CallbackCodec.decode(CallbackCodec.redo())).isEqualTo(CallbackCodec.REDO);
+        assertThat(CallbackCodec.decode(CallbackCodec.cancel())).isEqualTo(CallbackCodec.CANCEL);
+        assertThat(CallbackCodec.decode(CallbackCodec.newGame())).isEqualTo(CallbackCodec.NEW_GAME);
+        assertThat(CallbackCodec.decode(CallbackCodec.locked())).isEqualTo(CallbackCodec.LOCKED);
+        for (int level = CallbackCodec.DIFFICULTY_EASY; level <= CallbackCodec.DIFFICULTY_HARD; level++) {
+            assertDecoded(CallbackCodec.difficulty(level), CallbackCodec.DIFFICULTY, 0, 0, level);
+        }
+    }
+
+    @Test
+    void compactDataFitsTelegramLimit() {
+        // Telegram ограничивает callback-данные 64 байтами
+        assertThat(CallbackCodec.value(15, 15, 16)).hasSize(5);
+        assertThat(CallbackCodec.note(15, 15, 16)).hasSize(5);
+    }
+
+    @Test
+    void legacyFormatsAreDecoded() {
+        assertDecoded("CELL_1_2", CallbackCodec.CELL, 1, 2, 0);
+        assertDecoded("CELL_15_10", CallbackCodec.CELL, 15, 10, 0);
+        assertDecoded("VALUE_3_0_4", CallbackCodec.VALUE, 3, 0, 4);
+        assertDecoded("VALUE_0_0_0", CallbackCodec.VALUE, 0, 0, 0);
+        assertDecoded("DIFFICULTY_EASY", CallbackCodec.DIFFICULTY, 0, 0, CallbackCodec.DIFFICULTY_EASY);
+        assertDecoded("DIFFICULTY_MEDIUM", CallbackCodec.DIFFICULTY, 0, 0, CallbackCodec.DIFFICULTY_MEDIUM);
+        assertDecoded("DIFFICULTY_HARD", CallbackCodec.DIFFICULTY, 0, 0, CallbackCodec.DIFFICULTY_HARD);
+        assertThat(CallbackCodec.decode("CANCEL")).isEqualTo(CallbackCodec.CANCEL);
+        assertThat(CallbackCodec.decode("NEW_GAME")).isEqualTo(CallbackCodec.NEW_GAME);
+        assertThat(CallbackCodec.decode("LOCKED")).isEqualTo(CallbackCodec.LOCKED);
+    }
+
+    @Test
+    void unknownLegacyDifficultyStillStartsGame() {
+        int decoded = CallbackCodec.decode("DIFFICULTY_EXPERT");
+
+        assertThat(CallbackCodec.op(decoded)).isEqualTo(CallbackCodec.DIFFICULTY);
+        assertThat(CallbackCodec.value(decoded)).isGreaterThan(CallbackCodec.DIFFICULTY_HARD);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "", "1", "1C", "1C1", "1C123", "1V12", "1V1!3", "1E1", "1D", "1Z", "2C12",
+            "CELL", "CELL_", "CELL_1", "CELL_1_", "CELL_1_2_3", "CELL_a_1", "CELL_1_99",
+            "VALUE_1_2", "VALUE_1_2_3_4", "CANCELLED", "NEW", "LOCKED_1", "DIFF_EASY", "hello"})
+    void malformedDataIsUnknown(String data) {
+        assertThat(CallbackCodec.decode(data)).isEqualTo(CallbackCodec.UNKNOWN);
+    }
+
+    @Test
+    void nullIsUnknown() {
+        assertThat(CallbackCodec.decode(null)).isEqualTo(CallbackCodec.UNKNOWN);
+    }
+
+    @Test
+    void argumentOutOfRangeIsRejected() {
+        assertThatThrownBy(() -> CallbackCodec.cell(36, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CallbackCodec.value(0, 0, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertDecoded(String data, int op, int row, int col, int value) {
+        int decoded = CallbackCodec.decode(data);
+        assertThat(CallbackCodec.op(decoded)).as(data).isEqualTo(op);
+        assertThat(CallbackCodec.row(decoded)).as(data).isEqualTo(row);
+        assertThat(CallbackCodec.col(decoded)).as(data).isEqualTo(col);
+        assertThat(CallbackCodec.value(decoded)).as(data).isEqualTo(value);
+    }
+}
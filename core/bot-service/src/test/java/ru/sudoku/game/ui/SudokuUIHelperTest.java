@@ -0,0 +1,94 @@
+package ru.sudoku.game.ui;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import ru.sudoku.game.dto.LeaderboardDto;
+import ru.sudoku.game.dto.LeaderboardEntryDto;
+import ru.sudoku.game.dto.SudokuCellDto;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SudokuUIHelperTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SudokuUIHelper uiHelper;
+
+    @BeforeEach
+    void setUp() {
+        uiHelper = new SudokuUIHelper(registry);
+        ReflectionTestUtils.setField(uiHelper, "boardCacheSize", 100);
+        uiHelper.init();
+    }
+
+    @Test
+    void cachedBoardIsCopiedIntoFreshKeyboard() {
+        InlineKeyboardMarkup first = markup(board(0));
+        // чужой код меняет кнопку уже отправленной доски
+        first.getKeyboard().get(0).get(0).setText("X");
+        InlineKeyboardMarkup second = markup(board(0));
+
+        assertThat(registry.get("bot.ui.board.cache").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getKeyboard().get(0).get(0)).isNotSameAs(first.getKeyboard().get(0).get(0));
+        assertThat(second.getKeyboard().get(0).get(0).getText()).isEqualTo("1");
+    }
+
+    @Test
+    void prebuiltKeyboardsAreNotShared() {
+        InlineKeyboardMarkup first = (InlineKeyboardMarkup) uiHelper.buildNumberSelection(1L, 0, 0).getReplyMarkup();
+        first.getKeyboard().get(0).get(0).setCallbackData("broken");
+        InlineKeyboardMarkup second = (InlineKeyboardMarkup) uiHelper.buildNumberSelection(1L, 0, 0).getReplyMarkup();
+
+        assertThat(second.getKeyboard().get(0).get(0).getCallbackData()).isNotEqualTo("broken");
+    }
+
+    @Test
+    void boardCacheIsBounded() {
+        for (int value = 0; value < 500; value++) {
+            markup(board(value));
+        }
+        Cache<?, ?> cache = (Cache<?, ?>) ReflectionTestUtils.getField(uiHelper, "boardCache");
+        cache.cleanUp();
+
+        assertThat(cache.estimatedSize()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void leaderboardHidesTelegramIds() {
+        LeaderboardDto leaderboard = new LeaderboardDto("WEEK", Map.of("EASY", List.of(
+                new LeaderboardEntryDto(1, 987654321L, 30, 900),
+                new LeaderboardEntryDto(2, 42L, 45, 800))));
+
+        // группа: чат не совпадает с пользователем
+        String text = uiHelper.buildLeaderboard(-100L, 42L, leaderboard).getText();
+
+        assertThat(text).doesNotContain("987654321").contains("2. вы")
+                .contains("1. " + SudokuUIHelper.playerName(987654321L));
+        assertThat(SudokuUIHelper.playerName(987654321L)).matches("игрок #[0-9a-f]{4}")
+                .isEqualTo(SudokuUIHelper.playerName(987654321L))
+                .isNotEqualTo(SudokuUIHelper.playerName(987654322L));
+    }
+
+    private InlineKeyboardMarkup markup(SudokuCellDto[][] board) {
+        return (InlineKeyboardMarkup) uiHelper.buildBoardMessage(1L, board).getReplyMarkup();
+    }
+
+    /**
+     * Доска 4x4: первая клетка фиксирована и равна 1, остальные заполнены по битам {@code seed}.
+     */
+    private static SudokuCellDto[][] board(int seed) {
+        SudokuCellDto[][] board = new SudokuCellDto[4][4];
+        for (int i = 0; i < 16; i++) {
+            int value = i == 0 ? 1 : (seed >> ((i - 1) % 9)) & 3;
+            board[i / 4][i % 4] = new SudokuCellDto(value, i == 0);
+        }
+        return board;
+    }
+}
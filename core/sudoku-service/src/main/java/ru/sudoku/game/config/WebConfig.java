@@ -0,0 +1,23 @@
+package ru.sudoku.game.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.sudoku.game.codec.BoardHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * Регистрирует бинарный формат доски {@code application/x-sudoku-board}.
+ *
+ * <p>Конвертер добавляется в конец списка: при {@code Accept: *}{@code /*} или без заголовка
+ * ответ остаётся JSON, бинарный формат отдаётся только тем, кто его явно запросил.</p>
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new BoardHttpMessageConverter());
+    }
+}
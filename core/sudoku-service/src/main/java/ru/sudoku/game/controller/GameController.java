@@ -10,6 +10,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.sudoku.game.dto.ConflictsDto;
+import ru.sudoku.game.dto.MoveResultDto;
 import ru.sudoku.game.dto.SudokuCellDto;
 import ru.sudoku.game.service.GameService;
 
@@ -20,10 +22,12 @@ import ru.sudoku.game.service.GameService;
 public class GameController {
     GameService gameService;
 
+    // userId не передают старые клиенты: в личном чате с ботом он совпадает с chatId
     @PostMapping("/new")
     public ResponseEntity<SudokuCellDto[][]> newGame(@RequestParam long chatId,
+                                                     @RequestParam(required = false) Long userId,
                                                      @RequestParam int blanks) {
-        SudokuCellDto[][] board = gameService.newGame(chatId, blanks);
+        SudokuCellDto[][] board = gameService.newGame(chatId, userId == null ? chatId : userId, blanks);
         return ResponseEntity.ok(board);
     }
 
@@ -37,6 +41,42 @@ public class GameController {
 
     }
 
+    @PostMapping("/move")
+    public ResponseEntity<MoveResultDto> applyMove(@RequestParam long chatId,
+                                                   @RequestParam int row,
+                                                   @RequestParam int col,
+                                                   @RequestParam int value) {
+        MoveResultDto result = gameService.applyMove(chatId, row, col, value);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/undo")
+    public ResponseEntity<MoveResultDto> undo(@RequestParam long chatId) {
+        MoveResultDto result = gameService.undo(chatId);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/redo")
+    public ResponseEntity<MoveResultDto> redo(@RequestParam long chatId) {
+        MoveResultDto result = gameService.redo(chatId);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/note")
+    public ResponseEntity<MoveResultDto> toggleNote(@RequestParam long chatId,
+                                                    @RequestParam int row,
+                                                    @RequestParam int col,
+                                                    @RequestParam int value) {
+        MoveResultDto result = gameService.toggleNote(chatId, row, col, value);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/notes/eliminate")
+    public ResponseEntity<MoveResultDto> eliminateNotes(@RequestParam long chatId) {
+        MoveResultDto result = gameService.eliminateNotes(chatId);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/board/{chatId}")
     public ResponseEntity<SudokuCellDto[][]> getBoard(@PathVariable long chatId) {
         SudokuCellDto[][] board = gameService.getBoard(chatId);
@@ -53,4 +93,27 @@ public class GameController {
         Boolean full = gameService.isBoardFull(chatId);
         return ResponseEntity.ok(full);
     }
+
+    @GetMapping("/{chatId}/hint")
+    public ResponseEntity<Integer> getHint(@PathVariable long chatId,
+                                           @RequestParam int row,
+                                           @RequestParam int col) {
+        Integer hint = gameService.getHint(chatId, row, col);
+        return ResponseEntity.ok(hint);
+    }
+
+    @GetMapping("/{chatId}/check")
+    public ResponseEntity<Boolean> checkMove(@PathVariable long chatId,
+                                             @RequestParam int row,
+                                             @RequestParam int col,
+                                             @RequestParam int value) {
+        Boolean correct = gameService.checkMove(chatId, row, col, value);
+        return ResponseEntity.ok(correct);
+    }
+
+    @GetMapping("/{chatId}/conflicts")
+    public ResponseEntity<ConflictsDto> getConflicts(@PathVariable long chatId) {
+        ConflictsDto conflicts = gameService.getConflicts(chatId);
+        return ResponseEntity.ok(conflicts);
+    }
 }
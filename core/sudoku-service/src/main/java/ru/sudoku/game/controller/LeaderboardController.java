@@ -0,0 +1,28 @@
+package ru.sudoku.game.controller;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.sudoku.game.dto.LeaderboardDto;
+import ru.sudoku.game.leaderboard.Leaderboard;
+import ru.sudoku.game.leaderboard.LeaderboardPeriod;
+
+@RestController
+@RequestMapping("/leaderboard")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LeaderboardController {
+    Leaderboard leaderboard;
+
+    @GetMapping
+    public ResponseEntity<LeaderboardDto> getLeaderboard(
+            @RequestParam(defaultValue = "WEEK") LeaderboardPeriod period) {
+        LeaderboardDto board = leaderboard.getLeaderboard(period);
+        return ResponseEntity.ok(board);
+    }
+}
@@ -0,0 +1,37 @@
+package ru.sudoku.game.controller;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.sudoku.game.dto.PuzzleDto;
+import ru.sudoku.game.model.GridSize;
+import ru.sudoku.game.service.GameService;
+
+/**
+ * Эндпоинт генерации: головоломка любого размера из {@link GridSize} без создания игры.
+ *
+ * <p>Игра на досках 6x6, 9x9 и 16x16 в задачу не входит: живые игры хранятся в
+ * {@link ru.sudoku.game.model.PackedBoard}, пишутся в журнал и показываются ботом только
+ * в размере 4x4, а выбора размера в боте нет. Поэтому у {@code /puzzles} нет клиента
+ * в api-commons и потребителя внутри системы; головоломку забирают внешние потребители
+ * или разработчик вручную.</p>
+ */
+@RestController
+@RequestMapping("/puzzles")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PuzzleController {
+    GameService gameService;
+
+    @GetMapping
+    public ResponseEntity<PuzzleDto> newPuzzle(@RequestParam(defaultValue = "9") int size,
+                                               @RequestParam int blanks) {
+        PuzzleDto puzzle = gameService.newPuzzle(size, blanks);
+        return ResponseEntity.ok(puzzle);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.sudoku.game.controller;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.sudoku.game.dto.PlayerStatsDto;
+import ru.sudoku.game.stats.PlayerStatsService;
+
+@RestController
+@RequestMapping("/stats")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class StatsController {
+    PlayerStatsService playerStatsService;
+
+    @GetMapping("/{userId}")
+    public ResponseEntity<PlayerStatsDto> getStats(@PathVariable long userId) {
+        PlayerStatsDto stats = playerStatsService.getStats(userId);
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -3,8 +3,14 @@ package ru.sudoku.game.error_handler;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
 import ru.sudoku.game.exception.BoardNotFoundException;
+import ru.sudoku.game.exception.InvalidMoveException;
+import ru.sudoku.game.exception.SolutionUnavailableException;
+import ru.sudoku.game.exception.UnsupportedBoardSizeException;
 
+// аннотация базового класса не наследуется, без своей обработчик не регистрируется
+@RestControllerAdvice
 public class ErrorHandler extends BaseErrorHandler {
 
     // 404 Not Found
@@ -15,6 +21,24 @@ public class ErrorHandler extends BaseErrorHandler {
         return handleException(ex, HttpStatus.NOT_FOUND);
     }
 
+    // 400 Bad Request: строка, столбец или число вне доски (PackedBoard), неподдерживаемый размер;
+    // прочие IllegalArgumentException — ошибки сервиса и уходят в 500
+    @ExceptionHandler({
+            InvalidMoveException.class,
+            UnsupportedBoardSizeException.class,
+    })
+    public ResponseEntity<ErrorResponse> handleBadRequestExceptions(RuntimeException ex) {
+        return handleException(ex, HttpStatus.BAD_REQUEST);
+    }
+
+    // 409 Conflict
+    @ExceptionHandler({
+            SolutionUnavailableException.class,
+    })
+    public ResponseEntity<ErrorResponse> handleConflictExceptions(RuntimeException ex) {
+        return handleException(ex, HttpStatus.CONFLICT);
+    }
+
     @Override
     protected String getFriendlyMessage(RuntimeException ex) {
         if (ex == null) {
@@ -24,6 +48,9 @@ public class ErrorHandler extends BaseErrorHandler {
         String className = ex.getClass().getSimpleName();
         return switch (className) {
             case "BoardNotFoundException" -> "Board not found";
+            case "SolutionUnavailableException" -> "Solution is not available for this game";
+            case "UnsupportedBoardSizeException" -> "Board size is not supported";
+            case "InvalidMoveException" -> "Invalid request parameters";
             default -> "An unexpected error occurred";
         };
     }
@@ -0,0 +1,11 @@
+package ru.sudoku.game.exception;
+
+/**
+ * Ход или запрос вне доски: строка, столбец или число, которых на доске нет. Остаётся
+ * {@link IllegalArgumentException}, но в отличие от прочих ошибок аргументов означает ошибку клиента.
+ */
+public class InvalidMoveException extends IllegalArgumentException {
+    public InvalidMoveException(String message) {
+        super(message);
+    }
+}
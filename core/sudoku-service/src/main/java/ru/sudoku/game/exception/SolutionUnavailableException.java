@@ -0,0 +1,7 @@
+package ru.sudoku.game.exception;
+
+public class SolutionUnavailableException extends RuntimeException {
+    public SolutionUnavailableException(long chatId) {
+        super("Solution is not known for chatId: " + chatId);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.sudoku.game.exception;
+
+public class UnsupportedBoardSizeException extends RuntimeException {
+    public UnsupportedBoardSizeException(int size) {
+        super("Board size is not supported: " + size);
+    }
+}
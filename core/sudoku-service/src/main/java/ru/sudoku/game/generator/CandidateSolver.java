@@ -0,0 +1,473 @@
+package ru.sudoku.game.generator;
+
+import ru.sudoku.game.model.GridSize;
+import ru.sudoku.game.model.SolvingTechnique;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Решатель досок любого поддерживаемого размера на масках кандидатов.
+ *
+ * <p>Кандидаты ячейки — {@code int}, бит {@code value - 1} для каждого возможного числа, бит
+ * {@code 16} отмечает ячейку, число которой уже снято с соседей. Поставленное число
+ * распространяется сразу:
+ * <ul>
+ *   <li>оно снимается с кандидатов соседей (строка, столбец, блок), и сосед с одним оставшимся
+ *   кандидатом ставится следом (naked single);</li>
+ *   <li>число, которое в группе может стоять только в одной ячейке, ставится туда (hidden single);
+ *   маски «встречается хотя бы раз» и «хотя бы дважды» по группе считаются двумя {@code |}.</li>
+ * </ul>
+ * Пустая маска или число без места в группе — противоречие, и ветвь отбрасывается. Перебор
+ * ветвится по ячейке с наименьшим числом кандидатов (MRV), каждая ветвь работает на копии
+ * массива кандидатов своего уровня, поэтому откат — просто возврат на уровень выше.</p>
+ *
+ * <p>Таблицы групп и соседей строятся один раз на размер; экземпляры неизменяемы и
+ * разделяются потоками, состояние перебора живёт в объекте одного вызова.</p>
+ */
+public final class CandidateSolver {
+    private static final int PLACED = 1 << 16;
+    private static final Map<GridSize, CandidateSolver> SOLVERS = new EnumMap<>(GridSize.class);
+    // случайная доска строится заново, если перебор зашёл слишком глубоко в неудачную ветвь
+    private static final int RANDOM_GRID_NODES_PER_CELL = 64;
+
+    static {
+        for (GridSize size : GridSize.values()) {
+            SOLVERS.put(size, new CandidateSolver(size));
+        }
+    }
+
+    private final GridSize gridSize;
+    private final int size;
+    private final int cells;
+    private final int all;
+    // ячейки каждой группы: строки, столбцы, блоки
+    private final int[][] units;
+    // соседи каждой ячейки без неё самой
+    private final int[][] peers;
+
+    private CandidateSolver(GridSize gridSize) {
+        this.gridSize = gridSize;
+        this.size = gridSize.size();
+        this.cells = gridSize.cells();
+        this.all = (1 << size) - 1;
+        this.units = new int[3 * size][size];
+        int boxesPerRow = size / gridSize.boxCols();
+        int[] filled = new int[3 * size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int idx = r * size + c;
+                int box = (r / gridSize.boxRows()) * boxesPerRow + c / gridSize.boxCols();
+                units[r][filled[r]++] = idx;
+                units[size + c][filled[size + c]++] = idx;
+                units[2 * size + box][filled[2 * size + box]++] = idx;
+            }
+        }
+        this.peers = new int[cells][];
+        for (int idx = 0; idx < cells; idx++) {
+            boolean[] peer = new boolean[cells];
+            int r = idx / size;
+            int c = idx % size;
+            int box = (r / gridSize.boxRows()) * boxesPerRow + c / gridSize.boxCols();
+            int count = 0;
+            for (int unit : new int[]{r, size + c, 2 * size + box}) {
+                for (int other : units[unit]) {
+                    if (other != idx && !peer[other]) {
+                        peer[other] = true;
+                        count++;
+                    }
+                }
+            }
+            peers[idx] = new int[count];
+            for (int other = 0, n = 0; other < cells; other++) {
+                if (peer[other]) {
+                    peers[idx][n++] = other;
+                }
+            }
+        }
+    }
+
+    public static CandidateSolver of(GridSize size) {
+        return SOLVERS.get(size);
+    }
+
+    public GridSize gridSize() {
+        return gridSize;
+    }
+
+    /**
+     * Случайная полностью заполненная доска: первая строка — случайная перестановка,
+     * остальное достраивается перебором со случайным порядком кандидатов.
+     *
+     * @return доска построчно, числа 1–N
+     */
+    public int[] randomGrid(RandomGenerator random) {
+        while (true) {
+            Search search = new Search(random, (long) RANDOM_GRID_NODES_PER_CELL * cells);
+            int[] cand = search.frame(0);
+            Arrays.fill(cand, all);
+            int[] row = permutation(random);
+            for (int c = 0; c < size; c++) {
+                cand[c] = 1 << (row[c] - 1);
+                search.stack[c] = c;
+            }
+            if (search.propagate(cand, size) && search.search(0, 1) == 1) {
+                return values(search.solution);
+            }
+        }
+    }
+
+    /**
+     * Считает решения доски, но не больше {@code limit}: для проверки единственности хватает двух.
+     *
+     * @param board доска построчно, 0 — пустая ячейка
+     */
+    public int countSolutions(int[] board, int limit) {
+        Search search = new Search(null, Long.MAX_VALUE);
+        int[] cand = search.frame(0);
+        Arrays.fill(cand, all);
+        if (!search.load(cand, board)) {
+            return 0;
+        }
+        return search.search(0, limit);
+    }
+
+    /**
+     * Есть ли у доски решение, в котором пустая ячейка {@code idx} содержит не {@code value}.
+     * Для доски, которая с {@code value} в этой ячейке решается единственным образом, это та же
+     * проверка «после очистки ячейки решений больше одного», но ищется одно решение, а не два.
+     *
+     * @param board доска построчно, ячейка {@code idx} пуста
+     */
+    public boolean hasOtherSolution(int[] board, int idx, int value) {
+        Search search = new Search(null, Long.MAX_VALUE);
+        int[] cand = search.frame(0);
+        Arrays.fill(cand, all);
+        cand[idx] = all & ~(1 << (value - 1));
+        return search.load(cand, board) && search.search(0, 1) == 1;
+    }
+
+    /**
+     * Решает доску на месте.
+     *
+     * @return {@code false}, если решения нет; доска тогда не меняется
+     */
+    public boolean solve(int[] board) {
+        Search search = new Search(null, Long.MAX_VALUE);
+        int[] cand = search.frame(0);
+        Arrays.fill(cand, all);
+        if (!search.load(cand, board) || search.search(0, 1) == 0) {
+            return false;
+        }
+        System.arraycopy(values(search.solution), 0, board, 0, cells);
+        return true;
+    }
+
+    /**
+     * Оценивает сложность доски так, как её решал бы человек: на каждом шаге ставится число
+     * самым простым из доступных приёмов {@link SolvingTechnique} — последняя клетка группы,
+     * затем hidden single, затем naked single. Если ни один не подходит, нужен перебор; сам
+     * перебор здесь не выполняется, и доска сразу получает {@link SolvingTechnique#GUESS}.
+     *
+     * @param board доска построчно, 0 — пустая ячейка
+     * @return самый сложный приём, который понадобился
+     */
+    public SolvingTechnique grade(int[] board) {
+        if (board.length != cells) {
+            throw new IllegalArgumentException("Доска " + gridSize + " должна содержать " + cells
+                    + " ячеек, получено " + board.length);
+        }
+        int[] cand = new int[cells];
+        Arrays.fill(cand, all);
+        int empty = cells;
+        for (int idx = 0; idx < cells; idx++) {
+            if (board[idx] != 0) {
+                assign(cand, idx, 1 << (board[idx] - 1));
+                empty--;
+            }
+        }
+        SolvingTechnique hardest = SolvingTechnique.FULL_HOUSE;
+        for (; empty > 0; empty--) {
+            SolvingTechnique step;
+            if (fullHouse(cand)) {
+                step = SolvingTechnique.FULL_HOUSE;
+            } else if (hiddenSingle(cand)) {
+                step = SolvingTechnique.HIDDEN_SINGLE;
+            } else if (nakedSingle(cand)) {
+                step = SolvingTechnique.NAKED_SINGLE;
+            } else {
+                return SolvingTechnique.GUESS;
+            }
+            if (step.harderThan(hardest)) {
+                hardest = step;
+            }
+        }
+        return hardest;
+    }
+
+    // ставит число в ячейку и снимает его с кандидатов соседей
+    private void assign(int[] cand, int idx, int bit) {
+        cand[idx] = bit | PLACED;
+        for (int peer : peers[idx]) {
+            cand[peer] &= ~bit;
+        }
+    }
+
+    private boolean fullHouse(int[] cand) {
+        for (int[] unit : units) {
+            int last = -1;
+            for (int idx : unit) {
+                if ((cand[idx] & PLACED) == 0) {
+                    if (last >= 0) {
+                        last = -2;
+                        break;
+                    }
+                    last = idx;
+                }
+            }
+            if (last >= 0 && Integer.bitCount(cand[last]) == 1) {
+                assign(cand, last, cand[last]);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean nakedSingle(int[] cand) {
+        for (int idx = 0; idx < cells; idx++) {
+            int c = cand[idx];
+            if ((c & PLACED) == 0 && Integer.bitCount(c) == 1) {
+                assign(cand, idx, c);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hiddenSingle(int[] cand) {
+        for (int[] unit : units) {
+            int once = 0;
+            int twice = 0;
+            for (int idx : unit) {
+                int c = cand[idx];
+                if ((c & PLACED) == 0) {
+                    twice |= once & c;
+                    once |= c;
+                }
+            }
+            int hidden = once & ~twice;
+            if (hidden != 0) {
+                int bit = hidden & -hidden;
+                for (int idx : unit) {
+                    if ((cand[idx] & PLACED) == 0 && (cand[idx] & bit) != 0) {
+                        assign(cand, idx, bit);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private int[] values(int[] cand) {
+        int[] board = new int[cells];
+        for (int idx = 0; idx < cells; idx++) {
+            board[idx] = Integer.numberOfTrailingZeros(cand[idx] & all) + 1;
+        }
+        return board;
+    }
+
+    private int[] permutation(RandomGenerator random) {
+        int[] nums = new int[size];
+        for (int i = 0; i < size; i++) {
+            nums[i] = i + 1;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = nums[i];
+            nums[i] = nums[j];
+            nums[j] = tmp;
+        }
+        return nums;
+    }
+
+    /**
+     * Состояние одного перебора: массивы кандидатов по уровням, стек распространения и
+     * первое найденное решение.
+     */
+    private final class Search {
+        final RandomGenerator random;
+        final long maxNodes;
+        // каждая ячейка попадает в стек не больше одного раза за распространение
+        final int[] stack = new int[cells];
+        final int[][] frames = new int[cells + 1][];
+        int[] solution;
+        long nodes;
+
+        Search(RandomGenerator random, long maxNodes) {
+            this.random = random;
+            this.maxNodes = maxNodes;
+        }
+
+        int[] frame(int depth) {
+            int[] frame = frames[depth];
+            if (frame == null) {
+                frame = new int[cells];
+                frames[depth] = frame;
+            }
+            return frame;
+        }
+
+        // ставит числа доски и распространяет их; false — доска противоречива
+        boolean load(int[] cand, int[] board) {
+            if (board.length != cells) {
+                throw new IllegalArgumentException("Доска " + gridSize + " должна содержать " + cells
+                        + " ячеек, получено " + board.length);
+            }
+            int top = 0;
+            for (int idx = 0; idx < cells; idx++) {
+                int value = board[idx];
+                if (value == 0) {
+                    continue;
+                }
+                if (value < 0 || value > size) {
+                    throw new IllegalArgumentException("Недопустимое значение ячейки: " + value);
+                }
+                int bit = 1 << (value - 1);
+                if ((cand[idx] & bit) == 0) {
+                    return false;
+                }
+                cand[idx] = bit;
+                stack[top++] = idx;
+            }
+            return propagate(cand, top);
+        }
+
+        // снимает с соседей числа ячеек из стека, затем ищет hidden singles, пока есть что ставить
+        boolean propagate(int[] cand, int top) {
+            while (true) {
+                while (top > 0) {
+                    int idx = stack[--top];
+                    int bit = cand[idx];
+                    cand[idx] = bit | PLACED;
+                    for (int peer : peers[idx]) {
+                        int c = cand[peer];
+                        if ((c & bit) != 0) {
+                            c &= ~bit;
+                            if ((c & all) == 0) {
+                                return false;
+                            }
+                            cand[peer] = c;
+                            if ((c & PLACED) == 0 && (c & (c - 1)) == 0) {
+                                stack[top++] = peer;
+                            }
+                        }
+                    }
+                }
+                top = hiddenSingles(cand);
+                if (top <= 0) {
+                    return top == 0;
+                }
+            }
+        }
+
+        // число ячеек, поставленных в стек, или -1 при противоречии
+        int hiddenSingles(int[] cand) {
+            int top = 0;
+            for (int[] unit : units) {
+                int once = 0;
+                int twice = 0;
+                int placed = 0;
+                for (int idx : unit) {
+                    int c = cand[idx];
+                    if ((c & PLACED) != 0) {
+                        placed |= c;
+                    }
+                    twice |= once & c;
+                    once |= c;
+                }
+                if ((once & all) != all) {
+                    return -1;
+                }
+                int hidden = once & ~twice & ~placed & all;
+                while (hidden != 0) {
+                    int bit = hidden & -hidden;
+                    hidden ^= bit;
+                    boolean found = false;
+                    for (int idx : unit) {
+                        int c = cand[idx];
+                        if ((c & bit) != 0) {
+                            // одиночка, уже стоящая в стеке, второй раз не кладётся
+                            if (c != bit) {
+                                cand[idx] = bit;
+                                stack[top++] = idx;
+                            }
+                            found = true;
+                            break;
+                        }
+                    }
+                    if (!found) {
+                        // у ячейки оказалось два числа, которым больше некуда встать
+                        return -1;
+                    }
+                }
+            }
+            return top;
+        }
+
+        // решения, найденные из кандидатов уровня depth, но не больше limit
+        int search(int depth, int limit) {
+            if (++nodes > maxNodes) {
+                return 0;
+            }
+            int[] cand = frames[depth];
+            int best = -1;
+            int bestCount = Integer.MAX_VALUE;
+            for (int idx = 0; idx < cells; idx++) {
+                int c = cand[idx];
+                if ((c & PLACED) == 0) {
+                    int count = Integer.bitCount(c);
+                    if (count < bestCount) {
+                        best = idx;
+                        bestCount = count;
+                        if (count == 2) {
+                            break;
+                        }
+                    }
+                }
+            }
+            if (best < 0) {
+                if (solution == null) {
+                    solution = cand.clone();
+                }
+                return 1;
+            }
+            int options = cand[best];
+            int[] next = frame(depth + 1);
+            int found = 0;
+            while (options != 0 && nodes <= maxNodes) {
+                int bit = random == null ? options & -options : randomBit(options);
+                options ^= bit;
+                System.arraycopy(cand, 0, next, 0, cells);
+                next[best] = bit;
+                stack[0] = best;
+                if (propagate(next, 1)) {
+                    found += search(depth + 1, limit - found);
+                    if (found >= limit) {
+                        return found;
+                    }
+                }
+            }
+            return found;
+        }
+
+        private int randomBit(int options) {
+            for (int skip = random.nextInt(Integer.bitCount(options)); skip > 0; skip--) {
+                options &= options - 1;
+            }
+            return options & -options;
+        }
+    }
+}
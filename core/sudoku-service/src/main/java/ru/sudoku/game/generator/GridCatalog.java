@@ -0,0 +1,221 @@
+package ru.sudoku.game.generator;
+
+import ru.sudoku.game.model.PackedBoard;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Каталог всех досок 4x4 и их минимальных головоломок с единственным решением.
+ *
+ * <p>Корректных заполненных досок 4x4 всего 288, и каждая переименованием чисел однозначно
+ * приводится к одной из 12 канонических — с первой строкой {@code 1 2 3 4}. Для каждой
+ * канонической доски хранятся все минимальные головоломки: маски фиксированных клеток,
+ * при которых решение единственно, но становится неединственным после удаления любой из них.
+ * Таких головоломок 3568, у каждой от 4 до 6 чисел; они отсортированы по числу чисел,
+ * поэтому все головоломки не длиннее {@code n} чисел — префикс списка ({@link #eligible}).
+ * Добавление чисел к головоломке с единственным решением его не меняет, поэтому из
+ * минимальной головоломки получается головоломка с любым числом пустых клеток до 12.</p>
+ *
+ * <p>Каталог строится один раз при загрузке класса. Головоломки перебираются по возрастанию
+ * числа чисел; маска, содержащая уже найденную, не проверяется, а остальные проверяет
+ * {@link SolutionCounter} — тот же перебор, что считает решения любой доски 4x4 (около 180 тысяч
+ * проверок, доли секунды при запуске сервиса). Доска хранится
+ * в формате решения {@link PackedBoard#solutionOf} (по 2 бита на клетку), головоломка —
+ * 16-битной маской.</p>
+ */
+public final class GridCatalog {
+    public static final int SIZE = PackedBoard.SIZE;
+    public static final int CELLS = PackedBoard.CELLS;
+    /**
+     * Больше пустых клеток головоломка 4x4 с единственным решением не допускает.
+     */
+    public static final int MAX_UNIQUE_BLANKS;
+
+    // первая строка 1 2 3 4 в формате решения: значения 0, 1, 2, 3 по 2 бита
+    private static final int CANONICAL_ROW = 0b11_10_01_00;
+    private static final int CANONICAL_ROW_MASK = 0xFF;
+
+    private static final int[] GRIDS;
+    // минимальные головоломки канонической доски, по возрастанию числа чисел
+    private static final int[][] MINIMAL;
+    // [доска][n] — сколько минимальных головоломок доски содержат не больше n чисел
+    private static final int[][] ELIGIBLE;
+
+    static {
+        int[] all = allGrids();
+        List<Integer> canonical = new ArrayList<>();
+        for (int grid : all) {
+            if ((grid & CANONICAL_ROW_MASK) == CANONICAL_ROW) {
+                canonical.add(grid);
+            }
+        }
+        GRIDS = toArray(canonical);
+        MINIMAL = new int[GRIDS.length][];
+        ELIGIBLE = new int[GRIDS.length][CELLS + 1];
+        int minGivens = CELLS;
+        for (int g = 0; g < GRIDS.length; g++) {
+            MINIMAL[g] = minimalPuzzles(GRIDS[g]);
+            for (int mask : MINIMAL[g]) {
+                int givens = Integer.bitCount(mask);
+                minGivens = Math.min(minGivens, givens);
+                for (int n = givens; n <= CELLS; n++) {
+                    ELIGIBLE[g][n]++;
+                }
+            }
+        }
+        MAX_UNIQUE_BLANKS = CELLS - minGivens;
+    }
+
+    private GridCatalog() {
+    }
+
+    public static int grids() {
+        return GRIDS.length;
+    }
+
+    /**
+     * @return каноническая доска {@code g} в формате {@link PackedBoard#solutionOf}
+     */
+    public static int grid(int g) {
+        return GRIDS[g];
+    }
+
+    /**
+     * @return сколько минимальных головоломок доски {@code g} содержат не больше {@code givens} чисел;
+     * это первые головоломки {@link #minimal(int, int)}
+     */
+    public static int eligible(int g, int givens) {
+        return ELIGIBLE[g][Math.max(0, Math.min(givens, CELLS))];
+    }
+
+    /**
+     * @return маска фиксированных клеток {@code i}-й минимальной головоломки доски {@code g}
+     */
+    public static int minimal(int g, int i) {
+        return MINIMAL[g][i];
+    }
+
+    /**
+     * @return число минимальных головоломок во всём каталоге
+     */
+    public static int size() {
+        int size = 0;
+        for (int[] puzzles : MINIMAL) {
+            size += puzzles.length;
+        }
+        return size;
+    }
+
+    // все 288 досок: клетки заполняются по порядку с масками строк, столбцов и блоков
+    static int[] allGrids() {
+        List<Integer> grids = new ArrayList<>();
+        fill(new int[CELLS], new int[SIZE], new int[SIZE], new int[SIZE], 0, grids);
+        return toArray(grids);
+    }
+
+    private static void fill(int[] cells, int[] rows, int[] cols, int[] boxes, int idx, List<Integer> grids) {
+        if (idx == CELLS) {
+            int grid = 0;
+            for (int i = 0; i < CELLS; i++) {
+                grid |= (cells[i] - 1) << (i * 2);
+            }
+            grids.add(grid);
+            return;
+        }
+        int r = idx / SIZE;
+        int c = idx % SIZE;
+        int b = box(r, c);
+        int candidates = ~(rows[r] | cols[c] | boxes[b]) & ((1 << SIZE) - 1);
+        for (; candidates != 0; candidates &= candidates - 1) {
+            int bit = candidates & -candidates;
+            place(cells, rows, cols, boxes, idx, Integer.numberOfTrailingZeros(bit) + 1);
+            fill(cells, rows, cols, boxes, idx + 1, grids);
+            cells[idx] = 0;
+            rows[r] &= ~bit;
+            cols[c] &= ~bit;
+            boxes[b] &= ~bit;
+        }
+    }
+
+    private static void place(int[] cells, int[] rows, int[] cols, int[] boxes, int idx, int value) {
+        int bit = 1 << (value - 1);
+        int r = idx / SIZE;
+        int c = idx % SIZE;
+        cells[idx] = value;
+        rows[r] |= bit;
+        cols[c] |= bit;
+        boxes[box(r, c)] |= bit;
+    }
+
+    private static int box(int r, int c) {
+        return (r / PackedBoard.BLOCK_SIZE) * PackedBoard.BLOCK_SIZE + c / PackedBoard.BLOCK_SIZE;
+    }
+
+    // маски по возрастанию числа чисел; уровень, на котором все маски покрыты уже найденными, — последний
+    private static int[] minimalPuzzles(int grid) {
+        BitSet unique = new BitSet(1 << CELLS);
+        List<Integer> minimal = new ArrayList<>();
+        for (int givens = 1; givens <= CELLS; givens++) {
+            boolean checked = false;
+            for (int mask = (1 << givens) - 1; mask < 1 << CELLS; mask = nextMask(mask)) {
+                if (containsUnique(unique, mask)) {
+                    unique.set(mask);
+                    continue;
+                }
+                checked = true;
+                if (SolutionCounter.isUnique(board(grid, mask))) {
+                    unique.set(mask);
+                    minimal.add(mask);
+                }
+                if (givens == CELLS) {
+                    break;
+                }
+            }
+            if (!checked) {
+                break;
+            }
+        }
+        // уровни перебираются по возрастанию, поэтому список уже отсортирован по числу чисел
+        return toArray(minimal);
+    }
+
+    /**
+     * @return головоломка из доски {@code grid} с фиксированными клетками {@code mask}, 0 — пустая клетка
+     */
+    static int[][] board(int grid, int mask) {
+        int[][] board = new int[SIZE][SIZE];
+        for (int idx = 0; idx < CELLS; idx++) {
+            if ((mask >>> idx & 1) != 0) {
+                board[idx / SIZE][idx % SIZE] = PackedBoard.solutionValue(grid, idx);
+            }
+        }
+        return board;
+    }
+
+    // маска без одного из чисел уже даёт единственное решение
+    private static boolean containsUnique(BitSet unique, int mask) {
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            if (unique.get(mask & ~(bits & -bits))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    // следующая маска с тем же числом битов (Gosper's hack)
+    private static int nextMask(int mask) {
+        int lowest = mask & -mask;
+        int ripple = mask + lowest;
+        return (((ripple ^ mask) >>> 2) / lowest) | ripple;
+    }
+}
@@ -0,0 +1,176 @@
+package ru.sudoku.game.generator;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.sudoku.game.model.GridPuzzle;
+import ru.sudoku.game.model.GridSize;
+import ru.sudoku.game.model.Puzzle;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Пул заранее сгенерированных головоломок, отдельный для каждого уровня сложности (числа пустых клеток).
+ *
+ * <p>Фоновый поток держит каждый пул заполненным до {@code sudoku.pool.capacity}, поэтому
+ * {@link #take(int)} обычно просто забирает готовую доску из очереди. Если пул пуст
+ * (например, после всплеска /start) или уровень сложности не пулится, доска генерируется
+ * прямо в потоке запроса.</p>
+ *
+ * <p>Метрики: {@code sudoku.puzzle.pool.requests} (hit/miss), {@code sudoku.puzzle.pool.size}
+ * и {@code sudoku.puzzle.pool.refill.lag} — время от первого забора из полного пула
+ * до его повторного заполнения.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class PuzzlePool {
+    final SudokuGenerator generator;
+    final MeterRegistry meterRegistry;
+    final Map<Integer, Bucket> buckets = new ConcurrentHashMap<>();
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final AtomicBoolean refillScheduled = new AtomicBoolean();
+    @Value("${sudoku.pool.capacity:256}")
+    int capacity;
+    @Value("${sudoku.pool.blanks:3,6,8}")
+    List<Integer> pooledBlanks;
+    @Value("${sudoku.pool.refill-interval-ms:1000}")
+    long refillIntervalMs;
+    ScheduledExecutorService refiller;
+    Timer refillLag;
+
+    @PostConstruct
+    public void init() {
+        refillLag = Timer.builder("sudoku.puzzle.pool.refill.lag")
+                .description("Время от опустошения пула до его повторного заполнения")
+                .register(meterRegistry);
+        FunctionCounter.builder("sudoku.puzzle.pool.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("sudoku.puzzle.pool.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        for (int blanks : pooledBlanks) {
+            Bucket bucket = new Bucket(new ArrayBlockingQueue<>(capacity));
+            buckets.put(blanks, bucket);
+            Gauge.builder("sudoku.puzzle.pool.size", bucket.queue, BlockingQueue::size)
+                    .tag("blanks", String.valueOf(blanks))
+                    .register(meterRegistry);
+        }
+        refiller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "puzzle-pool-refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // периодический запуск страхует от пропущенных сигналов и делает первичное заполнение
+        refiller.scheduleWithFixedDelay(this::refill, 0, refillIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Пул головоломок запущен: уровни {}, ёмкость {}", pooledBlanks, capacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refiller.shutdownNow();
+    }
+
+    /**
+     * Возвращает новую головоломку с заданным числом пустых клеток.
+     *
+     * @param blanks количество пустых клеток
+     * @return головоломка с решением
+     */
+    public Puzzle take(int blanks) {
+        Bucket bucket = buckets.get(blanks);
+        Puzzle puzzle = bucket == null ? null : bucket.queue.poll();
+        if (puzzle != null) {
+            hits.increment();
+            bucket.markDrained();
+            scheduleRefill();
+            return puzzle;
+        }
+        misses.increment();
+        if (bucket != null) {
+            bucket.markDrained();
+            scheduleRefill();
+        }
+        return generator.generate(blanks);
+    }
+
+    /**
+     * Возвращает головоломку заданного размера. Пулятся только доски 4x4, остальные
+     * генерируются в потоке запроса и в метрики пула не попадают.
+     */
+    public GridPuzzle take(GridSize size, int blanks) {
+        if (size == GridSize.FOUR) {
+            return GridPuzzle.of(take(blanks));
+        }
+        return generator.generate(size, blanks);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void scheduleRefill() {
+        if (refillScheduled.compareAndSet(false, true)) {
+            refiller.execute(this::refill);
+        }
+    }
+
+    private void refill() {
+        refillScheduled.set(false);
+        try {
+            for (Map.Entry<Integer, Bucket> entry : buckets.entrySet()) {
+                int blanks = entry.getKey();
+                Bucket bucket = entry.getValue();
+                while (bucket.queue.remainingCapacity() > 0) {
+                    if (!bucket.queue.offer(generator.generate(blanks))) {
+                        break;
+                    }
+                }
+                long drainedAt = bucket.drainedAt.getAndSet(0);
+                if (drainedAt != 0) {
+                    refillLag.record(System.nanoTime() - drainedAt, TimeUnit.NANOSECONDS);
+                }
+            }
+        } catch (RuntimeException e) {
+            // исключение не должно останавливать периодическое заполнение
+            log.error("Ошибка при заполнении пула головоломок: {}", e.getMessage(), e);
+        }
+    }
+
+    private record Bucket(BlockingQueue<Puzzle> queue, AtomicLong drainedAt) {
+        Bucket(BlockingQueue<Puzzle> queue) {
+            this(queue, new AtomicLong());
+        }
+
+        void markDrained() {
+            // запоминаем только первый забор после заполнения
+            drainedAt.compareAndSet(0, System.nanoTime());
+        }
+    }
+}
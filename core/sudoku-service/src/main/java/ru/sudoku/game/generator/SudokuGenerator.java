@@ -1,81 +1,282 @@
 package ru.sudoku.game.generator;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import ru.sudoku.game.model.Difficulty;
+import ru.sudoku.game.model.GridPuzzle;
+import ru.sudoku.game.model.GridSize;
+import ru.sudoku.game.model.PackedBoard;
+import ru.sudoku.game.model.Puzzle;
+import ru.sudoku.game.model.SolvingTechnique;
 
-import java.util.Random;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Генератор головоломок 4x4. Вместе с головоломкой возвращается заполненная доска,
+ * из которой она получена, — по ней сервис даёт подсказки и проверяет ходы.
+ *
+ * <p>Доски не подбираются перебором: генератор берёт случайную каноническую доску и её
+ * минимальную головоломку из {@link GridCatalog}, добавляет случайные числа до нужного
+ * количества пустых клеток и применяет к результату случайную симметрию судоку:
+ * <ul>
+ *   <li>переименование чисел (24 варианта);</li>
+ *   <li>перестановку полос строк и строк внутри полос (8 вариантов), то же для столбцов;</li>
+ *   <li>транспонирование.</li>
+ * </ul>
+ * Симметрии сохраняют правила и единственность решения, а переименование из 12 канонических
+ * досок даёт каждую из 288 досок ровно одним способом, поэтому доска выбирается равновероятно.
+ * Генерация — несколько случайных чисел и 16 записей, без рекурсии. Метрики выбора из каталога:
+ * {@code sudoku.generator.catalog.draws} — сколько канонических досок вытянуто, пока не нашлась
+ * доска с подходящей минимальной головоломкой, и {@code sudoku.generator.catalog.collisions} —
+ * сколько случайных клеток при добавлении чисел оказались уже заполненными.</p>
+ *
+ * <p>Уровень сложности задаётся не только числом пустых клеток: {@link Difficulty} требует,
+ * чтобы самым сложным приёмом при решении оказался заданный {@link SolvingTechnique}. Головоломка
+ * оценивается {@link CandidateSolver#grade} до применения симметрии (симметрии приёмы не меняют),
+ * и неподходящая собирается заново, не больше {@value #GRADE_ATTEMPTS} раз. Пересборки считает
+ * {@code sudoku.generator.grade.retries}, а головоломки, выданные после всех попыток с другим
+ * приёмом, — {@code sudoku.generator.grade.misses}. Для уровня {@code HARD} (8 пустых клеток,
+ * hidden single) подходит около 60% головоломок.</p>
+ *
+ * <p>При числе пустых клеток больше {@link GridCatalog#MAX_UNIQUE_BLANKS} головоломки с
+ * единственным решением не существует: клетки очищаются случайно, а метрика
+ * {@code sudoku.generator.non.unique} считает такие головоломки.</p>
+ *
+ * <p>Доски 6x6, 9x9 и 16x16 ({@link #generate(GridSize, int)}) каталогом не покрыть. Для них
+ * {@link CandidateSolver} строит случайную заполненную доску, затем клетки очищаются в
+ * случайном порядке, и очистка откатывается, если у доски появилось другое решение. Проверка —
+ * поиск одного решения с другим числом в очищенной клетке, с распространением ограничений.
+ * Если за {@value #GRID_ATTEMPTS} доски нужное число пустых клеток с единственным решением не
+ * набралось, недостающие очищаются случайно и тоже учитываются в {@code sudoku.generator.non.unique}.
+ * Время генерации по размерам — {@code sudoku.generator.grid}.</p>
+ */
 @Component
+@RequiredArgsConstructor
+@Slf4j
 public class SudokuGenerator {
-    private final Random random = new Random();
+    static final int GRID_ATTEMPTS = 3;
+    static final int GRADE_ATTEMPTS = 16;
+    // наименьшее множество клеток, очистка которого даёт второе решение, — прямоугольник из 4
+    // клеток, поэтому первые 3 очистки заполненной доски проверять не нужно
+    private static final int ALWAYS_UNIQUE_BLANKS = 3;
 
-    public int[][] generate(int blanks) {
-        int[][] board = new int[4][4]; // создаём пустое поле 4х4
-        fillboard(board); // заполняем всё поле корректными числами (от 1 до 4)
-        removeCells(board, blanks);
-        return board;
+    private final MeterRegistry meterRegistry;
+    private final Map<GridSize, Timer> gridTimers = new EnumMap<>(GridSize.class);
+    private Counter nonUnique;
+    private Counter gradeRetries;
+    private Counter gradeMisses;
+    private DistributionSummary catalogDraws;
+    private DistributionSummary catalogCollisions;
+
+    @PostConstruct
+    public void init() {
+        nonUnique = Counter.builder("sudoku.generator.non.unique")
+                .description("Головоломки, выданные без гарантии единственного решения")
+                .register(meterRegistry);
+        gradeRetries = Counter.builder("sudoku.generator.grade.retries")
+                .description("Головоломки, собранные заново из-за приёма, не подходящего уровню сложности")
+                .register(meterRegistry);
+        gradeMisses = Counter.builder("sudoku.generator.grade.misses")
+                .description("Головоломки, выданные с приёмом, не подходящим уровню сложности")
+                .register(meterRegistry);
+        catalogDraws = DistributionSummary.builder("sudoku.generator.catalog.draws")
+                .description("Канонические доски, вытянутые из каталога за одну головоломку 4x4")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        catalogCollisions = DistributionSummary.builder("sudoku.generator.catalog.collisions")
+                .description("Повторные выборы уже заполненной клетки при добавлении чисел к головоломке 4x4")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        for (GridSize size : GridSize.values()) {
+            gridTimers.put(size, Timer.builder("sudoku.generator.grid")
+                    .description("Генерация головоломки заданного размера")
+                    .tag("size", Integer.toString(size.size()))
+                    .register(meterRegistry));
+        }
+        log.info("Каталог досок 4x4: {} канонических досок, {} минимальных головоломок",
+                GridCatalog.grids(), GridCatalog.size());
     }
 
-    // Рекурсивная функция для заполнения доски числами 1–9 по правилам судоку
-    private boolean fillboard(int[][] board) {
-        // проходим по всем клеткам
-        for (int row = 0; row < 4; row++) {
-            for (int col = 0; col < 4; col++) {
-                // если клетка пустая (0), пытаемся поставить туда число
-                if (board[row][col] == 0) {
-                    int[] nums = randPermutation(); // создаём случайный порядок чисел 1–9
-                    for (int n : nums) { // пробуем поставить каждое число
-                        if (isSafe(board, row, col, n)) { // проверяем, не нарушит ли это число правила судоку
-                            board[row][col] = n;   // ставим число
-                            if (fillboard(board)) {  // рекурсивно заполняем дальше
-                               return true;  // если доска заполнилась успешно — выходим
-                            }
-                            board[row][col] = 0;  // если не получилось — откатываем (backtracking)
-                        }
-                    }
-                    // если ни одно число не подошло — откат назад
-                    return false;
+    public Puzzle generate(int blanks) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int givens = GridCatalog.CELLS - Math.max(0, Math.min(blanks, GridCatalog.CELLS));
+        SolvingTechnique technique = Difficulty.fromBlanks(blanks).getTechnique();
+        int grid = 0;
+        int mask = 0;
+        for (int attempt = 0; attempt < GRADE_ATTEMPTS; attempt++) {
+            if (blanks <= GridCatalog.MAX_UNIQUE_BLANKS) {
+                grid = randomGrid(givens, random);
+                mask = GridCatalog.minimal(grid, random.nextInt(GridCatalog.eligible(grid, givens)));
+            } else {
+                grid = random.nextInt(GridCatalog.grids());
+                mask = 0;
+                nonUnique.increment();
+            }
+            // добавляем случайные числа к минимальной головоломке
+            int collisions = 0;
+            for (int added = Integer.bitCount(mask); added < givens; ) {
+                int bit = 1 << random.nextInt(GridCatalog.CELLS);
+                if ((mask & bit) == 0) {
+                    mask |= bit;
+                    added++;
+                } else {
+                    collisions++;
                 }
             }
+            catalogCollisions.record(collisions);
+            if (technique == null || grade(GridCatalog.grid(grid), mask) == technique) {
+                return transform(GridCatalog.grid(grid), mask, random);
+            }
+            gradeRetries.increment();
         }
-        // если дошли до конца без пустых клеток — всё заполнено
-        return true;
+        gradeMisses.increment();
+        return transform(GridCatalog.grid(grid), mask, random);
     }
 
-    // Проверка, можно ли поставить число num в позицию (row, col)
-    private boolean isSafe(int[][] board, int row, int col, int num) {
-        // Проверка строки и столбца
-        for (int i = 0; i < 4; i++) {
-            if (board[row][i] == num || board[i][col] == num) return false;
+    /**
+     * Самый сложный приём, который нужен для решения головоломки 4x4.
+     *
+     * @param solution доска в формате {@link PackedBoard#solutionOf}
+     * @param mask     фиксированные клетки
+     */
+    static SolvingTechnique grade(int solution, int mask) {
+        int[] board = new int[GridCatalog.CELLS];
+        for (int idx = 0; idx < GridCatalog.CELLS; idx++) {
+            if ((mask >>> idx & 1) != 0) {
+                board[idx] = PackedBoard.solutionValue(solution, idx);
+            }
         }
+        return CandidateSolver.of(GridSize.FOUR).grade(board);
+    }
 
-        // Проверка блока 2x2
-        int startRow = row - row % 2;
-        int startCol = col - col % 2;
-        for (int r = startRow; r < startRow + 2; r++) {
-            for (int c = startCol; c < startCol + 2; c++) {
-                if (board[r][c] == num) return false;
+    /**
+     * Головоломка заданного размера с {@code blanks} пустыми клетками. Доска 4x4 берётся из
+     * каталога, как в {@link #generate(int)}.
+     */
+    public GridPuzzle generate(GridSize size, int blanks) {
+        if (size == GridSize.FOUR) {
+            return GridPuzzle.of(generate(blanks));
+        }
+        long start = System.nanoTime();
+        CandidateSolver solver = CandidateSolver.of(size);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int target = Math.max(0, Math.min(blanks, size.cells()));
+        int[] solution = null;
+        int[] board = null;
+        int removed = -1;
+        for (int attempt = 0; attempt < GRID_ATTEMPTS && removed < target; attempt++) {
+            solution = solver.randomGrid(random);
+            board = solution.clone();
+            removed = dig(solver, board, target, random);
+        }
+        if (removed < target) {
+            // единственное решение недостижимо: добираем пустые клетки случайно
+            for (int idx : shuffledCells(size.cells(), random)) {
+                if (removed == target) {
+                    break;
+                }
+                if (board[idx] != 0) {
+                    board[idx] = 0;
+                    removed++;
+                }
             }
+            nonUnique.increment();
         }
-
-        return true;
+        gridTimers.get(size).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return new GridPuzzle(size, board, solution);
     }
 
-    // Удаляем случайные клетки, чтобы сделать головоломку (оставить blanks пустых клеток)
-    private void removeCells(int[][] board, int blanks) {
-        int removed = 0; // счётчик удалённых клеток
-        while (removed < blanks) {
-            int r = random.nextInt(4); // случайная строка
-            int c = random.nextInt(4); // случайный столбец
-            if (board[r][c] != 0) { // если клетка не пуста
-                board[r][c] = 0; // очищаем её (ставим 0)
+    // очищает клетки в случайном порядке, пока решение остаётся единственным; возвращает число очищенных
+    private int dig(CandidateSolver solver, int[] board, int target, ThreadLocalRandom random) {
+        int removed = 0;
+        for (int idx : shuffledCells(board.length, random)) {
+            if (removed == target) {
+                break;
+            }
+            int value = board[idx];
+            board[idx] = 0;
+            // очистка, оставившая второе решение, сохранит его и при дальнейших очистках:
+            // клетку возвращаем и больше не трогаем
+            if (removed >= ALWAYS_UNIQUE_BLANKS && solver.hasOtherSolution(board, idx, value)) {
+                board[idx] = value;
+            } else {
                 removed++;
             }
         }
+        return removed;
+    }
+
+    private int[] shuffledCells(int cells, ThreadLocalRandom random) {
+        int[] order = new int[cells];
+        for (int i = 0; i < cells; i++) {
+            order[i] = i;
+        }
+        for (int i = cells - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    // каноническая доска, у которой есть минимальная головоломка не длиннее givens чисел
+    private int randomGrid(int givens, ThreadLocalRandom random) {
+        for (int draws = 1; ; draws++) {
+            int grid = random.nextInt(GridCatalog.grids());
+            if (GridCatalog.eligible(grid, givens) > 0) {
+                catalogDraws.record(draws);
+                return grid;
+            }
+        }
+    }
+
+    // применяет случайную симметрию к доске и маске фиксированных клеток
+    private Puzzle transform(int grid, int mask, ThreadLocalRandom random) {
+        int[] labels = randPermutation(random);
+        int[] rowMap = bandPermutation(random);
+        int[] colMap = bandPermutation(random);
+        boolean transpose = random.nextBoolean();
+        int[][] board = new int[4][4];
+        int[][] solved = new int[4][4];
+        for (int idx = 0; idx < GridCatalog.CELLS; idx++) {
+            int r = rowMap[idx / 4];
+            int c = colMap[idx % 4];
+            if (transpose) {
+                int tmp = r;
+                r = c;
+                c = tmp;
+            }
+            int value = labels[PackedBoard.solutionValue(grid, idx) - 1];
+            solved[r][c] = value;
+            board[r][c] = (mask >>> idx & 1) != 0 ? value : 0;
+        }
+        return new Puzzle(PackedBoard.of(board), PackedBoard.solutionOf(solved));
+    }
 
+    // перестановка строк (или столбцов), сохраняющая полосы 2x4: полосы и строки внутри них
+    private int[] bandPermutation(ThreadLocalRandom random) {
+        int bands = random.nextInt(2);
+        int[] map = new int[4];
+        for (int band = 0; band < 2; band++) {
+            int swap = random.nextInt(2);
+            map[band * 2] = ((band ^ bands) * 2) + swap;
+            map[band * 2 + 1] = ((band ^ bands) * 2) + (1 - swap);
+        }
+        return map;
     }
 
-    // Генерация случайного порядка чисел 1–9 (перестановка)
-    private int[] randPermutation() {
+    // Генерация случайного порядка чисел 1–4 (перестановка)
+    private int[] randPermutation(ThreadLocalRandom random) {
         int[] nums = {1, 2, 3, 4};// исходный массив чисел
         for (int i = nums.length - 1; i > 0; i--) { // алгоритм Фишера-Йетса (перемешивание)
             int j = random.nextInt(i + 1); // выбираем случайный индекс от 0 до i
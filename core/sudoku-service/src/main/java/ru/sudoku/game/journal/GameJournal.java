@@ -0,0 +1,418 @@
+package ru.sudoku.game.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.sudoku.game.model.BoardState;
+import ru.sudoku.game.model.Game;
+import ru.sudoku.game.store.GameEvictionListener;
+import ru.sudoku.game.store.GameStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Журнал живых игр на диске: переживает перезапуск sudoku-service без похода в Postgres.
+ *
+ * <p>Каждая новая игра, ход и изменение заметок дописывают запись {@link JournalRecord}
+ * фиксированной длины в сегмент журнала, отображённый в память ({@code journal-<n>.log}).
+ * Запись — это копирование {@value JournalRecord#SIZE} байт в page cache под короткой блокировкой;
+ * {@code force()} выполняет фоновый поток раз в {@code sudoku.journal.flush-interval-ms} для всех
+ * записей сразу (group commit), поэтому ход не ждёт диска. Ценой этого при отключении питания
+ * теряются последние миллисекунды ходов; падение самого процесса ничего не теряет. Игры,
+ * вытесненные хранилищем, получают запись-надгробие и после перезапуска не возвращаются.
+ * История ходов для отмены в журнал не пишется и после перезапуска начинается заново.</p>
+ *
+ * <p>Раз в {@code sudoku.journal.snapshot-interval}, а также при заполнении сегмента все игры
+ * из {@link GameStore} записываются в {@code snapshot.bin}. Снимок запоминает позицию журнала
+ * (сегмент и смещение), с которой начинаются более поздние записи, и сегменты до неё удаляются.
+ * Новый сегмент создаётся только при заполнении текущего; после перезапуска журнал продолжает
+ * последний сегмент с конца записанных данных, так что на диске не копятся почти пустые сегменты.
+ * При старте загружается снимок, затем воспроизводятся записи после его позиции.</p>
+ *
+ * <p>Ошибка открытия нового сегмента не пробрасывается в ход, который уже применён: запись
+ * теряется, об этом пишется в лог, и запрашивается снимок, который сохранит состояние всех
+ * игр. Следующая запись снова пробует открыть сегмент.</p>
+ *
+ * <p>Каталог журнала принадлежит одному экземпляру: при старте журнал берёт блокировку файла
+ * {@code journal.lock} и не запускается, если каталог занят другим процессом. Иначе два экземпляра
+ * с общим каталогом писали бы в одни сегменты и удаляли бы сегменты друг друга.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class GameJournal implements GameEvictionListener {
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String SNAPSHOT_FILE = "snapshot.bin";
+    static final String LOCK_FILE = "journal.lock";
+    static final int SNAPSHOT_MAGIC = 0x53444b32;        // "SDK2"
+    static final int SNAPSHOT_HEADER = 24;               // magic, количество игр, сегмент и смещение после снимка
+    static final int LEGACY_SNAPSHOT_MAGIC = 0x53444b53; // "SDKS": смещения нет, журнал идёт с начала сегмента
+    static final int LEGACY_SNAPSHOT_HEADER = 16;
+
+    final GameStore gameStore;
+    final Object appendLock = new Object();
+    // снимки по расписанию и по заполнению сегмента не должны идти одновременно
+    final Object snapshotLock = new Object();
+    final AtomicBoolean dirty = new AtomicBoolean();
+    final AtomicBoolean snapshotRequested = new AtomicBoolean();
+    @Value("${sudoku.journal.enabled:true}")
+    boolean enabled;
+    @Value("${sudoku.journal.dir:data/journal}")
+    Path dir;
+    @Value("${sudoku.journal.segment-records:1048576}")
+    int segmentRecords;
+    @Value("${sudoku.journal.flush-interval-ms:50}")
+    long flushIntervalMs;
+    @Value("${sudoku.journal.snapshot-interval:PT5M}")
+    Duration snapshotInterval;
+    ScheduledExecutorService background;
+    FileChannel lockChannel;
+    // текущий сегмент; доступ только под appendLock, buffer == null после неудачного открытия
+    long segment;
+    MappedByteBuffer buffer;
+    int position;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            log.info("Журнал игр отключён");
+            return;
+        }
+        Files.createDirectories(dir);
+        lockDir();
+        recover();
+        background = Executors.newScheduledThreadPool(2, r -> {
+            Thread thread = new Thread(r, "game-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        background.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        long snapshotMs = snapshotInterval.toMillis();
+        background.scheduleWithFixedDelay(this::snapshot, snapshotMs, snapshotMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        background.shutdownNow();
+        flush();
+        try {
+            // закрытие канала снимает блокировку каталога
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("Не удалось освободить каталог журнала {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private void lockDir() throws IOException {
+        lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Каталог журнала " + dir + " занят другим экземпляром sudoku-service;"
+                    + " задайте каждому экземпляру свой sudoku.journal.dir");
+        }
+    }
+
+    public void appendNewGame(Game game, BoardState state) {
+        append(JournalRecord.NEW_GAME, game, state);
+    }
+
+    public void appendMove(Game game, BoardState state) {
+        append(JournalRecord.MOVE, game, state);
+    }
+
+    // надгробие: без него вытесненная игра вернулась бы после перезапуска и была бы записана брошенной ещё раз
+    @Override
+    public void onEvicted(Game game) {
+        append(JournalRecord.EVICTED, game, game.getState().get());
+    }
+
+    private void append(byte type, Game game, BoardState state) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (appendLock) {
+            if (buffer == null || position + JournalRecord.SIZE > buffer.capacity()) {
+                if (!rotate()) {
+                    log.error("Запись журнала для чата {} потеряна: нет сегмента для записи", game.getChatId());
+                    requestSnapshot();
+                    return;
+                }
+                requestSnapshot();
+            }
+            JournalRecord.write(buffer, position, type, game, state);
+            position += JournalRecord.SIZE;
+        }
+        dirty.set(true);
+    }
+
+    // group commit: один force() на все записи, появившиеся с прошлого раза
+    private void flush() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        MappedByteBuffer current;
+        synchronized (appendLock) {
+            current = buffer;
+        }
+        if (current != null) {
+            current.force();
+        }
+    }
+
+    private void requestSnapshot() {
+        // во время восстановления фоновых потоков ещё нет: снимок сделает расписание
+        if (background != null && snapshotRequested.compareAndSet(false, true)) {
+            background.execute(this::snapshot);
+        }
+    }
+
+    private void snapshot() {
+        synchronized (snapshotLock) {
+            snapshotRequested.set(false);
+            takeSnapshot();
+        }
+    }
+
+    private void takeSnapshot() {
+        try {
+            long firstSegment;
+            int firstPosition;
+            synchronized (appendLock) {
+                if (buffer == null && !rotate()) {
+                    log.error("Снимок игр не записан: нет сегмента журнала");
+                    return;
+                }
+                firstSegment = segment;
+                firstPosition = position;
+            }
+            // всё, что изменится во время обхода, попадёт в журнал после этой позиции и будет воспроизведено поверх
+            int count = writeSnapshot(firstSegment, firstPosition);
+            deleteSegmentsBefore(firstSegment);
+            log.info("Снимок игр записан: {} игр, журнал продолжается с сегмента {}, смещение {}",
+                    count, firstSegment, firstPosition);
+        } catch (IOException | RuntimeException e) {
+            log.error("Не удалось записать снимок игр: {}", e.getMessage(), e);
+        }
+    }
+
+    private int writeSnapshot(long firstSegment, int firstPosition) throws IOException {
+        Path tmp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        ByteBuffer record = ByteBuffer.allocate(JournalRecord.SIZE);
+        int[] count = {0};
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(SNAPSHOT_HEADER);
+            gameStore.forEach(game -> {
+                // запись идёт по абсолютным смещениям, позиция буфера всегда 0
+                JournalRecord.write(record, 0, JournalRecord.SNAPSHOT, game, game.getState().get());
+                try {
+                    channel.write(record);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                record.clear();
+                count[0]++;
+            });
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER)
+                    .putInt(SNAPSHOT_MAGIC)
+                    .putInt(count[0])
+                    .putLong(firstSegment)
+                    .putInt(firstPosition)
+                    .putInt(0)
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        return count[0];
+    }
+
+    /**
+     * Загружает снимок, воспроизводит сегменты журнала в хранилище и открывает сегмент для
+     * записи: последний найденный с конца его записей или новый, если последнего нет или он полон.
+     */
+    private void recover() throws IOException {
+        Map<Long, JournalRecord> games = new HashMap<>();
+        // вытесненные игры: чат -> startedAt; поздние записи той же игры её не воскрешают
+        Map<Long, Long> evicted = new HashMap<>();
+        long[] boundary = readSnapshot(games);
+        long firstSegment = boundary[0];
+        List<Long> segments = listSegments();
+        long lastSegment = Math.max(firstSegment - 1, 0);
+        int lastEnd = 0;
+        for (long seq : segments) {
+            if (seq >= firstSegment) {
+                lastSegment = seq;
+                lastEnd = replaySegment(seq, seq == firstSegment ? (int) boundary[1] : 0, games, evicted);
+            } else {
+                lastSegment = Math.max(lastSegment, seq);
+            }
+        }
+        // сегмент открывается до заполнения хранилища: оно может сразу вытеснить лишние игры и записать надгробия
+        if (lastSegment < firstSegment || !reopenSegment(lastSegment, lastEnd)) {
+            openSegment(lastSegment + 1);
+        }
+        games.values().forEach(record -> gameStore.put(record.toGame()));
+        log.info("Восстановлено игр из журнала: {} (сегментов: {})", games.size(), segments.size());
+    }
+
+    /**
+     * @return сегмент и смещение, с которых журнал продолжается после снимка; {@code {0, 0}} без снимка
+     */
+    private long[] readSnapshot(Map<Long, JournalRecord> games) throws IOException {
+        Path file = dir.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return new long[]{0, 0};
+        }
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        int magic = buf.capacity() < LEGACY_SNAPSHOT_HEADER ? 0 : buf.getInt(0);
+        int header = magic == SNAPSHOT_MAGIC ? SNAPSHOT_HEADER : LEGACY_SNAPSHOT_HEADER;
+        if (magic != SNAPSHOT_MAGIC && magic != LEGACY_SNAPSHOT_MAGIC || buf.capacity() < header) {
+            log.warn("Файл снимка {} повреждён и будет проигнорирован", file);
+            return new long[]{0, 0};
+        }
+        int count = buf.getInt(4);
+        int offset = header;
+        for (int i = 0; i < count; i++) {
+            JournalRecord record = JournalRecord.read(buf, offset);
+            if (record == null) {
+                log.warn("Файл снимка {} обрезан: прочитано {} игр из {}", file, i, count);
+                break;
+            }
+            games.put(record.chatId(), record);
+            offset += JournalRecord.length(buf, offset);
+        }
+        return new long[]{buf.getLong(8), magic == SNAPSHOT_MAGIC ? buf.getInt(16) : 0};
+    }
+
+    /**
+     * @return смещение сразу после последней целой записи сегмента
+     */
+    private int replaySegment(long seq, int from, Map<Long, JournalRecord> games, Map<Long, Long> evicted)
+            throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(segmentPath(seq)));
+        int offset = from;
+        for (JournalRecord record; (record = JournalRecord.read(buf, offset)) != null;
+             offset += JournalRecord.length(buf, offset)) {
+            long chatId = record.chatId();
+            JournalRecord current = games.get(chatId);
+            switch (record.type()) {
+                case JournalRecord.NEW_GAME -> {
+                    evicted.remove(chatId);
+                    games.put(chatId, record);
+                }
+                case JournalRecord.EVICTED -> {
+                    evicted.put(chatId, record.startedAtMillis());
+                    if (current != null && current.startedAtMillis() == record.startedAtMillis()) {
+                        games.remove(chatId);
+                    }
+                }
+                default -> {
+                    Long evictedAt = evicted.get(chatId);
+                    if ((evictedAt == null || evictedAt != record.startedAtMillis())
+                            && (current == null || record.version() >= current.version())) {
+                        games.put(chatId, record);
+                    }
+                }
+            }
+        }
+        return offset;
+    }
+
+    // вызывается под appendLock; false — сегмент не открыт, текущий буфер сброшен
+    private boolean rotate() {
+        if (buffer != null) {
+            buffer.force();
+        }
+        try {
+            openSegment(segment + 1);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Не удалось открыть сегмент журнала {}: {}", segment + 1, e.getMessage(), e);
+            buffer = null;
+            return false;
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(seq), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * JournalRecord.SIZE);
+        }
+        segment = seq;
+        position = 0;
+    }
+
+    // продолжает существующий сегмент с конца записанных данных; false — места в нём нет
+    private boolean reopenSegment(long seq, int end) throws IOException {
+        Path path = segmentPath(seq);
+        if (!Files.exists(path) || Files.size(path) < end + JournalRecord.SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        segment = seq;
+        position = end;
+        return true;
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private void deleteSegmentsBefore(long firstSegment) throws IOException {
+        for (long seq : listSegments()) {
+            if (seq < firstSegment) {
+                Files.deleteIfExists(segmentPath(seq));
+            }
+        }
+    }
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(SEGMENT_PREFIX + seq + SEGMENT_SUFFIX);
+    }
+}
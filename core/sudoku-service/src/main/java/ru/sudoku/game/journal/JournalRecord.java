@@ -0,0 +1,130 @@
+package ru.sudoku.game.journal;
+
+import ru.sudoku.game.model.BoardState;
+import ru.sudoku.game.model.Game;
+import ru.sudoku.game.model.PackedBoard;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Запись журнала игр фиксированной длины {@link #SIZE} байт.
+ *
+ * <p>Каждая запись содержит полное состояние игры после операции, поэтому воспроизведение
+ * не зависит от порядка записей одного чата: побеждает запись с версией доски не меньше
+ * текущей (заметки меняются без смены версии), а {@link #NEW_GAME} всегда заменяет
+ * предыдущую игру. {@link #EVICTED} — надгробие игры, которую хранилище вытеснило: она
+ * удаляется, и более поздние записи той же игры (того же {@code startedAt}) её не воскрешают.
+ * Тот же формат используется в снимке.</p>
+ *
+ * <pre>
+ *  0  byte  type         4  int   version     16 long cells        32 int mistakes    40 long userId
+ *  1  byte  blanks       8  long  chatId      24 long startedAt    36 int solution    48 long notes
+ *  2  byte  flags                               (epoch millis)
+ *  3  byte  layout
+ * </pre>
+ *
+ * <p>Решение занимает бывшее резервное поле, поэтому записи старых журналов читаются
+ * без изменений: в них там ноль, то есть {@link PackedBoard#NO_SOLUTION}. Байт {@code layout}
+ * тоже был резервным и задаёт длину записи ({@link #length(ByteBuffer, int)}), поэтому записи
+ * разных форматов можно читать подряд:
+ * <ul>
+ *   <li>0 — {@link #LEGACY_SIZE} байт без {@code userId} (игрок совпадает с чатом) и без заметок;</li>
+ *   <li>1 — 48 байт с {@code userId}, без заметок;</li>
+ *   <li>2 — {@link #SIZE} байт, все поля.</li>
+ * </ul></p>
+ *
+ * <p>Тип пишется последним: запись, у которой тип ещё нулевой, считается недописанной,
+ * и воспроизведение на ней останавливается.</p>
+ */
+public record JournalRecord(byte type, long chatId, long userId, int blanks, boolean finished, int version,
+                            long cells, long startedAtMillis, int mistakes, int solution, long notes) {
+    public static final int SIZE = 56;
+    public static final int LEGACY_SIZE = 40;
+
+    public static final byte NEW_GAME = 1;
+    public static final byte MOVE = 2;
+    public static final byte SNAPSHOT = 3;
+    public static final byte EVICTED = 4;
+
+    private static final int FLAG_FINISHED = 1;
+    private static final byte LAYOUT_LEGACY = 0;
+    private static final byte LAYOUT_USER = 1;
+    private static final byte LAYOUT_NOTES = 2;
+    private static final int USER_SIZE = 48;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    /**
+     * Пишет состояние игры по абсолютному смещению, не меняя позицию буфера.
+     */
+    public static void write(ByteBuffer buf, int offset, byte type, Game game, BoardState state) {
+        buf.put(offset + 1, (byte) game.getBlanks());
+        buf.put(offset + 2, (byte) (game.getFinished().get() ? FLAG_FINISHED : 0));
+        buf.put(offset + 3, LAYOUT_NOTES);
+        buf.putInt(offset + 4, state.version());
+        buf.putLong(offset + 8, game.getChatId());
+        buf.putLong(offset + 16, state.cells());
+        buf.putLong(offset + 24, startedAtMillis(game));
+        buf.putInt(offset + 32, game.getMistakes().get());
+        buf.putInt(offset + 36, game.getSolution());
+        buf.putLong(offset + 40, game.getUserId());
+        buf.putLong(offset + 48, state.notes());
+        buf.put(offset, type);
+    }
+
+    /**
+     * @return длина записи по абсолютному смещению; запись должна быть прочитана {@link #read}
+     */
+    public static int length(ByteBuffer buf, int offset) {
+        return switch (buf.get(offset + 3)) {
+            case LAYOUT_LEGACY -> LEGACY_SIZE;
+            case LAYOUT_USER -> USER_SIZE;
+            default -> SIZE;
+        };
+    }
+
+    /**
+     * @return запись по абсолютному смещению или {@code null}, если запись пустая, недописанная
+     * или не помещается в буфер
+     */
+    public static JournalRecord read(ByteBuffer buf, int offset) {
+        if (offset + LEGACY_SIZE > buf.capacity()) {
+            return null;
+        }
+        byte type = buf.get(offset);
+        byte layout = buf.get(offset + 3);
+        if (type < NEW_GAME || type > EVICTED
+                || layout < LAYOUT_LEGACY || layout > LAYOUT_NOTES
+                || offset + length(buf, offset) > buf.capacity()) {
+            return null;
+        }
+        long chatId = buf.getLong(offset + 8);
+        return new JournalRecord(
+                type,
+                chatId,
+                layout == LAYOUT_LEGACY ? chatId : buf.getLong(offset + 40),
+                buf.get(offset + 1),
+                (buf.get(offset + 2) & FLAG_FINISHED) != 0,
+                buf.getInt(offset + 4),
+                buf.getLong(offset + 16),
+                buf.getLong(offset + 24),
+                buf.getInt(offset + 32),
+                buf.getInt(offset + 36),
+                layout == LAYOUT_NOTES ? buf.getLong(offset + 48) : 0L);
+    }
+
+    public static long startedAtMillis(Game game) {
+        return game.getStartedAt().atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Игра из записи; история ходов для отмены в журнал не пишется и начинается заново.
+     */
+    public Game toGame() {
+        LocalDateTime startedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(startedAtMillis), ZONE);
+        return new Game(chatId, userId, blanks, solution, startedAt, BoardState.of(cells, version, notes), mistakes,
+                finished);
+    }
+}
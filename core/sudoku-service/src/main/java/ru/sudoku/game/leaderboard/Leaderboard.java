@@ -0,0 +1,224 @@
+package ru.sudoku.game.leaderboard;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.sudoku.game.dto.LeaderboardDto;
+import ru.sudoku.game.dto.LeaderboardEntryDto;
+import ru.sudoku.game.model.Difficulty;
+import ru.sudoku.game.model.GameResult;
+import ru.sudoku.game.repository.GameResultRepository;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Таблицы лидеров: самые быстрые решения для каждого уровня сложности за всё время и за
+ * текущую неделю. Таблицы целиком лежат в памяти ({@link TopK}), поэтому запрос таблицы
+ * не обращается к базе.
+ *
+ * <p>Таблицы пополняются из двух источников:
+ * <ul>
+ *   <li>{@link #record(GameResult)} — результат решённой игры этого экземпляра, сразу при
+ *       завершении, ещё до записи в базу;</li>
+ *   <li>фоновый проход по {@code game_results} по возрастанию {@code id} (keyset: страница
+ *       {@code id > :last ORDER BY id LIMIT :page}, без OFFSET и без выборки всей таблицы).
+ *       Первый проход после запуска восстанавливает таблицы целиком, следующие раз в
+ *       {@code sudoku.leaderboard.refresh-interval} дочитывают новые строки, в том числе
+ *       записанные другими экземплярами.</li>
+ * </ul>
+ * Экземпляры берут идентификаторы из последовательности блоками, поэтому строка с меньшим
+ * {@code id} может появиться в базе позже строки с большим; каждый проход заново читает
+ * последние {@code sudoku.leaderboard.rescan-window} идентификаторов. Повторно прочитанный
+ * результат таблицу не меняет.</p>
+ *
+ * <p>Игры {@link Difficulty#CUSTOM} в таблицы не попадают: число пустых клеток у них разное,
+ * и время решения несравнимо.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class Leaderboard {
+    static final List<Difficulty> RANKED = List.of(Difficulty.EASY, Difficulty.MEDIUM, Difficulty.HARD);
+
+    final GameResultRepository gameResultRepository;
+    final MeterRegistry meterRegistry;
+    @Value("${sudoku.leaderboard.size:10}")
+    int size;
+    @Value("${sudoku.leaderboard.scan-page-size:1000}")
+    int scanPageSize;
+    @Value("${sudoku.leaderboard.rescan-window:1000}")
+    long rescanWindow;
+    @Value("${sudoku.leaderboard.refresh-interval:PT30S}")
+    Duration refreshInterval;
+    final Map<Difficulty, TopK> allTime = new EnumMap<>(Difficulty.class);
+    volatile Week week;
+    // наибольший прочитанный id; меняется только в потоке прохода
+    long lastScannedId;
+    boolean restored;
+    ScheduledExecutorService scanner;
+    Timer scanTimer;
+
+    @PostConstruct
+    public void init() {
+        for (Difficulty difficulty : RANKED) {
+            allTime.put(difficulty, new TopK(size));
+        }
+        week = new Week(weekStart(LocalDate.now()), size);
+        scanTimer = Timer.builder("sudoku.leaderboard.scan")
+                .description("Проход по game_results для таблицы лидеров")
+                .register(meterRegistry);
+        scanner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "leaderboard-scan");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // первый проход — восстановление после запуска, в фоне: запуск сервиса не ждёт базу
+        scanner.scheduleWithFixedDelay(this::scan, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanner.shutdownNow();
+    }
+
+    /**
+     * Учитывает результат игры. Брошенные игры (без времени завершения) пропускаются.
+     */
+    public void record(GameResult result) {
+        if (result.getCompletedAt() == null || result.getCompletionTime() == null) {
+            return;
+        }
+        offer(result.getDifficulty(), new LeaderboardEntry(result.getUserId(), result.getCompletionTime(),
+                result.getScore() == null ? 0 : result.getScore(), result.getCompletedAt()));
+    }
+
+    public List<LeaderboardEntry> top(Difficulty difficulty, LeaderboardPeriod period) {
+        TopK board = board(difficulty, period);
+        return board == null ? List.of() : board.entries();
+    }
+
+    /**
+     * Таблицы всех уровней сложности за период, от лучшего результата к худшему.
+     */
+    public LeaderboardDto getLeaderboard(LeaderboardPeriod period) {
+        Map<String, List<LeaderboardEntryDto>> boards = new LinkedHashMap<>();
+        for (Difficulty difficulty : RANKED) {
+            List<LeaderboardEntry> entries = top(difficulty, period);
+            List<LeaderboardEntryDto> dtos = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                LeaderboardEntry entry = entries.get(i);
+                dtos.add(new LeaderboardEntryDto(i + 1, entry.userId(), entry.completionTime(), entry.score()));
+            }
+            boards.put(difficulty.name(), dtos);
+        }
+        return new LeaderboardDto(period.name(), boards);
+    }
+
+    private TopK board(Difficulty difficulty, LeaderboardPeriod period) {
+        if (period == LeaderboardPeriod.ALL_TIME) {
+            return allTime.get(difficulty);
+        }
+        Week current = week;
+        // за новую неделю ещё нет ни одного результата
+        return current.start.equals(weekStart(LocalDate.now())) ? current.boards.get(difficulty) : null;
+    }
+
+    private void offer(String difficultyName, LeaderboardEntry entry) {
+        Difficulty difficulty;
+        try {
+            difficulty = Difficulty.valueOf(difficultyName);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return;
+        }
+        TopK board = allTime.get(difficulty);
+        if (board == null) {
+            return;
+        }
+        board.offer(entry);
+        LocalDate start = weekStart(entry.completedAt().toLocalDate());
+        Week current = week;
+        if (start.isAfter(current.start)) {
+            current = rollOver(start);
+        }
+        if (start.equals(current.start)) {
+            current.boards.get(difficulty).offer(entry);
+        }
+    }
+
+    // началась новая неделя: недельные таблицы начинаются с нуля
+    private synchronized Week rollOver(LocalDate start) {
+        Week current = week;
+        if (start.isAfter(current.start)) {
+            current = new Week(start, size);
+            week = current;
+        }
+        return current;
+    }
+
+    private void scan() {
+        long startedAt = System.nanoTime();
+        long after = Math.max(0, lastScannedId - rescanWindow);
+        int rows = 0;
+        try {
+            List<SolvedResult> page;
+            do {
+                page = gameResultRepository.findSolvedAfter(after, Limit.of(scanPageSize));
+                for (SolvedResult result : page) {
+                    offer(result.difficulty(), result.toEntry());
+                    after = result.id();
+                }
+                rows += page.size();
+                lastScannedId = Math.max(lastScannedId, after);
+            } while (page.size() == scanPageSize);
+        } catch (RuntimeException e) {
+            log.warn("Проход по результатам игр для таблицы лидеров прерван на id {}: {}", after, e.getMessage());
+            return;
+        } finally {
+            scanTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        if (!restored) {
+            restored = true;
+            log.info("Таблица лидеров восстановлена из {} результатов за {} мс", rows,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+    }
+
+    static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Недельные таблицы всех уровней сложности.
+     */
+    private static final class Week {
+        final LocalDate start;
+        final Map<Difficulty, TopK> boards = new EnumMap<>(Difficulty.class);
+
+        Week(LocalDate start, int size) {
+            this.start = start;
+            for (Difficulty difficulty : RANKED) {
+                boards.put(difficulty, new TopK(size));
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.sudoku.game.leaderboard;
+
+import java.time.LocalDateTime;
+
+/**
+ * Решённая игра в таблице лидеров.
+ *
+ * @param completionTime время решения в секундах
+ */
+public record LeaderboardEntry(long userId, long completionTime, int score, LocalDateTime completedAt) {
+}
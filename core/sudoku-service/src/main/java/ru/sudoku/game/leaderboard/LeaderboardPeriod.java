@@ -0,0 +1,9 @@
+package ru.sudoku.game.leaderboard;
+
+/**
+ * Период, за который строится таблица лидеров.
+ */
+public enum LeaderboardPeriod {
+    WEEK,     // текущая неделя с понедельника
+    ALL_TIME
+}
@@ -0,0 +1,14 @@
+package ru.sudoku.game.leaderboard;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка {@code game_results} решённой игры — только столбцы, нужные таблице лидеров.
+ */
+public record SolvedResult(long id, long userId, String difficulty, LocalDateTime completedAt,
+                           long completionTime, int score) {
+
+    LeaderboardEntry toEntry() {
+        return new LeaderboardEntry(userId, completionTime, score, completedAt);
+    }
+}
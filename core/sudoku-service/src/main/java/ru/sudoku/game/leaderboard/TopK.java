@@ -0,0 +1,82 @@
+package ru.sudoku.game.leaderboard;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ограниченная отсортированная таблица: не больше {@code capacity} лучших результатов,
+ * по одному на пользователя.
+ *
+ * <p>Запись идёт под блокировкой таблицы, чтение — без блокировок: после каждого изменения
+ * публикуется неизменяемый снимок. Результат хуже последнего в заполненной таблице
+ * отбрасывается по снимку, не заходя в блокировку, — так отсекается почти весь поток
+ * результатов.</p>
+ */
+final class TopK {
+    // быстрее лучше, при равном времени — больше очков, затем — кто решил раньше
+    static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingLong(LeaderboardEntry::completionTime)
+            .thenComparing(Comparator.comparingInt(LeaderboardEntry::score).reversed())
+            .thenComparing(LeaderboardEntry::completedAt);
+
+    private final LeaderboardEntry[] entries;
+    private int size;
+    private volatile List<LeaderboardEntry> snapshot = List.of();
+
+    TopK(int capacity) {
+        entries = new LeaderboardEntry[capacity];
+    }
+
+    /**
+     * @return {@code true}, если таблица изменилась
+     */
+    boolean offer(LeaderboardEntry entry) {
+        List<LeaderboardEntry> current = snapshot;
+        if (current.size() == entries.length && ORDER.compare(entry, current.get(entries.length - 1)) >= 0) {
+            return false;
+        }
+        synchronized (this) {
+            int existing = indexOfUser(entry.userId());
+            if (existing >= 0) {
+                // у пользователя в таблице только лучший результат
+                if (ORDER.compare(entry, entries[existing]) >= 0) {
+                    return false;
+                }
+                removeAt(existing);
+            } else if (size == entries.length) {
+                if (ORDER.compare(entry, entries[size - 1]) >= 0) {
+                    return false;
+                }
+                size--;
+            }
+            int pos = Arrays.binarySearch(entries, 0, size, entry, ORDER);
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            System.arraycopy(entries, pos, entries, pos + 1, size - pos);
+            entries[pos] = entry;
+            size++;
+            snapshot = List.of(Arrays.copyOf(entries, size));
+            return true;
+        }
+    }
+
+    List<LeaderboardEntry> entries() {
+        return snapshot;
+    }
+
+    private int indexOfUser(long userId) {
+        for (int i = 0; i < size; i++) {
+            if (entries[i].userId() == userId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int i) {
+        System.arraycopy(entries, i + 1, entries, i, size - i - 1);
+        entries[--size] = null;
+    }
+}
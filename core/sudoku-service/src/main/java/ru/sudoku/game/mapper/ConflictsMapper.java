@@ -0,0 +1,30 @@
+package ru.sudoku.game.mapper;
+
+import org.mapstruct.Mapper;
+import ru.sudoku.game.dto.ConflictsDto;
+import ru.sudoku.game.model.PackedBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Mapper(componentModel = "spring")
+public interface ConflictsMapper {
+
+    // conflicts — маска из BoardState.conflicts(): по 4 бита на строки, столбцы и блоки
+    default ConflictsDto toDto(int conflicts) {
+        return new ConflictsDto(
+                indices(conflicts, 0),
+                indices(conflicts, PackedBoard.SIZE),
+                indices(conflicts, 2 * PackedBoard.SIZE));
+    }
+
+    private static List<Integer> indices(int conflicts, int shift) {
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < PackedBoard.SIZE; i++) {
+            if ((conflicts & (1 << (shift + i))) != 0) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+}
@@ -1,21 +1,46 @@
 package ru.sudoku.game.mapper;
 
 import org.mapstruct.Mapper;
+import ru.sudoku.game.dto.PuzzleDto;
 import ru.sudoku.game.dto.SudokuCellDto;
-import ru.sudoku.game.model.SudokuCell;
+import ru.sudoku.game.model.BoardState;
+import ru.sudoku.game.model.GridPuzzle;
+import ru.sudoku.game.model.GridSize;
+import ru.sudoku.game.model.PackedBoard;
 
 @Mapper(componentModel = "spring")
 public interface SudokuCellMapper {
 
-    default SudokuCellDto[][] toDto(SudokuCell[][] cells) {
-        if (cells == null) return null;
-        SudokuCellDto[][] dto = new SudokuCellDto[cells.length][cells[0].length];
-        for (int i = 0; i < cells.length; i++) {
-            for (int j = 0; j < cells[i].length; j++) {
-                SudokuCell cell = cells[i][j];
-                dto[i][j] = new SudokuCellDto(cell.getValue(), cell.isFixed());
+    default SudokuCellDto[][] toDto(long board) {
+        return toDto(board, 0L);
+    }
+
+    default SudokuCellDto[][] toDto(BoardState state) {
+        return toDto(state.cells(), state.notes());
+    }
+
+    default SudokuCellDto[][] toDto(long board, long notes) {
+        SudokuCellDto[][] dto = new SudokuCellDto[PackedBoard.SIZE][PackedBoard.SIZE];
+        for (int i = 0; i < PackedBoard.SIZE; i++) {
+            for (int j = 0; j < PackedBoard.SIZE; j++) {
+                int idx = i * PackedBoard.SIZE + j;
+                dto[i][j] = new SudokuCellDto(PackedBoard.value(board, idx), PackedBoard.isFixed(board, idx),
+                        PackedBoard.notes(notes, idx));
             }
         }
         return dto;
     }
+
+    default PuzzleDto toDto(GridPuzzle puzzle) {
+        GridSize size = puzzle.size();
+        int n = size.size();
+        SudokuCellDto[][] board = new SudokuCellDto[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int value = puzzle.board()[i * n + j];
+                board[i][j] = new SudokuCellDto(value, value != 0);
+            }
+        }
+        return new PuzzleDto(n, size.boxRows(), size.boxCols(), board);
+    }
 }
@@ -0,0 +1,223 @@
+package ru.sudoku.game.model;
+
+import ru.sudoku.game.exception.InvalidMoveException;
+
+/**
+ * Неизменяемый снимок игры: упакованная доска и поддерживаемые инкрементально ограничения.
+ *
+ * <p>{@code units} хранит маски занятости для 12 групп (4 строки, 4 столбца, 4 блока 2x2):
+ * <ul>
+ *   <li>биты {@code [unit * 4, unit * 4 + 3]} — какие числа 1–4 встречаются в группе
+ *   (строки — группы 0–3, столбцы — 4–7, блоки — 8–11);</li>
+ *   <li>бит {@code 48 + unit} — в группе есть повторяющееся число.</li>
+ * </ul>
+ * {@code filled} — число заполненных ячеек, {@code version} — номер хода, увеличивается при
+ * каждом изменении доски. При изменении ячейки пересчитываются только три
+ * группы, в которые она входит, поэтому {@link #isFull()} и {@link #isSolved()} сводятся
+ * к паре сравнений целых чисел без аллокаций.</p>
+ *
+ * <p>{@code notes} — заметки пользователя в формате {@link PackedBoard#notes}. Заметки меняются
+ * только арифметикой масок: число, поставленное в ячейку, снимается с заметок её соседей
+ * сдвигом заранее посчитанной маски соседей, а все заметки, противоречащие доске, снимаются
+ * двенадцатью умножениями маски группы на маску её чисел. Заметки не меняют {@code version}:
+ * версия считает ходы.</p>
+ *
+ * @param cells   доска в формате {@link PackedBoard}
+ * @param units   маски групп и флаги конфликтов
+ * @param filled  число заполненных ячеек
+ * @param version версия доски, 0 для новой игры
+ * @param notes   заметки ячеек
+ */
+public record BoardState(long cells, long units, int filled, int version, long notes) {
+    public static final int UNITS = 3 * PackedBoard.SIZE;
+
+    private static final int VALUES_MASK = (1 << PackedBoard.SIZE) - 1;
+    private static final int CONFLICT_SHIFT = UNITS * PackedBoard.SIZE;
+    private static final long ALL_UNITS_COMPLETE = (1L << CONFLICT_SHIFT) - 1;
+    private static final int CONFLICT_FLAG = 1 << PackedBoard.SIZE;
+
+    // ячейки каждой группы и группы каждой ячейки: строка, столбец, блок
+    private static final int[][] UNIT_CELLS = new int[UNITS][PackedBoard.SIZE];
+    private static final int[][] CELL_UNITS = new int[PackedBoard.CELLS][3];
+    // флаги конфликтов групп, в которые входит ячейка
+    private static final long[] CELL_CONFLICT_MASK = new long[PackedBoard.CELLS];
+    // младший бит заметок каждой ячейки группы (бит idx * 4): умножение на маску чисел 0–15
+    // раскладывает её по всем ячейкам группы, полубайты не пересекаются и переносов нет
+    private static final long[] UNIT_NOTES = new long[UNITS];
+    // то же для соседей ячейки — ячеек её строки, столбца и блока, кроме неё самой
+    private static final long[] PEER_NOTES = new long[PackedBoard.CELLS];
+    private static final long CELL_NOTES = (1L << PackedBoard.SIZE) - 1;
+
+    static {
+        int size = PackedBoard.SIZE;
+        int blockSize = PackedBoard.BLOCK_SIZE;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int idx = r * size + c;
+                int box = (r / blockSize) * blockSize + c / blockSize;
+                int inBox = (r % blockSize) * blockSize + c % blockSize;
+                UNIT_CELLS[r][c] = idx;
+                UNIT_CELLS[size + c][r] = idx;
+                UNIT_CELLS[2 * size + box][inBox] = idx;
+                CELL_UNITS[idx][0] = r;
+                CELL_UNITS[idx][1] = size + c;
+                CELL_UNITS[idx][2] = 2 * size + box;
+            }
+        }
+        for (int idx = 0; idx < PackedBoard.CELLS; idx++) {
+            for (int unit : CELL_UNITS[idx]) {
+                CELL_CONFLICT_MASK[idx] |= 1L << (CONFLICT_SHIFT + unit);
+                for (int peer : UNIT_CELLS[unit]) {
+                    UNIT_NOTES[unit] |= 1L << (peer * size);
+                    if (peer != idx) {
+                        PEER_NOTES[idx] |= 1L << (peer * size);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Строит снимок для доски, полностью рассчитывая маски групп.
+     *
+     * @param cells доска в формате {@link PackedBoard}
+     * @return снимок с рассчитанными ограничениями
+     */
+    public static BoardState of(long cells) {
+        return of(cells, 0);
+    }
+
+    /**
+     * Строит снимок для доски с заданной версией, например при восстановлении из журнала.
+     */
+    public static BoardState of(long cells, int version) {
+        return of(cells, version, 0L);
+    }
+
+    /**
+     * Строит снимок для доски с заданной версией и заметками в формате {@link PackedBoard#notes}.
+     */
+    public static BoardState of(long cells, int version, long notes) {
+        long units = 0L;
+        for (int unit = 0; unit < UNITS; unit++) {
+            units = withUnit(units, unit, unitMask(cells, unit));
+        }
+        int filled = 0;
+        for (int idx = 0; idx < PackedBoard.CELLS; idx++) {
+            if (PackedBoard.value(cells, idx) != 0) {
+                filled++;
+            }
+        }
+        return new BoardState(cells, units, filled, version, notes);
+    }
+
+    /**
+     * Возвращает снимок с новым значением ячейки, пересчитывая только её строку, столбец и блок.
+     * Заметки ячейки снимаются, а поставленное число снимается с заметок её соседей.
+     *
+     * @param idx   индекс ячейки {@code row * 4 + col}
+     * @param value новое значение 0–4
+     * @return новый снимок
+     */
+    public BoardState withValue(int idx, int value) {
+        int old = PackedBoard.value(cells, idx);
+        long newCells = PackedBoard.withValue(cells, idx, value);
+        long newUnits = units;
+        for (int unit : CELL_UNITS[idx]) {
+            newUnits = withUnit(newUnits, unit, unitMask(newCells, unit));
+        }
+        int newFilled = filled + (value != 0 ? 1 : 0) - (old != 0 ? 1 : 0);
+        long newNotes = value == 0 ? notes
+                : notes & ~(CELL_NOTES << (idx * PackedBoard.SIZE)) & ~(PEER_NOTES[idx] << (value - 1));
+        return new BoardState(newCells, newUnits, newFilled, version + 1, newNotes);
+    }
+
+    /**
+     * Возвращает снимок, в котором заметка {@code value} в ячейке {@code idx} переключена.
+     * Проверка, что ячейка пуста и не фиксирована, остаётся за вызывающим кодом.
+     *
+     * @param value число 1–4
+     */
+    public BoardState withNoteToggled(int idx, int value) {
+        if (value < 1 || value > PackedBoard.SIZE) {
+            throw new InvalidMoveException("Недопустимое число заметки: " + value);
+        }
+        return new BoardState(cells, units, filled, version, notes ^ (1L << (idx * PackedBoard.SIZE + value - 1)));
+    }
+
+    /**
+     * Возвращает снимок без заметок, противоречащих доске: из заметок каждой ячейки снимаются
+     * числа, уже стоящие в её строке, столбце или блоке.
+     */
+    public BoardState withNotesEliminated() {
+        long taken = 0L;
+        for (int unit = 0; unit < UNITS; unit++) {
+            taken |= UNIT_NOTES[unit] * ((units >>> (unit * PackedBoard.SIZE)) & VALUES_MASK);
+        }
+        long newNotes = notes & ~taken;
+        return newNotes == notes ? this : new BoardState(cells, units, filled, version, newNotes);
+    }
+
+    /**
+     * @return маска заметок ячейки: бит {@code value - 1} для каждого отмеченного числа
+     */
+    public int notes(int idx) {
+        return PackedBoard.notes(notes, idx);
+    }
+
+    public int value(int idx) {
+        return PackedBoard.value(cells, idx);
+    }
+
+    public boolean isFixed(int idx) {
+        return PackedBoard.isFixed(cells, idx);
+    }
+
+    public boolean isFull() {
+        return filled == PackedBoard.CELLS;
+    }
+
+    /**
+     * Доска решена, если заполнены все ячейки и в каждой группе есть все числа 1–4
+     * (при четырёх ячейках в группе это исключает повторы).
+     */
+    public boolean isSolved() {
+        return isFull() && (units & ALL_UNITS_COMPLETE) == ALL_UNITS_COMPLETE;
+    }
+
+    /**
+     * @return 12-битная маска групп с повторяющимися числами: биты 0–3 — строки,
+     * 4–7 — столбцы, 8–11 — блоки
+     */
+    public int conflicts() {
+        return (int) (units >>> CONFLICT_SHIFT);
+    }
+
+    /**
+     * @return {@code true}, если в строке, столбце или блоке ячейки есть повторяющееся число
+     */
+    public boolean conflictsAt(int idx) {
+        return (units & CELL_CONFLICT_MASK[idx]) != 0;
+    }
+
+    private static int unitMask(long cells, int unit) {
+        int mask = 0;
+        boolean conflict = false;
+        for (int idx : UNIT_CELLS[unit]) {
+            int value = PackedBoard.value(cells, idx);
+            if (value != 0) {
+                int bit = 1 << (value - 1);
+                conflict |= (mask & bit) != 0;
+                mask |= bit;
+            }
+        }
+        return conflict ? mask | CONFLICT_FLAG : mask;
+    }
+
+    private static long withUnit(long units, int unit, int mask) {
+        int shift = unit * PackedBoard.SIZE;
+        long cleared = units & ~((long) VALUES_MASK << shift) & ~(1L << (CONFLICT_SHIFT + unit));
+        long conflict = (mask & CONFLICT_FLAG) != 0 ? 1L << (CONFLICT_SHIFT + unit) : 0L;
+        return cleared | ((long) (mask & VALUES_MASK) << shift) | conflict;
+    }
+}
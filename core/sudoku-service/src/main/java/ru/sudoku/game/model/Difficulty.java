@@ -0,0 +1,42 @@
+package ru.sudoku.game.model;
+
+/**
+ * Уровни сложности, которые предлагает бот: число пустых клеток и самый сложный приём
+ * {@link SolvingTechnique}, который должна потребовать головоломка. Одного числа пустых клеток
+ * мало: головоломка 4x4 с 8 пустыми клетками бывает решаема одними последними клетками групп,
+ * а бывает, что без hidden single не обойтись.
+ */
+public enum Difficulty {
+    EASY(3, SolvingTechnique.FULL_HOUSE),
+    MEDIUM(6, SolvingTechnique.FULL_HOUSE),
+    HARD(8, SolvingTechnique.HIDDEN_SINGLE),
+    CUSTOM(-1, null); // любое другое число пустых клеток, приём не проверяется
+
+    private final int blanks;
+    private final SolvingTechnique technique;
+
+    Difficulty(int blanks, SolvingTechnique technique) {
+        this.blanks = blanks;
+        this.technique = technique;
+    }
+
+    public int getBlanks() {
+        return blanks;
+    }
+
+    /**
+     * @return приём, который должен оказаться самым сложным при решении, или {@code null} для {@link #CUSTOM}
+     */
+    public SolvingTechnique getTechnique() {
+        return technique;
+    }
+
+    public static Difficulty fromBlanks(int blanks) {
+        for (Difficulty difficulty : values()) {
+            if (difficulty.blanks == blanks) {
+                return difficulty;
+            }
+        }
+        return CUSTOM;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.sudoku.game.model;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Живая игра одного пользователя: идентификатор чата, текущий снимок доски, решение
+ * головоломки и данные для итогового {@link GameResult}.
+ *
+ * <p>Снимок {@link BoardState} неизменяем и заменяется только через compare-and-set
+ * у {@link #getState()}, поэтому объект можно свободно разделять между потоками.
+ * История ходов {@link MoveLog} синхронизирована сама.</p>
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class Game {
+    long chatId;
+    // игрок, которому засчитывается результат; в личном чате с ботом совпадает с chatId
+    long userId;
+    int blanks;
+    // решение в формате PackedBoard#solutionOf; NO_SOLUTION у игр, восстановленных из старого журнала
+    int solution;
+    LocalDateTime startedAt;
+    AtomicReference<BoardState> state;
+    AtomicInteger mistakes = new AtomicInteger();
+    AtomicBoolean finished = new AtomicBoolean();
+    // неверно заполненная доска уже попала в метрику failed; после перезапуска не восстанавливается
+    AtomicBoolean failedCounted = new AtomicBoolean();
+    // ходы для отмены и повтора; не восстанавливаются из журнала
+    MoveLog moveLog = new MoveLog();
+
+    public Game(long chatId, int blanks, int solution, BoardState initial) {
+        this(chatId, chatId, blanks, solution, initial);
+    }
+
+    public Game(long chatId, long userId, int blanks, int solution, BoardState initial) {
+        this(chatId, userId, blanks, solution, LocalDateTime.now(), initial, 0, false);
+    }
+
+    /**
+     * Восстанавливает игру из журнала или снимка.
+     */
+    public Game(long chatId, long userId, int blanks, int solution, LocalDateTime startedAt, BoardState state,
+                int mistakes, boolean finished) {
+        this.chatId = chatId;
+        this.userId = userId;
+        this.blanks = blanks;
+        this.solution = solution;
+        this.startedAt = startedAt;
+        this.state = new AtomicReference<>(state);
+        this.mistakes.set(mistakes);
+        this.finished.set(finished);
+    }
+
+    public boolean hasSolution() {
+        return solution != PackedBoard.NO_SOLUTION;
+    }
+
+    /**
+     * @return значение 1–4 ячейки {@code idx} в решении; только для игр с {@link #hasSolution()}
+     */
+    public int solutionValue(int idx) {
+        return PackedBoard.solutionValue(solution, idx);
+    }
+
+    /**
+     * Отмечает игру завершённой.
+     *
+     * @return {@code true} только для первого вызова, чтобы результат записывался один раз
+     */
+    public boolean finish() {
+        return finished.compareAndSet(false, true);
+    }
+
+    /**
+     * Отмечает, что доска игры была заполнена неверно.
+     *
+     * @return {@code true} только для первого вызова, чтобы неудача считалась один раз за игру
+     */
+    public boolean markFailed() {
+        return failedCounted.compareAndSet(false, true);
+    }
+}
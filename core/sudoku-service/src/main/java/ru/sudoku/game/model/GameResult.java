@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -21,7 +22,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class GameResult {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // последовательность с шагом 50 позволяет Hibernate вставлять результаты JDBC-батчами,
+    // IDENTITY отключает батчинг вставок
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_results_seq")
+    @SequenceGenerator(name = "game_results_seq", sequenceName = "game_results_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id")
@@ -0,0 +1,35 @@
+package ru.sudoku.game.model;
+
+/**
+ * Головоломка произвольного размера вместе с решением. Доски лежат построчно,
+ * ячейка {@code row * N + col}; 0 — пустая ячейка, 1–N — число.
+ *
+ * @param size     размер доски
+ * @param board    головоломка: ненулевые числа фиксированы
+ * @param solution заполненная доска, из которой получена головоломка
+ */
+public record GridPuzzle(GridSize size, int[] board, int[] solution) {
+
+    /**
+     * Та же головоломка 4x4 из упакованного формата.
+     */
+    public static GridPuzzle of(Puzzle puzzle) {
+        int[] board = new int[PackedBoard.CELLS];
+        int[] solution = new int[PackedBoard.CELLS];
+        for (int idx = 0; idx < PackedBoard.CELLS; idx++) {
+            board[idx] = PackedBoard.value(puzzle.board(), idx);
+            solution[idx] = PackedBoard.solutionValue(puzzle.solution(), idx);
+        }
+        return new GridPuzzle(GridSize.FOUR, board, solution);
+    }
+
+    public int blanks() {
+        int blanks = 0;
+        for (int value : board) {
+            if (value == 0) {
+                blanks++;
+            }
+        }
+        return blanks;
+    }
+}
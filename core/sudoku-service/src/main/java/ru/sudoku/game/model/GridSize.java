@@ -0,0 +1,52 @@
+package ru.sudoku.game.model;
+
+import ru.sudoku.game.exception.UnsupportedBoardSizeException;
+
+/**
+ * Поддерживаемые размеры досок и раскладка их блоков: доска {@code N x N} делится на блоки
+ * {@code boxRows x boxCols}, {@code N = boxRows * boxCols}. Живые игры хранятся в
+ * {@link PackedBoard} и пока бывают только 4x4, остальные размеры выдаёт генератор головоломок.
+ */
+public enum GridSize {
+    FOUR(2, 2),
+    SIX(2, 3),
+    NINE(3, 3),
+    SIXTEEN(4, 4);
+
+    private final int boxRows;
+    private final int boxCols;
+
+    GridSize(int boxRows, int boxCols) {
+        this.boxRows = boxRows;
+        this.boxCols = boxCols;
+    }
+
+    public int size() {
+        return boxRows * boxCols;
+    }
+
+    public int cells() {
+        return size() * size();
+    }
+
+    public int boxRows() {
+        return boxRows;
+    }
+
+    public int boxCols() {
+        return boxCols;
+    }
+
+    /**
+     * @param size сторона доски: 4, 6, 9 или 16
+     * @throws UnsupportedBoardSizeException для других размеров
+     */
+    public static GridSize of(int size) {
+        for (GridSize gridSize : values()) {
+            if (gridSize.size() == size) {
+                return gridSize;
+            }
+        }
+        throw new UnsupportedBoardSizeException(size);
+    }
+}
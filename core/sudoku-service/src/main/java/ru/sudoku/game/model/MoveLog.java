@@ -0,0 +1,88 @@
+package ru.sudoku.game.model;
+
+import java.util.Arrays;
+
+/**
+ * История ходов игры для отмены и повтора: кольцевой буфер ходов, закодированных в {@code int}.
+ *
+ * <p>Ход — индекс ячейки и её значения до и после: биты 16–31 — индекс, 8–15 — старое значение,
+ * 0–7 — новое. Буфер хранит не больше {@link #CAPACITY} ходов, при переполнении самый старый
+ * ход забывается. Массив растёт удвоением от {@value #INITIAL} ходов, поэтому короткая игра
+ * занимает несколько десятков байт, а самая длинная история — {@code 4 * CAPACITY} байт. История
+ * живёт в {@link Game} и удаляется вместе с ней; в журнал она не пишется.</p>
+ *
+ * <p>Новый ход после отмены стирает отменённые ходы, которые ещё можно было повторить.
+ * Методы синхронизированы на самом буфере.</p>
+ */
+public final class MoveLog {
+    public static final int CAPACITY = 64;
+    public static final int NONE = -1;
+
+    private static final int INITIAL = 8;
+    private static final int[] EMPTY = new int[0];
+
+    private int[] moves = EMPTY;
+    private int head;    // позиция самого старого хода
+    private int applied; // ходы, которые можно отменить
+    private int size;    // они же и отменённые ходы, которые можно повторить
+
+    public static int encode(int idx, int oldValue, int newValue) {
+        return idx << 16 | oldValue << 8 | newValue;
+    }
+
+    public static int index(int move) {
+        return move >>> 16;
+    }
+
+    public static int oldValue(int move) {
+        return (move >>> 8) & 0xFF;
+    }
+
+    public static int newValue(int move) {
+        return move & 0xFF;
+    }
+
+    public synchronized void record(int idx, int oldValue, int newValue) {
+        size = applied;
+        if (size == moves.length) {
+            if (moves.length < CAPACITY) {
+                // пока буфер не заполнен, head == 0 и ходы лежат подряд
+                moves = Arrays.copyOf(moves, Math.max(INITIAL, Math.min(moves.length * 2, CAPACITY)));
+            } else {
+                head = (head + 1) % CAPACITY;
+                size--;
+            }
+        }
+        moves[(head + size) % moves.length] = encode(idx, oldValue, newValue);
+        applied = ++size;
+    }
+
+    /**
+     * @return последний применённый ход или {@link #NONE}; ход становится доступен для {@link #redo()}
+     */
+    public synchronized int undo() {
+        if (applied == 0) {
+            return NONE;
+        }
+        applied--;
+        return moves[(head + applied) % moves.length];
+    }
+
+    /**
+     * @return последний отменённый ход или {@link #NONE}
+     */
+    public synchronized int redo() {
+        if (applied == size) {
+            return NONE;
+        }
+        return moves[(head + applied++) % moves.length];
+    }
+
+    public synchronized boolean canUndo() {
+        return applied > 0;
+    }
+
+    public synchronized boolean canRedo() {
+        return applied < size;
+    }
+}
@@ -0,0 +1,142 @@
+package ru.sudoku.game.model;
+
+import ru.sudoku.game.exception.InvalidMoveException;
+
+/**
+ * Упакованное представление доски Судоку 4x4 в одном {@code long}.
+ *
+ * <p>Раскладка битов:
+ * <ul>
+ *   <li>биты 0–47 — значения 16 ячеек, по 3 бита на ячейку (0 — пусто, 1–4 — число),
+ *   ячейка с индексом {@code row * 4 + col} занимает биты {@code [idx * 3, idx * 3 + 2]};</li>
+ *   <li>биты 48–63 — маска фиксированных ячеек, бит {@code 48 + idx} выставлен,
+ *   если число в ячейке сгенерировано и не может быть изменено.</li>
+ * </ul>
+ * Доска — неизменяемое значение: все «изменяющие» методы возвращают новый {@code long},
+ * поэтому его можно безопасно хранить в {@link java.util.concurrent.atomic.AtomicLong}
+ * и обновлять через compare-and-set.</p>
+ *
+ * <p>Решение головоломки хранится отдельно в {@code int}: по 2 бита на ячейку, значение
+ * {@code value - 1}, ячейка {@code idx} занимает биты {@code [idx * 2, idx * 2 + 1]}.
+ * Ноль соответствует доске из одних единиц, которая не бывает решением, поэтому
+ * {@link #NO_SOLUTION} означает «решение неизвестно».</p>
+ *
+ * <p>Заметки (кандидаты) тоже хранятся отдельно, в {@code long}: по {@link #SIZE} бит на ячейку,
+ * бит {@code idx * 4 + value - 1} выставлен, если число {@code value} отмечено в ячейке {@code idx}.</p>
+ */
+public final class PackedBoard {
+    public static final int SIZE = 4;
+    public static final int BLOCK_SIZE = 2;
+    public static final int CELLS = SIZE * SIZE;
+    public static final int NO_SOLUTION = 0;
+
+    private static final int BITS_PER_CELL = 3;
+    private static final long CELL_MASK = (1L << BITS_PER_CELL) - 1;
+    private static final int FIXED_SHIFT = CELLS * BITS_PER_CELL;
+    private static final int BITS_PER_SOLUTION_CELL = 2;
+    private static final int SOLUTION_CELL_MASK = (1 << BITS_PER_SOLUTION_CELL) - 1;
+    private static final int NOTES_CELL_MASK = (1 << SIZE) - 1;
+
+    private PackedBoard() {
+    }
+
+    /**
+     * Упаковывает сгенерированную доску: все ненулевые числа считаются фиксированными.
+     *
+     * @param board двумерный массив 4x4 со значениями 0–4
+     * @return упакованная доска
+     */
+    public static long of(int[][] board) {
+        long packed = 0L;
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                int value = board[r][c];
+                checkValue(value);
+                int idx = index(r, c);
+                packed |= (long) value << (idx * BITS_PER_CELL);
+                if (value != 0) {
+                    packed |= 1L << (FIXED_SHIFT + idx);
+                }
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * Упаковывает полностью заполненную доску как решение.
+     *
+     * @param solved двумерный массив 4x4 со значениями 1–4
+     * @return упакованное решение
+     */
+    public static int solutionOf(int[][] solved) {
+        int packed = 0;
+        for (int r = 0; r < SIZE; r++) {
+            for (int c = 0; c < SIZE; c++) {
+                int value = solved[r][c];
+                if (value < 1 || value > SIZE) {
+                    throw new IllegalArgumentException("Решение не заполнено: [" + r + "][" + c + "] = " + value);
+                }
+                packed |= (value - 1) << (index(r, c) * BITS_PER_SOLUTION_CELL);
+            }
+        }
+        return packed;
+    }
+
+    /**
+     * @return значение 1–4 ячейки {@code idx} в упакованном решении
+     */
+    public static int solutionValue(int solution, int idx) {
+        return ((solution >>> (idx * BITS_PER_SOLUTION_CELL)) & SOLUTION_CELL_MASK) + 1;
+    }
+
+    /**
+     * @return маска заметок ячейки {@code idx}: бит {@code value - 1} для каждого отмеченного числа
+     */
+    public static int notes(long notes, int idx) {
+        return (int) (notes >>> (idx * SIZE)) & NOTES_CELL_MASK;
+    }
+
+    public static int index(int row, int col) {
+        if (row < 0 || row >= SIZE || col < 0 || col >= SIZE) {
+            throw new InvalidMoveException("Ячейка вне доски: [" + row + "][" + col + "]");
+        }
+        return row * SIZE + col;
+    }
+
+    public static int value(long board, int idx) {
+        return (int) ((board >>> (idx * BITS_PER_CELL)) & CELL_MASK);
+    }
+
+    public static int value(long board, int row, int col) {
+        return value(board, index(row, col));
+    }
+
+    public static boolean isFixed(long board, int idx) {
+        return (board & (1L << (FIXED_SHIFT + idx))) != 0;
+    }
+
+    public static boolean isFixed(long board, int row, int col) {
+        return isFixed(board, index(row, col));
+    }
+
+    /**
+     * Возвращает доску с новым значением ячейки. Маска фиксированных ячеек не меняется,
+     * проверка на фиксированность остаётся за вызывающим кодом.
+     *
+     * @param board исходная доска
+     * @param idx   индекс ячейки {@code row * 4 + col}
+     * @param value новое значение 0–4
+     * @return новая упакованная доска
+     */
+    public static long withValue(long board, int idx, int value) {
+        checkValue(value);
+        int shift = idx * BITS_PER_CELL;
+        return (board & ~(CELL_MASK << shift)) | ((long) value << shift);
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0 || value > SIZE) {
+            throw new InvalidMoveException("Недопустимое значение ячейки: " + value);
+        }
+    }
+}
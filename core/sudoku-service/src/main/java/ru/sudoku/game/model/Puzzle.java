@@ -0,0 +1,10 @@
+package ru.sudoku.game.model;
+
+/**
+ * Сгенерированная головоломка вместе с решением, из которого она получена.
+ *
+ * @param board    доска в формате {@link PackedBoard}
+ * @param solution решение в формате {@link PackedBoard#solutionOf}
+ */
+public record Puzzle(long board, int solution) {
+}
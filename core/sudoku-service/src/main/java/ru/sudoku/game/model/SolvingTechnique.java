@@ -0,0 +1,30 @@
+package ru.sudoku.game.model;
+
+/**
+ * Самый сложный приём, без которого головоломку не решить, — мера её сложности помимо
+ * числа пустых клеток. Приёмы перечислены по возрастанию сложности, как в распространённых
+ * оценщиках судоку: последняя клетка группы видна сразу, hidden single требует просмотреть
+ * одну группу, naked single — сопоставить строку, столбец и блок клетки.
+ */
+public enum SolvingTechnique {
+    /**
+     * Клетка — последняя пустая в строке, столбце или блоке (full house).
+     */
+    FULL_HOUSE,
+    /**
+     * Число может встать только в одну клетку строки, столбца или блока (hidden single).
+     */
+    HIDDEN_SINGLE,
+    /**
+     * В клетке осталось одно возможное число с учётом строки, столбца и блока (naked single).
+     */
+    NAKED_SINGLE,
+    /**
+     * Одиночек не хватает: решение требует перебора.
+     */
+    GUESS;
+
+    public boolean harderThan(SolvingTechnique other) {
+        return compareTo(other) > 0;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.sudoku.game.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.sudoku.game.leaderboard.SolvedResult;
+import ru.sudoku.game.model.GameResult;
+
+import java.util.List;
+
+public interface GameResultRepository extends JpaRepository<GameResult, Long> {
+
+    /**
+     * Страница решённых игр с {@code id} больше {@code afterId}, по возрастанию {@code id}.
+     * Следующая страница запрашивается с {@code id} последней строки (keyset), поэтому
+     * каждая страница — поиск по первичному ключу, а не OFFSET.
+     */
+    @Query("select new ru.sudoku.game.leaderboard.SolvedResult(r.id, r.userId, r.difficulty, r.completedAt, "
+            + "r.completionTime, r.score) from GameResult r "
+            + "where r.id > :afterId and r.completedAt is not null and r.completionTime is not null "
+            + "order by r.id")
+    List<SolvedResult> findSolvedAfter(@Param("afterId") long afterId, Limit limit);
+}
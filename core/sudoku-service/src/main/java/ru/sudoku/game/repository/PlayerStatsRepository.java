@@ -0,0 +1,166 @@
+package ru.sudoku.game.repository;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import ru.sudoku.game.stats.PlayerStats;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Таблица {@code player_stats}: суммы по игроку и уровню сложности.
+ *
+ * <p>Статистика только прибавляется: {@code INSERT ... ON CONFLICT DO UPDATE} складывает
+ * приращение с текущей строкой атомарно в базе, поэтому записи с разных экземпляров не
+ * теряют друг друга. Запрос через {@link JdbcTemplate}: Spring Data не умеет ни upsert,
+ * ни JDBC-батч для изменяющих запросов.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PlayerStatsRepository {
+    static final String INCREMENT = """
+            INSERT INTO player_stats (user_id, difficulty, games_played, games_solved, total_time, best_time, total_mistakes)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, difficulty) DO UPDATE SET
+                games_played = player_stats.games_played + EXCLUDED.games_played,
+                games_solved = player_stats.games_solved + EXCLUDED.games_solved,
+                total_time = player_stats.total_time + EXCLUDED.total_time,
+                best_time = LEAST(player_stats.best_time, EXCLUDED.best_time),
+                total_mistakes = player_stats.total_mistakes + EXCLUDED.total_mistakes
+            """;
+    static final int[] INCREMENT_TYPES = {Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.INTEGER,
+            Types.BIGINT, Types.BIGINT, Types.BIGINT};
+    static final String FIND_BY_USER = """
+            SELECT difficulty, games_played, games_solved, total_time, best_time, total_mistakes
+            FROM player_stats WHERE user_id = ?
+            """;
+    // курсор по всем результатам, сгруппированным по игроку: суммы считаются на лету
+    static final String SCAN_RESULTS = """
+            SELECT user_id, difficulty, completed_at IS NOT NULL AND completion_time IS NOT NULL AS solved,
+                   completion_time, mistakes_count
+            FROM game_results
+            WHERE user_id IS NOT NULL AND difficulty IS NOT NULL
+            ORDER BY user_id, difficulty
+            """;
+
+    JdbcTemplate jdbcTemplate;
+
+    /**
+     * Прибавляет приращения одним JDBC-батчем. Вызывается в транзакции записи результатов.
+     */
+    public void increment(Map<Long, Map<String, PlayerStats>> deltas) {
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((userId, byDifficulty) -> byDifficulty.forEach((difficulty, stats) ->
+                rows.add(row(userId, difficulty, stats))));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INCREMENT, rows, INCREMENT_TYPES);
+        }
+    }
+
+    public Map<String, PlayerStats> findByUserId(long userId) {
+        Map<String, PlayerStats> stats = new HashMap<>();
+        jdbcTemplate.query(FIND_BY_USER, (RowCallbackHandler) rs -> stats.put(rs.getString("difficulty"),
+                new PlayerStats(rs.getInt("games_played"), rs.getInt("games_solved"), rs.getLong("total_time"),
+                        rs.getObject("best_time", Long.class), rs.getLong("total_mistakes"))), userId);
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Пересчитывает всю таблицу по {@code game_results}. Должен вызываться в транзакции.
+     *
+     * <p>Таблица блокируется на запись до конца транзакции: пачки результатов, записанные
+     * до блокировки, попадают в пересчёт, а те, что пишутся во время пересчёта, ждут
+     * блокировку и прибавляют свои приращения уже к пересчитанным строкам. Результаты
+     * читаются курсором по {@code fetchSize} строк, в памяти только текущий игрок и пачка
+     * строк на вставку.</p>
+     *
+     * @return число прочитанных результатов
+     */
+    public long rebuild(int fetchSize) {
+        jdbcTemplate.execute("LOCK TABLE player_stats IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM player_stats");
+        Rebuild rebuild = new Rebuild(fetchSize);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SCAN_RESULTS);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, rebuild);
+        rebuild.finish();
+        return rebuild.results;
+    }
+
+    private static Object[] row(long userId, String difficulty, PlayerStats stats) {
+        return new Object[]{userId, difficulty, stats.gamesPlayed(), stats.gamesSolved(), stats.totalTime(),
+                stats.bestTime(), stats.totalMistakes()};
+    }
+
+    /**
+     * Суммирует строки курсора по текущему игроку и уровню сложности и вставляет готовые
+     * строки пачками.
+     */
+    private final class Rebuild implements RowCallbackHandler {
+        final int batchSize;
+        final List<Object[]> rows = new ArrayList<>();
+        long results;
+        long userId;
+        String difficulty;
+        PlayerStats stats;
+
+        Rebuild(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long rowUserId = rs.getLong("user_id");
+            String rowDifficulty = rs.getString("difficulty");
+            boolean solved = rs.getBoolean("solved");
+            long time = solved ? rs.getLong("completion_time") : 0;
+            PlayerStats game = new PlayerStats(1, solved ? 1 : 0, time, solved ? time : null,
+                    rs.getInt("mistakes_count"));
+            results++;
+            if (stats != null && rowUserId == userId && rowDifficulty.equals(difficulty)) {
+                stats = stats.plus(game);
+                return;
+            }
+            finishGroup();
+            userId = rowUserId;
+            difficulty = rowDifficulty;
+            stats = game;
+        }
+
+        void finish() {
+            finishGroup();
+            flush();
+        }
+
+        private void finishGroup() {
+            if (stats == null) {
+                return;
+            }
+            rows.add(row(userId, difficulty, stats));
+            if (rows.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INCREMENT, rows, INCREMENT_TYPES);
+                rows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.sudoku.game.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.sudoku.game.leaderboard.Leaderboard;
+import ru.sudoku.game.model.Difficulty;
+import ru.sudoku.game.model.Game;
+import ru.sudoku.game.model.GameResult;
+import ru.sudoku.game.store.GameEvictionListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Формирует {@link GameResult} для завершённых игр и передаёт его в {@link GameResultWriter}.
+ * Результат решённой игры сразу попадает и в {@link Leaderboard}, не дожидаясь записи в базу.
+ *
+ * <p>Игра завершается один раз: либо решением, либо как брошенная — когда пользователь
+ * начал новую игру или хранилище вытеснило старую. У брошенной игры нет времени
+ * завершения, и она получает 0 баллов.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class GameResultRecorder implements GameEvictionListener {
+    static final int POINTS_PER_BLANK = 100;
+    static final int MISTAKE_PENALTY = 25;
+
+    GameResultWriter gameResultWriter;
+    Leaderboard leaderboard;
+
+    public void recordSolved(Game game) {
+        if (!game.finish()) {
+            return;
+        }
+        LocalDateTime completedAt = LocalDateTime.now();
+        long seconds = Duration.between(game.getStartedAt(), completedAt).toSeconds();
+        int mistakes = game.getMistakes().get();
+        GameResult result = baseResult(game, mistakes)
+                .completedAt(completedAt)
+                .completionTime(seconds)
+                .score(score(game.getBlanks(), mistakes, seconds))
+                .build();
+        gameResultWriter.enqueue(result);
+        leaderboard.record(result);
+    }
+
+    public void recordAbandoned(Game game) {
+        if (!game.finish()) {
+            return;
+        }
+        log.debug("Игра пользователя {} брошена", game.getChatId());
+        gameResultWriter.enqueue(baseResult(game, game.getMistakes().get())
+                .score(0)
+                .build());
+    }
+
+    @Override
+    public void onEvicted(Game game) {
+        recordAbandoned(game);
+    }
+
+    private GameResult.GameResultBuilder baseResult(Game game, int mistakes) {
+        return GameResult.builder()
+                .userId(game.getUserId())
+                .chatId(game.getChatId())
+                .difficulty(Difficulty.fromBlanks(game.getBlanks()).name())
+                .startedAt(game.getStartedAt())
+                .mistakesCount(mistakes);
+    }
+
+    // очки за каждую пустую клетку минус штраф за ошибки и по очку за каждую секунду
+    private int score(int blanks, int mistakes, long seconds) {
+        long score = (long) blanks * POINTS_PER_BLANK - (long) mistakes * MISTAKE_PENALTY - seconds;
+        return (int) Math.max(score, 0);
+    }
+}
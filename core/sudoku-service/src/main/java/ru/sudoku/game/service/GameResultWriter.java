@@ -0,0 +1,176 @@
+package ru.sudoku.game.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.sudoku.game.model.GameResult;
+import ru.sudoku.game.stats.PlayerStatsService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отложенная (write-behind) запись результатов игр в базу.
+ *
+ * <p>{@link #enqueue(GameResult)} только кладёт результат в ограниченную очередь и никогда
+ * не блокирует поток хода. Фоновый поток собирает результаты в пачки и сохраняет их
+ * одной транзакцией, когда набралось {@code sudoku.results.batch-size} записей или с момента
+ * первой записи в пачке прошло {@code sudoku.results.flush-interval-ms}. Вставки внутри пачки
+ * идут JDBC-батчем ({@code hibernate.jdbc.batch_size}), идентификаторы берутся из
+ * последовательности без отдельного запроса на каждую строку. В той же транзакции пачка
+ * прибавляется к статистике игроков ({@link PlayerStatsService}).</p>
+ *
+ * <p>Пачка, которую не удалось записать, не отбрасывается: поток повторяет запись с паузой,
+ * которая удваивается от {@code sudoku.results.retry-backoff-ms} до
+ * {@code sudoku.results.max-retry-backoff-ms}, и тем временем новые результаты копятся в очереди.
+ * Только после {@code sudoku.results.max-attempts} неудачных попыток подряд пачка считается
+ * потерянной ({@code sudoku.results.failed}), чтобы одна «ядовитая» пачка не остановила запись
+ * навсегда. Повторы учитываются в {@code sudoku.results.retries}.</p>
+ *
+ * <p>Если очередь переполнена, результат отбрасывается и учитывается в метрике
+ * {@code sudoku.results.dropped}.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class GameResultWriter {
+    final PlayerStatsService playerStatsService;
+    final MeterRegistry meterRegistry;
+    @Value("${sudoku.results.queue-capacity:10000}")
+    int queueCapacity;
+    @Value("${sudoku.results.batch-size:50}")
+    int batchSize;
+    @Value("${sudoku.results.flush-interval-ms:1000}")
+    long flushIntervalMs;
+    @Value("${sudoku.results.max-attempts:10}")
+    int maxAttempts;
+    @Value("${sudoku.results.retry-backoff-ms:500}")
+    long retryBackoffMs;
+    @Value("${sudoku.results.max-retry-backoff-ms:30000}")
+    long maxRetryBackoffMs;
+    BlockingQueue<GameResult> queue;
+    Thread worker;
+    Counter written;
+    Counter dropped;
+    Counter failed;
+    Counter retries;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        written = Counter.builder("sudoku.results.written").register(meterRegistry);
+        dropped = Counter.builder("sudoku.results.dropped").register(meterRegistry);
+        failed = Counter.builder("sudoku.results.failed").register(meterRegistry);
+        retries = Counter.builder("sudoku.results.retries").register(meterRegistry);
+        Gauge.builder("sudoku.results.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        worker = new Thread(this::run, "game-result-writer");
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // поток дописывает всё, что осталось в очереди, и завершается
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Ставит результат в очередь на запись.
+     *
+     * @return {@code false}, если очередь переполнена и результат отброшен
+     */
+    public boolean enqueue(GameResult result) {
+        if (queue.offer(result)) {
+            return true;
+        }
+        dropped.increment();
+        log.warn("Очередь записи результатов переполнена, результат для чата {} отброшен", result.getChatId());
+        return false;
+    }
+
+    private void run() {
+        List<GameResult> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long wait = batch.isEmpty() ? flushIntervalMs : deadline - System.currentTimeMillis();
+                GameResult result = queue.poll(Math.max(wait, 0), TimeUnit.MILLISECONDS);
+                if (result != null) {
+                    if (batch.isEmpty()) {
+                        deadline = System.currentTimeMillis() + flushIntervalMs;
+                    }
+                    batch.add(result);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (batch.size() >= batchSize
+                        || (!batch.isEmpty() && System.currentTimeMillis() >= deadline)) {
+                    flushWithRetry(batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            log.info("Остановка записи результатов, в очереди: {}", queue.size());
+        }
+        // остановка сервиса: снимаем флаг прерывания, чтобы JDBC не оборвал запись, и дописываем остаток
+        // (в том числе пачку, прерванную во время паузы между попытками) без повторов — ждать некогда
+        Thread.interrupted();
+        while (queue.drainTo(batch, batchSize - batch.size()) > 0 || !batch.isEmpty()) {
+            if (!flush(batch)) {
+                discard(batch, 1);
+            }
+        }
+    }
+
+    // повторяет запись пачки с растущей паузой; прерывание во время паузы оставляет пачку для остановки
+    private void flushWithRetry(List<GameResult> batch) throws InterruptedException {
+        long backoff = retryBackoffMs;
+        for (int attempt = 1; !flush(batch); attempt++) {
+            if (attempt >= maxAttempts) {
+                discard(batch, attempt);
+                return;
+            }
+            retries.increment();
+            log.warn("Повтор записи {} результатов игр через {} мс (попытка {} из {})",
+                    batch.size(), backoff, attempt + 1, maxAttempts);
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, maxRetryBackoffMs);
+        }
+    }
+
+    /**
+     * @return {@code true}, если пачка записана и очищена; иначе пачка остаётся для повтора
+     */
+    private boolean flush(List<GameResult> batch) {
+        try {
+            playerStatsService.saveResults(batch);
+            written.increment(batch.size());
+            log.debug("Записано результатов игр: {}", batch.size());
+            batch.clear();
+            return true;
+        } catch (RuntimeException e) {
+            // транзакция откатилась, но Hibernate уже выдал записям id из последовательности:
+            // с id повторный saveAll выполнил бы merge вместо вставки
+            batch.forEach(result -> result.setId(null));
+            log.error("Не удалось записать {} результатов игр: {}", batch.size(), e.getMessage(), e);
+            return false;
+        }
+    }
+
+    private void discard(List<GameResult> batch, int attempts) {
+        failed.increment(batch.size());
+        log.error("Результаты игр отброшены после {} неудачных попыток записи, чаты: {}", attempts,
+                batch.stream().map(GameResult::getChatId).toList());
+        batch.clear();
+    }
+}
@@ -1,74 +1,144 @@
 package ru.sudoku.game.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.sudoku.game.dto.ConflictsDto;
+import ru.sudoku.game.dto.MoveResultDto;
+import ru.sudoku.game.dto.PuzzleDto;
 import ru.sudoku.game.dto.SudokuCellDto;
 import ru.sudoku.game.exception.BoardNotFoundException;
+import ru.sudoku.game.exception.SolutionUnavailableException;
+import ru.sudoku.game.exception.UnsupportedBoardSizeException;
+import ru.sudoku.game.generator.PuzzlePool;
 import ru.sudoku.game.generator.SudokuGenerator;
+import ru.sudoku.game.journal.GameJournal;
+import ru.sudoku.game.mapper.ConflictsMapper;
 import ru.sudoku.game.mapper.SudokuCellMapper;
-import ru.sudoku.game.model.SudokuCell;
+import ru.sudoku.game.model.BoardState;
+import ru.sudoku.game.model.Game;
+import ru.sudoku.game.model.GridSize;
+import ru.sudoku.game.model.MoveLog;
+import ru.sudoku.game.model.PackedBoard;
+import ru.sudoku.game.model.Puzzle;
+import ru.sudoku.game.store.GameStore;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Игровая логика sudoku-service.
+ *
+ * <p>Метрика {@code sudoku.games.outcomes}: {@code solved} — ход решил доску,
+ * {@code failed} — после хода доска впервые за игру заполнена, но решена неверно (исправления
+ * и повторные заполнения той же игры не считаются), {@code not_found} —
+ * запрос к несуществующей игре. Журнал каждого вызова пишется на уровне DEBUG
+ * ({@code logging.level.ru.sudoku.game.service.GameService}), на горячем пути его заменяют метрики.</p>
+ */
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class GameService {
 
-    SudokuGenerator generator;
-    ConcurrentHashMap<Long, SudokuCell[][]> games = new ConcurrentHashMap<>();
+    PuzzlePool puzzlePool;
+    // живые игры; снимок доски неизменяем (см. BoardState) и заменяется только через CAS
+    GameStore gameStore;
     SudokuCellMapper sudokuCellMapper;
+    ConflictsMapper conflictsMapper;
+    GameResultRecorder gameResultRecorder;
+    GameJournal gameJournal;
+    MeterRegistry meterRegistry;
+    @NonFinal
+    Counter solved;
+    @NonFinal
+    Counter failed;
+    @NonFinal
+    Counter notFound;
+
+    @PostConstruct
+    public void init() {
+        solved = outcome("solved");
+        failed = outcome("failed");
+        notFound = outcome("not_found");
+    }
+
+    private Counter outcome(String outcome) {
+        return Counter.builder("sudoku.games.outcomes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
     /**
      * Создаёт новую игру Судоку для заданного пользователя (chatId) с указанным количеством пустых ячеек.
      *
-     * <p>Метод генерирует новую 4x4 доску Судоку с помощью {@link SudokuGenerator}, где
-     * число пустых ячеек задаётся параметром {@code blanks}. Затем доска преобразуется в массив
-     * объектов {@link SudokuCell}, где каждый объект содержит значение ячейки и флаг {@code fixed},
-     * который равен {@code true}, если число сгенерировано, и {@code false}, если ячейка пустая.</p>
+     * <p>Метод берёт готовую 4x4 доску Судоку из {@link PuzzlePool} (или генерирует её с помощью
+     * {@link SudokuGenerator}, если пул пуст), где число пустых ячеек задаётся параметром
+     * {@code blanks}. Доска упакована в один {@code long} ({@link PackedBoard}): значения ячеек
+     * и маска {@code fixed}, где бит выставлен, если число сгенерировано, и сброшен, если ячейка пустая.
+     * Вместе с игрой сохраняется решение, из которого получена головоломка.</p>
      *
-     * <p>Созданная доска может быть сохранена в коллекции игр по идентификатору {@code chatId}
-     * для отслеживания состояния конкретного пользователя.</p>
+     * <p>Созданная доска сохраняется в {@link GameStore} по идентификатору {@code chatId}
+     * для отслеживания состояния конкретного пользователя. Хранилище может вытеснить
+     * заброшенную игру, после чего она считается несуществующей. Незавершённая предыдущая
+     * игра пользователя записывается как брошенная.</p>
      *
      * @param chatId уникальный идентификатор пользователя, для которого создаётся игра
+     * @param userId игрок, которому засчитывается результат игры
      * @param blanks количество пустых ячеек, которые должны быть оставлены при генерации доски
-     * @return двумерный массив {@link SudokuCell} размером 4x4, представляющий новую игру
+     * @return двумерный массив {@link SudokuCellDto} размером 4x4, представляющий новую игру
      */
-    public SudokuCellDto[][] newGame(long chatId, int blanks) {
-        log.info("Создание новой игры для пользователя: {}, количество пустых ячеек: {}", chatId, blanks);
-        int[][] board = generator.generate(blanks);
-        SudokuCell[][] cells = new SudokuCell[4][4];
-
-        for (int r = 0; r < 4; r++) {
-            for (int c = 0; c < 4; c++) {
-                int value = board[r][c];
-                cells[r][c] = new SudokuCell(value, value != 0);
-            }
+    public SudokuCellDto[][] newGame(long chatId, long userId, int blanks) {
+        log.debug("Создание новой игры для пользователя: {}, количество пустых ячеек: {}", chatId, blanks);
+        Puzzle puzzle = puzzlePool.take(blanks);
+        long board = puzzle.board();
+        Game game = new Game(chatId, userId, blanks, puzzle.solution(), BoardState.of(board));
+        Game previous = gameStore.put(game);
+        gameJournal.appendNewGame(game, game.getState().get());
+        if (previous != null) {
+            gameResultRecorder.recordAbandoned(previous);
         }
-        games.put(chatId, cells);
-        log.info("Новая игра успешно создана для пользователя: {}", chatId);
-        return sudokuCellMapper.toDto(cells);
+        log.debug("Новая игра успешно создана для пользователя: {}", chatId);
+        return sudokuCellMapper.toDto(board);
+    }
+
+    /**
+     * Генерирует головоломку заданного размера, не создавая игры: живые игры хранятся в
+     * {@link PackedBoard} и бывают только 4x4, доски 6x6, 9x9 и 16x16 отдаются клиенту целиком,
+     * играть на них через сервис нельзя (см. {@code PuzzleController}).
+     * У головоломки единственное решение, пока число пустых клеток это допускает
+     * (см. {@link SudokuGenerator}).
+     *
+     * @param size   сторона доски: 4, 6, 9 или 16
+     * @param blanks количество пустых клеток
+     * @return головоломка с раскладкой блоков; фиксированы все её числа
+     * @throws UnsupportedBoardSizeException для других размеров
+     */
+    public PuzzleDto newPuzzle(int size, int blanks) {
+        log.debug("Генерация головоломки {}x{}, количество пустых ячеек: {}", size, size, blanks);
+        return sudokuCellMapper.toDto(puzzlePool.take(GridSize.of(size), blanks));
     }
 
     /**
      * Возвращает текущую доску Судоку для пользователя с заданным идентификатором.
      *
      * @param chatId уникальный идентификатор пользователя
-     * @return двумерный массив {@link SudokuCell} размером 4x4, представляющий текущее состояние игры,
-     * или {@code null}, если игра для данного пользователя не существует
+     * @return двумерный массив {@link SudokuCellDto} размером 4x4, представляющий текущее состояние игры
+     * @throws BoardNotFoundException если игра для данного пользователя не существует
      */
     public SudokuCellDto[][] getBoard(long chatId) {
-        log.info("Запрос доски для пользователя: {}", chatId);
-        SudokuCell[][] board = games.get(chatId);
-        if (board == null) {
+        log.debug("Запрос доски для пользователя: {}", chatId);
+        AtomicReference<BoardState> holder = state(chatId);
+        if (holder == null) {
+            notFound.increment();
             throw new BoardNotFoundException(chatId);
         }
-        log.info("Доска успешно получена для пользователя: {}", chatId);
-        return sudokuCellMapper.toDto(board);
+        return sudokuCellMapper.toDto(holder.get());
     }
 
     /**
@@ -81,16 +151,297 @@ public class GameService {
      * @param value  новое значение для ячейки
      *
      *               <p>Если доска для пользователя не существует или выбранная ячейка фиксирована,
-     *               метод ничего не делает.</p>
+     *               метод ничего не делает. Доска обновляется циклом compare-and-set, поэтому
+     *               одновременные ходы одного пользователя не теряют друг друга.</p>
      */
     public void setCell(long chatId, int row, int col, int value) {
-        log.info("Установка значения ячейки [{}][{}] = {} для пользователя: {}", row, col, value, chatId);
-        SudokuCell[][] board = games.get(chatId);
-        if (board != null && !board[row][col].isFixed()) {
-            board[row][col].setValue(value);
-            log.info("Значение ячейки [{}][{}] успешно установлено в {} для пользователя: {}",
-                    row, col, value, chatId);
+        if (log.isDebugEnabled()) {
+            log.debug("Установка значения ячейки [{}][{}] = {} для пользователя: {}", row, col, value, chatId);
         }
+        Game game = gameStore.get(chatId);
+        if (game == null) {
+            notFound.increment();
+            return;
+        }
+        move(game, PackedBoard.index(row, col), value);
+    }
+
+    /**
+     * Применяет ход и возвращает всё, что нужно боту для ответа, одним снимком доски:
+     * саму доску, её версию, признаки заполненности и решения и отчёт о конфликтах.
+     *
+     * <p>Ход применяется тем же циклом compare-and-set, что и в {@link #setCell}, а результат
+     * строится из того снимка, который был установлен, поэтому он не смешивается с ходами,
+     * пришедшими одновременно. Ход в фиксированную ячейку не применяется, но текущее
+     * состояние всё равно возвращается.</p>
+     *
+     * @param chatId уникальный идентификатор пользователя
+     * @param row    индекс строки (0–3)
+     * @param col    индекс столбца (0–3)
+     * @param value  новое значение 0–4, 0 очищает ячейку
+     * @return результат хода
+     * @throws BoardNotFoundException если игра для данного пользователя не существует
+     */
+    public MoveResultDto applyMove(long chatId, int row, int col, int value) {
+        if (log.isDebugEnabled()) {
+            log.debug("Ход [{}][{}] = {} для пользователя: {}", row, col, value, chatId);
+        }
+        Game game = gameStore.get(chatId);
+        if (game == null) {
+            notFound.increment();
+            throw new BoardNotFoundException(chatId);
+        }
+        int idx = PackedBoard.index(row, col);
+        BoardState updated = move(game, idx, value);
+        if (updated == null) {
+            log.debug("Ячейка фиксирована, ход пользователя {} не применён", chatId);
+            return toMoveResult(game.getState().get(), false, true);
+        }
+        return toMoveResult(updated, true, !isWrong(game, idx, value, updated));
+    }
+
+    /**
+     * Переключает заметку (кандидата) {@code value} в пустой ячейке. Заметки меняются тем же
+     * циклом compare-and-set, что и ходы, но не считаются ходом: версия доски и ошибки
+     * не меняются, в журнал пишется только новое состояние. В заполненной или фиксированной
+     * ячейке заметка не ставится.
+     *
+     * @param chatId уникальный идентификатор пользователя
+     * @param row    индекс строки (0–3)
+     * @param col    индекс столбца (0–3)
+     * @param value  число 1–4
+     * @return доска с заметками; {@code applied == false}, если ячейка не пуста
+     * @throws BoardNotFoundException если игра для данного пользователя не существует
+     */
+    public MoveResultDto toggleNote(long chatId, int row, int col, int value) {
+        if (log.isDebugEnabled()) {
+            log.debug("Заметка [{}][{}] {} для пользователя: {}", row, col, value, chatId);
+        }
+        Game game = gameStore.get(chatId);
+        if (game == null) {
+            notFound.increment();
+            throw new BoardNotFoundException(chatId);
+        }
+        AtomicReference<BoardState> holder = game.getState();
+        int idx = PackedBoard.index(row, col);
+        BoardState current;
+        BoardState updated;
+        do {
+            current = holder.get();
+            if (current.isFixed(idx) || current.value(idx) != 0) {
+                return toMoveResult(current, false, true);
+            }
+            updated = current.withNoteToggled(idx, value);
+        } while (!holder.compareAndSet(current, updated));
+        gameJournal.appendMove(game, updated);
+        return toMoveResult(updated, true, true);
+    }
+
+    /**
+     * Снимает все заметки, противоречащие доске: числа, которые уже стоят в строке, столбце
+     * или блоке ячейки. При каждом ходе то же делается для соседей изменённой ячейки, этот
+     * вызов нужен для заметок, поставленных после хода.
+     *
+     * @param chatId уникальный идентификатор пользователя
+     * @return доска с оставшимися заметками
+     * @throws BoardNotFoundException если игра для данного пользователя не существует
+     */
+    public MoveResultDto eliminateNotes(long chatId) {
+        log.debug("Очистка заметок для пользователя: {}", chatId);
+        Game game = gameStore.get(chatId);
+        if (game == null) {
+            notFound.increment();
+            throw new BoardNotFoundException(chatId);
+        }
+        AtomicReference<BoardState> holder = game.getState();
+        BoardState current;
+        BoardState updated;
+        do {
+            current = holder.get();
+            updated = current.withNotesEliminated();
+        } while (!holder.compareAndSet(current, updated));
+        if (updated != current) {
+            gameJournal.appendMove(game, updated);
+        }
+        return toMoveResult(updated, true, true);
+    }
+
+    /**
+     * Возвращает правильное число для ячейки по решению, сохранённому при создании игры.
+     * Доска при этом не меняется.
+     *
+     * @param chatId уникальный идентификатор пользователя
+     * @param row    индекс строки (0–3)
+     * @param col    индекс столбца (0–3)
+     * @return число 1–4
+     * @throws BoardNotFoundException       если игра для данного пользователя не существует
+     * @throws SolutionUnavailableException если решение игры неизвестно (игра восстановлена из старого журнала)
+     */
+    public int getHint(long chatId, int row, int col) {
+        log.debug("Запрос подсказки для пользователя: {}", chatId);
+        return solvedGame(chatId).solutionValue(PackedBoard.index(row, col));
+    }
+
+    /**
+     * Проверяет ход по решению, не применяя его: одно сравнение с сохранённым решением,
+     * без перебора.
+     *
+     * @param chatId уникальный идентификатор пользователя
+     * @param row    индекс строки (0–3)
+     * @param col    индекс столбца (0–3)
+     * @param value  число 1–4
+     * @return {@code true}, если число совпадает с решением
+     * @throws BoardNotFoundException       если игра для данного пользователя не существует
+     * @throws SolutionUnavailableException если решение игры неизвестно
+     */
+    public boolean checkMove(long chatId, int row, int col, int value) {
+        return solvedGame(chatId).solutionValue(PackedBoard.index(row, col)) == value;
+    }
+
+    // игра пользователя с известным решением
+    private Game solvedGame(long chatId) {
+        Game game = gameStore.get(chatId);
+        if (game == null) {
+            notFound.increment();
+            throw new BoardNotFoundException(chatId);
+        }
+        if (!game.hasSolution()) {
+            throw new SolutionUnavailableException(chatId);
+        }
+        return game;
+    }
+
+    /**
+     * Отменяет последний ход пользователя: ячейке возвращается значение до хода. Отменённый
+     * ход можно повторить через {@link #redo}, пока пользователь не сделал новый ход.
+     * Отмена не считается ошибкой и не снимает уже засчитанные ошибки.
+     *
+     * @param chatId уникальный идентификатор пользователя
+     * @return доска после отмены; {@code applied == false}, если отменять нечего
+     * @throws BoardNotFoundException если игра для данного пользователя не существует
+     */
+    public MoveResultDto undo(long chatId) {
+        log.debug("Отмена хода для пользователя: {}", chatId);
+        Game game = game(chatId);
+        MoveLog moveLog = game.getMoveLog();
+        // отмена и запись в историю под одной блокировкой: ход не отменится дважды
+        synchronized (moveLog) {
+            int move = moveLog.undo();
+            if (move == MoveLog.NONE) {
+                return toMoveResult(game.getState().get(), false, true);
+            }
+            return toMoveResult(restore(game, MoveLog.index(move), MoveLog.oldValue(move)), true, true);
+        }
+    }
+
+    /**
+     * Повторяет последний отменённый ход.
+     *
+     * @param chatId уникальный идентификатор пользователя
+     * @return доска после повтора; {@code applied == false}, если повторять нечего
+     * @throws BoardNotFoundException если игра для данного пользователя не существует
+     */
+    public MoveResultDto redo(long chatId) {
+        log.debug("Повтор хода для пользователя: {}", chatId);
+        Game game = game(chatId);
+        MoveLog moveLog = game.getMoveLog();
+        synchronized (moveLog) {
+            int move = moveLog.redo();
+            if (move == MoveLog.NONE) {
+                return toMoveResult(game.getState().get(), false, true);
+            }
+            int idx = MoveLog.index(move);
+            int value = MoveLog.newValue(move);
+            BoardState updated = restore(game, idx, value);
+            return toMoveResult(updated, true, !isWrong(game, idx, value, updated));
+        }
+    }
+
+    private Game game(long chatId) {
+        Game game = gameStore.get(chatId);
+        if (game == null) {
+            notFound.increment();
+            throw new BoardNotFoundException(chatId);
+        }
+        return game;
+    }
+
+    /**
+     * Применяет ход циклом compare-and-set и учитывает его последствия: ход записывается в
+     * историю для отмены, число, не совпадающее с решением, считается ошибкой, а первое
+     * решение доски записывается в результаты. Итоговое состояние игры дописывается в журнал.
+     *
+     * @return установленный снимок или {@code null}, если ячейка фиксирована
+     */
+    private BoardState move(Game game, int idx, int value) {
+        AtomicReference<BoardState> holder = game.getState();
+        MoveLog moveLog = game.getMoveLog();
+        BoardState current;
+        BoardState updated;
+        // ход и запись в историю под той же блокировкой, что отмена и повтор: иначе отмена
+        // между ними вернёт ячейке значение, которое история ещё не знает
+        synchronized (moveLog) {
+            do {
+                current = holder.get();
+                if (current.isFixed(idx)) {
+                    return null;
+                }
+                updated = current.withValue(idx, value);
+            } while (!holder.compareAndSet(current, updated));
+            int old = current.value(idx);
+            if (old != value) {
+                moveLog.record(idx, old, value);
+            }
+        }
+        if (isWrong(game, idx, value, updated)) {
+            game.getMistakes().incrementAndGet();
+        }
+        completeMove(game, current, updated);
+        return updated;
+    }
+
+    // отмена и повтор: значение ставится без записи в историю и без подсчёта ошибок
+    private BoardState restore(Game game, int idx, int value) {
+        AtomicReference<BoardState> holder = game.getState();
+        BoardState current;
+        BoardState updated;
+        do {
+            current = holder.get();
+            updated = current.withValue(idx, value);
+        } while (!holder.compareAndSet(current, updated));
+        completeMove(game, current, updated);
+        return updated;
+    }
+
+    private void completeMove(Game game, BoardState current, BoardState updated) {
+        if (updated.isSolved()) {
+            if (!current.isSolved()) {
+                solved.increment();
+            }
+            gameResultRecorder.recordSolved(game);
+        } else if (updated.isFull() && game.markFailed()) {
+            failed.increment();
+        }
+        gameJournal.appendMove(game, updated);
+    }
+
+    // без известного решения ошибкой считается ход, создавший повтор в строке, столбце или блоке
+    private boolean isWrong(Game game, int idx, int value, BoardState updated) {
+        if (value == 0) {
+            return false;
+        }
+        return game.hasSolution() ? game.solutionValue(idx) != value : updated.conflictsAt(idx);
+    }
+
+    private MoveResultDto toMoveResult(BoardState state, boolean applied, boolean correct) {
+        return new MoveResultDto(
+                sudokuCellMapper.toDto(state),
+                state.version(),
+                applied,
+                state.isFull(),
+                state.isSolved(),
+                conflictsMapper.toDto(state.conflicts()),
+                correct);
     }
 
     /**
@@ -102,103 +453,66 @@ public class GameService {
      *   <li>Каждый столбец содержит числа 1–4 без повторений.</li>
      *   <li>Каждый блок 2x2 содержит числа 1–4 без повторений.</li>
      * </ul>
-     * Если доска не существует или хотя бы одно правило нарушено, метод возвращает {@code false}.</p>
+     * Если доска не существует или хотя бы одно правило нарушено, метод возвращает {@code false}.
+     * Маски групп поддерживаются при каждом ходе ({@link BoardState}), поэтому проверка
+     * не сканирует доску и ничего не аллоцирует.</p>
      *
      * @param chatId уникальный идентификатор пользователя
      * @return {@code true}, если доска полностью и корректно решена, {@code false} в противном случае
      */
     public boolean isSolved(long chatId) {
-        log.info("Проверка решения для пользователя: {}", chatId);
-        SudokuCell[][] board = games.get(chatId);
-        if (board == null) {
-            log.warn("Попытка проверить решение для несуществующей доски пользователя: {}", chatId);
+        AtomicReference<BoardState> holder = state(chatId);
+        if (holder == null) {
+            notFound.increment();
+            log.debug("Попытка проверить решение для несуществующей доски пользователя: {}", chatId);
             return false;
         }
+        boolean result = holder.get().isSolved();
+        log.debug("Доска пользователя {} решена: {}", chatId, result);
+        return result;
+    }
 
-        int size = 4;
-        int blockSize = 2;
-
-        // Проверка строк и столбцов
-        for (int i = 0; i < size; i++) {
-            // Массивы для отслеживания, какие числа уже встречались в строке и столбце
-            boolean[] rowCheck = new boolean[size + 1];
-            boolean[] colCheck = new boolean[size + 1];
-
-            for (int j = 0; j < size; j++) {
-                int rowVal = board[i][j].getValue();
-                int colVal = board[j][i].getValue();
-                // Проверка, что число в допустимом диапазоне 1..size
-                if ((rowVal < 1) || (rowVal > size) || (colVal < 1) || (colVal > size)) {
-                    log.info("Некорректное значение в ячейке: строка={}, столбец={}, значение={}", i, j, rowVal);
-                    return false;
-                }
-                // Проверяем, встречалось ли это число ранее в строке или столбце
-                if (rowCheck[rowVal]) { // число уже встречалось в строке
-                    log.info("Обнаружен дубликат в строке {}: значение {}", i, rowVal);
-                    return false;
-                }
-                if (colCheck[colVal]) { // число уже встречалось в столбце
-                    log.info("Обнаружен дубликат в столбце {}: значение {}", i, colVal);
-                    return false;
-                }
-// Отмечаем число как встреченное
-                rowCheck[rowVal] = true;
-                colCheck[colVal] = true;
-            }
-        }
-
-        // Проверка блоков 2x2
-        for (int blockRow = 0; blockRow < size; blockRow += blockSize) {
-            for (int blockCol = 0; blockCol < size; blockCol += blockSize) {
-                boolean[] blockCheck = new boolean[size + 1]; // массив для отслеживания чисел в блоке
-                // Проходим по каждой ячейке блока 2x2
-                for (int r = 0; r < blockSize; r++) {
-                    for (int c = 0; c < blockSize; c++) {
-                        int val = board[blockRow + r][blockCol + c].getValue();
-                        // Если число уже встречалось в блоке — доска неверна
-                        if (blockCheck[val]) {
-                            log.info("Обнаружен дубликат в блоке [{},{}]: значение {}", blockRow, blockCol, val);
-                            return false;
-                        }
-                        // Отмечаем число как встреченное
-                        blockCheck[val] = true;
-                    }
-                }
-            }
+    /**
+     * Возвращает группы (строки, столбцы, блоки 2x2), в которых есть повторяющиеся числа.
+     *
+     * @param chatId уникальный идентификатор пользователя
+     * @return отчёт о конфликтах, пустой если повторов нет
+     * @throws BoardNotFoundException если игра для данного пользователя не существует
+     */
+    public ConflictsDto getConflicts(long chatId) {
+        log.debug("Запрос конфликтов для пользователя: {}", chatId);
+        AtomicReference<BoardState> holder = state(chatId);
+        if (holder == null) {
+            notFound.increment();
+            throw new BoardNotFoundException(chatId);
         }
-        log.info("Доска успешно решена для пользователя: {}", chatId);
-// Если все проверки прошли успешно — доска заполнена правильно
-        return true;
+        return conflictsMapper.toDto(holder.get().conflicts());
     }
-//Проверка все ли поля заполнены
 
     /**
      * Проверяет, полностью ли заполнена доска Судоку для конкретного пользователя.
      *
-     * <p>Метод проходит по всем ячейкам доски 4x4 и возвращает {@code false},
-     * если хотя бы одна ячейка пуста (значение равно 0). Если все ячейки
-     * содержат числа, возвращает {@code true}.</p>
+     * <p>Метод сравнивает счётчик заполненных ячеек, который обновляется при каждом ходе,
+     * с числом ячеек доски 4x4 и возвращает {@code false}, если хотя бы одна ячейка пуста.</p>
      *
      * @param chatId уникальный идентификатор пользователя
      * @return {@code true}, если все ячейки доски заполнены, {@code false} если есть пустые ячейки
      */
     public boolean isBoardFull(long chatId) {
-        log.info("Проверка заполненности доски для пользователя: {}", chatId);
-        SudokuCell[][] board = games.get(chatId);
-        if (board == null) {
-            log.warn("Попытка проверить заполненность несуществующей доски пользователя: {}", chatId);
+        AtomicReference<BoardState> holder = state(chatId);
+        if (holder == null) {
+            notFound.increment();
+            log.debug("Попытка проверить заполненность несуществующей доски пользователя: {}", chatId);
             return false;
         }
-        for (int r = 0; r < board.length; r++) {
-            for (int c = 0; c < board[r].length; c++) {
-                if (board[r][c].getValue() == 0) {
-                    log.info("Найдена пустая ячейка [{}][{}] для пользователя: {}", r, c, chatId);
-                    return false; // есть пустая клетка
-                }
-            }
-        }
-        log.info("Доска полностью заполнена для пользователя: {}", chatId);
-        return true; // все клетки заполнены
+        boolean full = holder.get().isFull();
+        log.debug("Доска пользователя {} заполнена: {}", chatId, full);
+        return full;
     }
 
+    // снимок игры пользователя или null, если игры нет или она вытеснена
+    private AtomicReference<BoardState> state(long chatId) {
+        Game game = gameStore.get(chatId);
+        return game == null ? null : game.getState();
+    }
 }
@@ -0,0 +1,58 @@
+package ru.sudoku.game.stats;
+
+import ru.sudoku.game.model.GameResult;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Статистика игрока на одном уровне сложности — строка {@code player_stats}. Хранятся только
+ * суммы, поэтому статистику можно прибавлять пачками: средние считаются при выдаче.
+ *
+ * @param totalTime суммарное время решённых игр в секундах
+ * @param bestTime  лучшее время решения в секундах или {@code null}, если решённых игр нет
+ */
+public record PlayerStats(int gamesPlayed, int gamesSolved, long totalTime, Long bestTime, long totalMistakes) {
+
+    public static PlayerStats of(GameResult result) {
+        boolean solved = result.getCompletedAt() != null && result.getCompletionTime() != null;
+        int mistakes = result.getMistakesCount() == null ? 0 : result.getMistakesCount();
+        return new PlayerStats(1, solved ? 1 : 0, solved ? result.getCompletionTime() : 0,
+                solved ? result.getCompletionTime() : null, mistakes);
+    }
+
+    public PlayerStats plus(PlayerStats other) {
+        Long best = bestTime == null ? other.bestTime
+                : other.bestTime == null ? bestTime : Long.valueOf(Math.min(bestTime, other.bestTime));
+        return new PlayerStats(gamesPlayed + other.gamesPlayed, gamesSolved + other.gamesSolved,
+                totalTime + other.totalTime, best, totalMistakes + other.totalMistakes);
+    }
+
+    /**
+     * Приращения статистики от пачки результатов: пользователь -> уровень сложности -> сумма.
+     * Пользователи упорядочены, чтобы параллельные записи блокировали строки в одном порядке.
+     */
+    public static Map<Long, Map<String, PlayerStats>> aggregate(List<GameResult> results) {
+        Map<Long, Map<String, PlayerStats>> deltas = new TreeMap<>();
+        for (GameResult result : results) {
+            if (result.getUserId() == null || result.getDifficulty() == null) {
+                continue;
+            }
+            deltas.computeIfAbsent(result.getUserId(), id -> new TreeMap<>())
+                    .merge(result.getDifficulty(), of(result), PlayerStats::plus);
+        }
+        return deltas;
+    }
+
+    /**
+     * Статистика игрока с прибавленными приращениями; исходная карта не меняется.
+     */
+    public static Map<String, PlayerStats> merge(Map<String, PlayerStats> stats, Map<String, PlayerStats> delta) {
+        Map<String, PlayerStats> merged = new HashMap<>(stats);
+        delta.forEach((difficulty, add) -> merged.merge(difficulty, add, PlayerStats::plus));
+        return Collections.unmodifiableMap(merged);
+    }
+}
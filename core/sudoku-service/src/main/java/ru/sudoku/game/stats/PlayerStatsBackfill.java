@@ -0,0 +1,47 @@
+package ru.sudoku.game.stats;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sudoku.game.repository.PlayerStatsRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разовый пересчёт {@code player_stats} по всем строкам {@code game_results}: заполняет
+ * статистику для истории, записанной до её появления, и исправляет расхождения.
+ *
+ * <p>Включается {@code sudoku.stats.backfill=true} на одном экземпляре и выполняется один раз
+ * после запуска. Пока идёт пересчёт, запись результатов на всех экземплярах ждёт блокировку
+ * {@code player_stats} и не теряется: результаты остаются в очереди записи.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "sudoku.stats.backfill", havingValue = "true")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class PlayerStatsBackfill implements ApplicationRunner {
+    final PlayerStatsRepository playerStatsRepository;
+    final PlayerStatsService playerStatsService;
+    final TransactionTemplate transactionTemplate;
+    @Value("${sudoku.stats.backfill-fetch-size:1000}")
+    int fetchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Пересчёт статистики игроков по game_results");
+        long startedAt = System.nanoTime();
+        // курсор PostgreSQL работает только внутри транзакции
+        Long results = transactionTemplate.execute(status -> playerStatsRepository.rebuild(fetchSize));
+        playerStatsService.invalidateAll();
+        log.info("Статистика игроков пересчитана по {} результатам за {} мс", results,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+}
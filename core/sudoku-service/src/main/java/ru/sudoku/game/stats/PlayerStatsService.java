@@ -0,0 +1,128 @@
+package ru.sudoku.game.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.sudoku.game.dto.DifficultyStatsDto;
+import ru.sudoku.game.dto.PlayerStatsDto;
+import ru.sudoku.game.model.Difficulty;
+import ru.sudoku.game.model.GameResult;
+import ru.sudoku.game.repository.GameResultRepository;
+import ru.sudoku.game.repository.PlayerStatsRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Статистика игроков: сыграно, решено, среднее и лучшее время, ошибки — по уровням сложности.
+ *
+ * <p>Статистика не считается агрегатными запросами по {@code game_results}: пачка результатов
+ * и приращения статистики по ней пишутся одной транзакцией ({@link #saveResults(List)}), а
+ * запрос читает готовые суммы — из кэша в памяти или одной строкой на уровень сложности из
+ * {@code player_stats}.</p>
+ *
+ * <p>После записи пачки приращения прибавляются к игрокам, уже лежащим в кэше. Чтение из базы
+ * попадает в кэш, только если за время чтения не записывалась ни одна пачка (счётчик
+ * {@code updates} нечётный во время записи и меняется после неё), иначе прочитанные суммы
+ * могли не учесть пачку, которая уже прибавлена к кэшу, или учесть её дважды. Чаты привязаны
+ * к экземплярам, поэтому пачки одного игрока обычно пишет тот же экземпляр, что держит его в
+ * кэше. При переполнении кэш очищается.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class PlayerStatsService {
+    final GameResultRepository gameResultRepository;
+    final PlayerStatsRepository playerStatsRepository;
+    final TransactionTemplate transactionTemplate;
+    final MeterRegistry meterRegistry;
+    @Value("${sudoku.stats.cache-size:100000}")
+    int cacheSize;
+    final Map<Long, Map<String, PlayerStats>> cache = new ConcurrentHashMap<>();
+    final AtomicLong updates = new AtomicLong();
+    Counter misses;
+
+    @PostConstruct
+    public void init() {
+        misses = Counter.builder("sudoku.stats.cache.misses")
+                .description("Запросы статистики, прочитанные из player_stats")
+                .register(meterRegistry);
+        Gauge.builder("sudoku.stats.cache.size", cache, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Сохраняет пачку результатов и в той же транзакции прибавляет её к статистике игроков.
+     */
+    public void saveResults(List<GameResult> batch) {
+        Map<Long, Map<String, PlayerStats>> deltas = PlayerStats.aggregate(batch);
+        updates.incrementAndGet();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                gameResultRepository.saveAll(batch);
+                playerStatsRepository.increment(deltas);
+            });
+            deltas.forEach((userId, delta) ->
+                    cache.computeIfPresent(userId, (id, stats) -> PlayerStats.merge(stats, delta)));
+        } finally {
+            updates.incrementAndGet();
+        }
+    }
+
+    public PlayerStatsDto getStats(long userId) {
+        Map<String, PlayerStats> stats = cache.get(userId);
+        if (stats == null) {
+            stats = load(userId);
+        }
+        List<DifficultyStatsDto> difficulties = new ArrayList<>();
+        for (Difficulty difficulty : Difficulty.values()) {
+            PlayerStats s = stats.get(difficulty.name());
+            if (s != null) {
+                difficulties.add(toDto(difficulty.name(), s));
+            }
+        }
+        return new PlayerStatsDto(userId, difficulties);
+    }
+
+    /**
+     * Сбрасывает кэш после пересчёта {@code player_stats}.
+     */
+    public void invalidateAll() {
+        updates.addAndGet(2);
+        cache.clear();
+    }
+
+    private Map<String, PlayerStats> load(long userId) {
+        misses.increment();
+        long version = updates.get();
+        Map<String, PlayerStats> loaded = playerStatsRepository.findByUserId(userId);
+        if ((version & 1) != 0) {
+            return loaded;
+        }
+        if (cache.size() >= cacheSize) {
+            cache.clear();
+        }
+        Map<String, PlayerStats> cached = cache.compute(userId, (id, current) ->
+                current != null ? current : updates.get() == version ? loaded : null);
+        return cached != null ? cached : loaded;
+    }
+
+    private DifficultyStatsDto toDto(String difficulty, PlayerStats stats) {
+        int played = stats.gamesPlayed();
+        int solved = stats.gamesSolved();
+        return new DifficultyStatsDto(difficulty, played, solved,
+                played == 0 ? 0 : (double) solved / played,
+                solved == 0 ? null : stats.totalTime() / solved,
+                stats.bestTime(),
+                played == 0 ? 0 : (double) stats.totalMistakes() / played);
+    }
+}
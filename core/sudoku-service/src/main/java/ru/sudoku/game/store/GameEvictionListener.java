@@ -0,0 +1,13 @@
+package ru.sudoku.game.store;
+
+import ru.sudoku.game.model.Game;
+
+/**
+ * Получает игры, которые хранилище удалило само (по времени простоя или по размеру).
+ *
+ * <p>Вызывается вне блокировок хранилища, но в потоке, который вызвал вытеснение,
+ * поэтому реализация должна быть быстрой и не бросать исключений.</p>
+ */
+public interface GameEvictionListener {
+    void onEvicted(Game game);
+}
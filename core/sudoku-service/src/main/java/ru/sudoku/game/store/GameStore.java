@@ -0,0 +1,39 @@
+package ru.sudoku.game.store;
+
+import ru.sudoku.game.model.Game;
+
+import java.util.function.Consumer;
+
+/**
+ * Хранилище живых игр по идентификатору чата.
+ *
+ * <p>Реализация может в любой момент удалить игру (по времени простоя, по размеру и т.п.),
+ * поэтому {@link #get(long)} вправе вернуть {@code null} для игры, которая была создана ранее.
+ * Для вызывающего кода это неотличимо от отсутствия игры. О вытесненных играх
+ * реализация сообщает всем бинам {@link GameEvictionListener}.</p>
+ */
+public interface GameStore {
+
+    /**
+     * @return игра пользователя или {@code null}, если её нет или она была вытеснена;
+     * обращение продлевает жизнь игры
+     */
+    Game get(long chatId);
+
+    /**
+     * Сохраняет игру, заменяя предыдущую игру того же чата.
+     *
+     * @return заменённая игра или {@code null}
+     */
+    Game put(Game game);
+
+    void remove(long chatId);
+
+    int size();
+
+    /**
+     * Обходит все игры, например для снимка. Игры, добавленные во время обхода,
+     * могут не попасть в него; обход не продлевает жизнь игр.
+     */
+    void forEach(Consumer<Game> action);
+}
@@ -0,0 +1,163 @@
+package ru.sudoku.game.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.sudoku.game.model.Game;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ограниченное хранилище игр в памяти процесса на кэше Caffeine.
+ *
+ * <p>Игра вытесняется, если:
+ * <ul>
+ *   <li>к ней не обращались дольше {@code sudoku.store.ttl} ({@code expireAfterAccess});
+ *   просроченные игры не возвращаются при чтении, а фоновая очистка раз в
+ *   {@code sudoku.store.sweep-interval} удаляет их, даже если хранилище никто не трогает;</li>
+ *   <li>в хранилище больше {@code sudoku.store.max-games} игр ({@code maximumSize}); вытесняется
+ *   игра, к которой давно и редко обращались (политика W-TinyLFU, а не строгий LRU).</li>
+ * </ul>
+ * Чтение и запись не берут общей блокировки, доска меняется вне кэша. Обслуживание кэша и
+ * слушатели вытеснения выполняются в потоке, который его вызвал, после изменения карты.</p>
+ *
+ * <p>Метрики: {@code sudoku.games.size}, {@code sudoku.games.estimated.bytes} (число игр, умноженное
+ * на {@link #ESTIMATED_ENTRY_BYTES}) и {@code sudoku.games.evictions} с тегом {@code cause}
+ * ({@code expired}/{@code size}).</p>
+ */
+@Component
+@ConditionalOnProperty(name = "sudoku.store.type", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class InMemoryGameStore implements GameStore {
+    // размер одной записи, измеренный по куче после GC: 500 тысяч новых игр в кэше с той же
+    // конфигурацией, JDK 21 со сжатыми указателями — около 400 байт (без сжатых указателей
+    // около 475). Сюда входят узел Caffeine и его доля таблицы и счётчика частот, ключ Long,
+    // Game с атомиками и LocalDateTime и BoardState. Массив истории ходов MoveLog растёт
+    // с ходами и не учтён: до 272 байт на игру с полной историей
+    static final long ESTIMATED_ENTRY_BYTES = 400;
+
+    final MeterRegistry meterRegistry;
+    final ObjectProvider<GameEvictionListener> evictionListeners;
+    @Value("${sudoku.store.max-games:100000}")
+    int maxGames;
+    @Value("${sudoku.store.ttl:PT24H}")
+    Duration ttl;
+    @Value("${sudoku.store.sweep-interval:PT1M}")
+    Duration sweepInterval;
+    Cache<Long, Game> games;
+    ScheduledExecutorService sweeper;
+    Counter expiredEvictions;
+    Counter sizeEvictions;
+
+    @PostConstruct
+    public void init() {
+        expiredEvictions = Counter.builder("sudoku.games.evictions")
+                .tag("cause", "expired")
+                .register(meterRegistry);
+        sizeEvictions = Counter.builder("sudoku.games.evictions")
+                .tag("cause", "size")
+                .register(meterRegistry);
+        games = Caffeine.newBuilder()
+                .maximumSize(maxGames)
+                .expireAfterAccess(ttl)
+                // слушатель и обслуживание — в вызывающем потоке, без общего пула
+                .executor(Runnable::run)
+                .removalListener(this::onRemoval)
+                .build();
+        Gauge.builder("sudoku.games.size", this, InMemoryGameStore::size)
+                .register(meterRegistry);
+        Gauge.builder("sudoku.games.estimated.bytes", this, store -> store.size() * ESTIMATED_ENTRY_BYTES)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "game-store-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = sweepInterval.toMillis();
+        sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Хранилище игр в памяти: максимум {} игр, время жизни без обращений {}", maxGames, ttl);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    @Override
+    public Game get(long chatId) {
+        return games.getIfPresent(chatId);
+    }
+
+    @Override
+    public Game put(Game game) {
+        return games.asMap().put(game.getChatId(), game);
+    }
+
+    @Override
+    public void remove(long chatId) {
+        games.invalidate(chatId);
+    }
+
+    @Override
+    public int size() {
+        return (int) games.estimatedSize();
+    }
+
+    @Override
+    public void forEach(Consumer<Game> action) {
+        // обход представления карты не считается обращением и не продлевает жизнь игр
+        games.asMap().values().forEach(action);
+    }
+
+    private void sweep() {
+        double before = expiredEvictions.count();
+        games.cleanUp();
+        long removed = (long) (expiredEvictions.count() - before);
+        if (removed > 0) {
+            log.info("Удалено {} игр без обращений дольше {}", removed, ttl);
+        }
+    }
+
+    private void onRemoval(Long chatId, Game game, RemovalCause cause) {
+        // замену и явное удаление выполняет сам GameService, слушателям сообщается только о вытеснении
+        if (game == null || !cause.wasEvicted()) {
+            return;
+        }
+        if (cause == RemovalCause.EXPIRED) {
+            expiredEvictions.increment();
+        } else {
+            sizeEvictions.increment();
+        }
+        notifyEvicted(game);
+    }
+
+    private void notifyEvicted(Game game) {
+        evictionListeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onEvicted(game);
+            } catch (RuntimeException e) {
+                log.error("Ошибка слушателя вытеснения для чата {}: {}", game.getChatId(), e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,31 @@
+-- шаг последовательности совпадает с allocationSize у GameResult
+CREATE SEQUENCE IF NOT EXISTS game_results_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS game_results
+(
+    id              BIGINT PRIMARY KEY,
+    user_id         BIGINT,
+    chat_id         BIGINT,
+    difficulty      VARCHAR(16),
+    started_at      TIMESTAMP,
+    completed_at    TIMESTAMP,
+    completion_time BIGINT,
+    score           INTEGER,
+    mistakes_count  INTEGER
+);
+
+-- курсор пересчёта статистики идёт по игрокам
+CREATE INDEX IF NOT EXISTS game_results_user_idx ON game_results (user_id, difficulty);
+
+-- статистика игрока по уровню сложности: суммы, которые прибавляются вместе с пачкой результатов
+CREATE TABLE IF NOT EXISTS player_stats
+(
+    user_id        BIGINT      NOT NULL,
+    difficulty     VARCHAR(16) NOT NULL,
+    games_played   INTEGER     NOT NULL,
+    games_solved   INTEGER     NOT NULL,
+    total_time     BIGINT      NOT NULL,
+    best_time      BIGINT,
+    total_mistakes BIGINT      NOT NULL,
+    PRIMARY KEY (user_id, difficulty)
+);
@@ -0,0 +1,61 @@
+package ru.sudoku.game.error_handler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.sudoku.game.controller.GameController;
+import ru.sudoku.game.exception.BoardNotFoundException;
+import ru.sudoku.game.exception.InvalidMoveException;
+import ru.sudoku.game.service.GameService;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ErrorHandlerTest {
+
+    private GameService gameService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        gameService = mock(GameService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new GameController(gameService))
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+    }
+
+    @Test
+    void cellOutsideBoardIsBadRequest() throws Exception {
+        when(gameService.applyMove(anyLong(), anyInt(), anyInt(), anyInt()))
+                .thenThrow(new InvalidMoveException("Ячейка вне доски: [7][0]"));
+
+        mockMvc.perform(post("/games/move?chatId=1&row=7&col=0&value=1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.userMessage").value("Invalid request parameters"));
+    }
+
+    @Test
+    void otherIllegalArgumentIsServerError() throws Exception {
+        // ошибка аргумента внутри сервиса — не вина клиента
+        when(gameService.applyMove(anyLong(), anyInt(), anyInt(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Решение не заполнено"));
+
+        mockMvc.perform(post("/games/move?chatId=1&row=0&col=0&value=1"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void missingGameIsNotFound() throws Exception {
+        when(gameService.applyMove(anyLong(), anyInt(), anyInt(), anyInt()))
+                .thenThrow(new BoardNotFoundException(1));
+
+        mockMvc.perform(post("/games/move?chatId=1&row=0&col=0&value=1"))
+                .andExpect(status().isNotFound());
+    }
+}
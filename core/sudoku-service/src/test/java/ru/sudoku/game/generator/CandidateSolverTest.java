@@ -0,0 +1,130 @@
+package ru.sudoku.game.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import ru.sudoku.game.model.GridSize;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CandidateSolverTest {
+
+    @ParameterizedTest
+    @EnumSource(GridSize.class)
+    void randomGridIsValid(GridSize size) {
+        CandidateSolver solver = CandidateSolver.of(size);
+
+        int[] grid = solver.randomGrid(new Random(size.ordinal()));
+
+        assertValid(size, grid);
+        assertThat(solver.countSolutions(grid, 2)).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = GridSize.class, names = {"SIX", "NINE", "SIXTEEN"})
+    void solvesPuzzleWithBlanks(GridSize size) {
+        CandidateSolver solver = CandidateSolver.of(size);
+        Random random = new Random(42);
+        int[] grid = solver.randomGrid(random);
+        int[] puzzle = grid.clone();
+        // каждая третья клетка пуста: решение может и не быть единственным, но всегда есть
+        for (int idx = 0; idx < puzzle.length; idx++) {
+            if (random.nextInt(3) == 0) {
+                puzzle[idx] = 0;
+            }
+        }
+
+        int[] solved = puzzle.clone();
+        assertThat(solver.solve(solved)).isTrue();
+
+        assertValid(size, solved);
+        for (int idx = 0; idx < puzzle.length; idx++) {
+            if (puzzle[idx] != 0) {
+                assertThat(solved[idx]).isEqualTo(puzzle[idx]);
+            }
+        }
+    }
+
+    @Test
+    void solvesKnownNineByNinePuzzle() {
+        int[] puzzle = parse(
+                "530070000600195000098000060800060003400803001700020006060000280000419005000080079");
+        int[] expected = parse(
+                "534678912672195348198342567859761423426853791713924856961537284287419635345286179");
+        CandidateSolver solver = CandidateSolver.of(GridSize.NINE);
+
+        assertThat(solver.countSolutions(puzzle, 2)).isEqualTo(1);
+        assertThat(solver.solve(puzzle)).isTrue();
+        assertThat(puzzle).containsExactly(expected);
+    }
+
+    @Test
+    void countsSolutionsUpToLimit() {
+        CandidateSolver solver = CandidateSolver.of(GridSize.FOUR);
+        int[] empty = new int[16];
+        // у пустой доски 4x4 288 решений
+        assertThat(solver.countSolutions(empty, 2)).isEqualTo(2);
+        assertThat(solver.countSolutions(empty, 1000)).isEqualTo(288);
+        // нижние строки оставляют верхним по два числа на столбец: в первой строке 1 или 3
+        // в столбцах 0 и 2, 2 или 4 в столбцах 1 и 3 — четыре решения
+        int[] ambiguous = {0, 0, 0, 0, 0, 0, 0, 0, 2, 1, 4, 3, 4, 3, 2, 1};
+        assertThat(solver.countSolutions(ambiguous, 10)).isEqualTo(4);
+        int[] unique = {0, 0, 0, 0, 0, 4, 1, 2, 0, 1, 0, 3, 0, 3, 2, 1};
+        assertThat(solver.countSolutions(unique, 2)).isEqualTo(1);
+    }
+
+    @Test
+    void contradictionHasNoSolution() {
+        CandidateSolver solver = CandidateSolver.of(GridSize.SIX);
+        int[] board = new int[36];
+        // две единицы в первой строке
+        board[0] = 1;
+        board[5] = 1;
+
+        assertThat(solver.countSolutions(board, 2)).isZero();
+        int[] copy = board.clone();
+        assertThat(solver.solve(copy)).isFalse();
+        assertThat(copy).containsExactly(board);
+    }
+
+    @Test
+    void otherSolutionIsFoundOnlyForAmbiguousCell() {
+        CandidateSolver solver = CandidateSolver.of(GridSize.FOUR);
+        int[] unique = {0, 0, 0, 0, 0, 4, 1, 2, 0, 1, 0, 3, 0, 3, 2, 1};
+        // решение: 1234 / 3412 / 2143 / 4321
+        assertThat(solver.hasOtherSolution(unique, 0, 1)).isFalse();
+        int[] ambiguous = {0, 0, 0, 0, 0, 0, 0, 0, 2, 1, 4, 3, 4, 3, 2, 1};
+        // в [0][0] может стоять и 3
+        assertThat(solver.hasOtherSolution(ambiguous, 0, 1)).isTrue();
+    }
+
+    private static int[] parse(String board) {
+        return board.chars().map(ch -> ch - '0').toArray();
+    }
+
+    private static void assertValid(GridSize gridSize, int[] grid) {
+        int size = gridSize.size();
+        assertThat(grid).hasSize(gridSize.cells());
+        assertThat(Arrays.stream(grid).allMatch(value -> value >= 1 && value <= size)).isTrue();
+        for (int i = 0; i < size; i++) {
+            Set<Integer> row = new HashSet<>();
+            Set<Integer> col = new HashSet<>();
+            Set<Integer> box = new HashSet<>();
+            int boxRow = i / (size / gridSize.boxCols()) * gridSize.boxRows();
+            int boxCol = i % (size / gridSize.boxCols()) * gridSize.boxCols();
+            for (int j = 0; j < size; j++) {
+                row.add(grid[i * size + j]);
+                col.add(grid[j * size + i]);
+                box.add(grid[(boxRow + j / gridSize.boxCols()) * size + boxCol + j % gridSize.boxCols()]);
+            }
+            assertThat(row).as("строка %d: %s", i, Arrays.toString(grid)).hasSize(size);
+            assertThat(col).as("столбец %d", i).hasSize(size);
+            assertThat(box).as("блок %d", i).hasSize(size);
+        }
+    }
+}
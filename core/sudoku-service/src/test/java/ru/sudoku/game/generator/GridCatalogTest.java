@@ -0,0 +1,95 @@
+package ru.sudoku.game.generator;
+
+import org.junit.jupiter.api.Test;
+import ru.sudoku.game.model.GridSize;
+import ru.sudoku.game.model.PackedBoard;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GridCatalogTest {
+
+    private static final CandidateSolver SOLVER = CandidateSolver.of(GridSize.FOUR);
+
+    @Test
+    void catalogHasAllGridsAndMinimalPuzzles() {
+        assertThat(GridCatalog.allGrids()).hasSize(288).doesNotHaveDuplicates();
+        assertThat(GridCatalog.grids()).isEqualTo(12);
+        assertThat(GridCatalog.size()).isEqualTo(3568);
+        assertThat(GridCatalog.MAX_UNIQUE_BLANKS).isEqualTo(12);
+    }
+
+    @Test
+    void everyGridIsValid() {
+        for (int grid : GridCatalog.allGrids()) {
+            int[][] board = GridCatalog.board(grid, 0xFFFF);
+            assertThat(SolutionCounter.count(board, 2)).isEqualTo(1);
+            assertThat(SOLVER.countSolutions(flat(board), 2)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void minimalPuzzlesAreUniqueAndMinimal() {
+        for (int g = 0; g < GridCatalog.grids(); g++) {
+            int grid = GridCatalog.grid(g);
+            int puzzles = GridCatalog.eligible(g, PackedBoard.CELLS);
+            int previousGivens = 0;
+            for (int i = 0; i < puzzles; i++) {
+                int mask = GridCatalog.minimal(g, i);
+                int givens = Integer.bitCount(mask);
+
+                assertThat(givens).isBetween(4, 6).isGreaterThanOrEqualTo(previousGivens);
+                // каталог построен SolutionCounter, проверяется независимым решателем
+                assertThat(SOLVER.countSolutions(flat(GridCatalog.board(grid, mask)), 2)).isEqualTo(1);
+                for (int bits = mask; bits != 0; bits &= bits - 1) {
+                    int without = mask & ~(bits & -bits);
+                    assertThat(SOLVER.countSolutions(flat(GridCatalog.board(grid, without)), 2)).isEqualTo(2);
+                }
+                previousGivens = givens;
+            }
+        }
+    }
+
+    @Test
+    void eligibleCountsArePrefixes() {
+        for (int g = 0; g < GridCatalog.grids(); g++) {
+            for (int givens = 0; givens <= PackedBoard.CELLS; givens++) {
+                int eligible = GridCatalog.eligible(g, givens);
+                int expected = 0;
+                for (int i = 0; i < GridCatalog.eligible(g, PackedBoard.CELLS); i++) {
+                    if (Integer.bitCount(GridCatalog.minimal(g, i)) <= givens) {
+                        expected++;
+                    }
+                }
+                assertThat(eligible).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void canonicalGridsStartWithOneTwoThreeFour() {
+        for (int g = 0; g < GridCatalog.grids(); g++) {
+            int[][] board = GridCatalog.board(GridCatalog.grid(g), 0xFFFF);
+            assertThat(board[0]).containsExactly(1, 2, 3, 4);
+        }
+        assertThat(Arrays.stream(GridCatalog.allGrids()).filter(grid -> (grid & 0xFF) == 0b11_10_01_00).count())
+                .isEqualTo(12);
+    }
+
+    @Test
+    void counterStopsAtLimitAndRejectsConflicts() {
+        int[][] empty = new int[PackedBoard.SIZE][PackedBoard.SIZE];
+        assertThat(SolutionCounter.count(empty, 1000)).isEqualTo(288);
+        assertThat(SolutionCounter.count(empty, 2)).isEqualTo(2);
+        assertThat(SolutionCounter.isUnique(empty)).isFalse();
+        int[][] conflict = new int[PackedBoard.SIZE][PackedBoard.SIZE];
+        conflict[0][0] = 1;
+        conflict[0][3] = 1;
+        assertThat(SolutionCounter.count(conflict, 2)).isZero();
+    }
+
+    private static int[] flat(int[][] board) {
+        return Arrays.stream(board).flatMapToInt(Arrays::stream).toArray();
+    }
+}
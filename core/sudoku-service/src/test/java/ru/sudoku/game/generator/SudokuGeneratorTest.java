@@ -0,0 +1,90 @@
+package ru.sudoku.game.generator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.sudoku.game.model.Difficulty;
+import ru.sudoku.game.model.GridSize;
+import ru.sudoku.game.model.PackedBoard;
+import ru.sudoku.game.model.Puzzle;
+import ru.sudoku.game.model.SolvingTechnique;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SudokuGeneratorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private SudokuGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new SudokuGenerator(registry);
+        generator.init();
+    }
+
+    @Test
+    void puzzlesMatchDifficultyTechnique() {
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (difficulty == Difficulty.CUSTOM) {
+                continue;
+            }
+            for (int i = 0; i < 500; i++) {
+                int[] board = board(generator.generate(difficulty.getBlanks()));
+
+                assertThat(blanks(board)).isEqualTo(difficulty.getBlanks());
+                assertThat(CandidateSolver.of(GridSize.FOUR).grade(board)).as(difficulty.name())
+                        .isEqualTo(difficulty.getTechnique());
+                assertThat(CandidateSolver.of(GridSize.FOUR).countSolutions(board, 2)).isEqualTo(1);
+            }
+        }
+        assertThat(registry.counter("sudoku.generator.grade.misses").count()).isZero();
+    }
+
+    @Test
+    void catalogLookupsAreMeasured() {
+        for (int i = 0; i < 100; i++) {
+            generator.generate(Difficulty.MEDIUM.getBlanks());
+        }
+
+        assertThat(registry.summary("sudoku.generator.catalog.draws").count()).isGreaterThanOrEqualTo(100);
+        assertThat(registry.summary("sudoku.generator.catalog.collisions").count()).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    void gradeFindsHardestTechnique() {
+        // все головоломки ниже получены из доски 1234 / 3412 / 2143 / 4321, в каждой 8 пустых клеток
+        CandidateSolver solver = CandidateSolver.of(GridSize.FOUR);
+        int[] fullHouse = {0, 0, 0, 0, 0, 4, 1, 2, 0, 1, 0, 3, 0, 3, 2, 1};
+        // последних клеток групп нет, но 1 в первом блоке может стоять только в [0][0]
+        int[] hiddenSingle = {0, 0, 0, 0, 0, 0, 1, 2, 0, 1, 0, 3, 4, 3, 2, 1};
+        // нижние строки не определяют верхние: решений четыре
+        int[] guess = {0, 0, 0, 0, 0, 0, 0, 0, 2, 1, 4, 3, 4, 3, 2, 1};
+
+        assertThat(solver.grade(fullHouse)).isEqualTo(SolvingTechnique.FULL_HOUSE);
+        assertThat(solver.grade(hiddenSingle)).isEqualTo(SolvingTechnique.HIDDEN_SINGLE);
+        assertThat(solver.grade(guess)).isEqualTo(SolvingTechnique.GUESS);
+        // та же головоломка в формате генератора: решение и маска фиксированных клеток
+        int solution = PackedBoard.solutionOf(new int[][]{{1, 2, 3, 4}, {3, 4, 1, 2}, {2, 1, 4, 3}, {4, 3, 2, 1}});
+        assertThat(SudokuGenerator.grade(solution, 0xFAC0)).isEqualTo(SolvingTechnique.HIDDEN_SINGLE);
+    }
+
+    private static int[] board(Puzzle puzzle) {
+        int[] board = new int[PackedBoard.CELLS];
+        for (int idx = 0; idx < PackedBoard.CELLS; idx++) {
+            if (PackedBoard.isFixed(puzzle.board(), idx)) {
+                board[idx] = PackedBoard.value(puzzle.board(), idx);
+            }
+        }
+        return board;
+    }
+
+    private static int blanks(int[] board) {
+        int blanks = 0;
+        for (int value : board) {
+            if (value == 0) {
+                blanks++;
+            }
+        }
+        return blanks;
+    }
+}
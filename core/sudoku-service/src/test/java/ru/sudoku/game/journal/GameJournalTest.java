@@ -0,0 +1,178 @@
+package ru.sudoku.game.journal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.sudoku.game.model.BoardState;
+import ru.sudoku.game.model.Game;
+import ru.sudoku.game.model.PackedBoard;
+import ru.sudoku.game.store.GameStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<GameJournal> journals = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        journals.forEach(GameJournal::shutdown);
+    }
+
+    @Test
+    void movesAndNotesSurviveRestart() throws IOException {
+        MapStore store = new MapStore();
+        GameJournal journal = journal(store);
+        Game game = newGame(journal, store, 1L);
+        BoardState moved = game.getState().get().withValue(0, 2).withNoteToggled(1, 3);
+        game.getState().set(moved);
+        journal.appendMove(game, moved);
+
+        MapStore restored = new MapStore();
+        journal(restored);
+
+        BoardState state = restored.get(1L).getState().get();
+        assertThat(state.cells()).isEqualTo(moved.cells());
+        assertThat(state.version()).isEqualTo(moved.version());
+        assertThat(state.notes(1)).isEqualTo(moved.notes(1)).isNotZero();
+        assertThat(restored.get(1L).getUserId()).isEqualTo(10L);
+    }
+
+    @Test
+    void evictedGameIsNotRestored() throws IOException {
+        MapStore store = new MapStore();
+        GameJournal journal = journal(store);
+        Game evicted = newGame(journal, store, 1L);
+        newGame(journal, store, 2L);
+        store.games.remove(1L);
+        journal.onEvicted(evicted);
+        // запоздавший ход вытесненной игры её не воскрешает
+        journal.appendMove(evicted, evicted.getState().get().withValue(0, 1));
+
+        MapStore restored = new MapStore();
+        journal(restored);
+
+        assertThat(restored.games).containsOnlyKeys(2L);
+    }
+
+    @Test
+    void restartAndSnapshotReuseCurrentSegment() throws IOException {
+        MapStore store = new MapStore();
+        GameJournal journal = journal(store);
+        newGame(journal, store, 1L);
+        ReflectionTestUtils.invokeMethod(journal, "snapshot");
+        newGame(journal, store, 2L);
+
+        MapStore restored = new MapStore();
+        GameJournal reopened = journal(restored);
+        newGame(reopened, restored, 3L);
+        ReflectionTestUtils.invokeMethod(reopened, "snapshot");
+
+        assertThat(segments()).hasSize(1);
+        MapStore again = new MapStore();
+        journal(again);
+        assertThat(again.games).containsOnlyKeys(1L, 2L, 3L);
+    }
+
+    @Test
+    void fullSegmentRotatesAndSnapshotDropsOldSegments() throws IOException {
+        MapStore store = new MapStore();
+        GameJournal journal = journal(store);
+        for (long chatId = 0; chatId < 10; chatId++) {
+            newGame(journal, store, chatId);
+        }
+        ReflectionTestUtils.invokeMethod(journal, "snapshot");
+
+        assertThat(segments()).hasSize(1);
+        MapStore restored = new MapStore();
+        journal(restored);
+        assertThat(restored.games).hasSize(10);
+    }
+
+    @Test
+    void secondJournalCannotOpenLockedDir() throws IOException {
+        journal(new MapStore());
+
+        GameJournal second = configured(new MapStore());
+        assertThatThrownBy(second::init).isInstanceOf(IllegalStateException.class);
+    }
+
+    // перезапуск: прежний журнал закрывается и освобождает каталог
+    private GameJournal journal(GameStore store) throws IOException {
+        journals.forEach(GameJournal::shutdown);
+        journals.clear();
+        GameJournal journal = configured(store);
+        journal.init();
+        journals.add(journal);
+        return journal;
+    }
+
+    private GameJournal configured(GameStore store) {
+        GameJournal journal = new GameJournal(store);
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "dir", dir);
+        ReflectionTestUtils.setField(journal, "segmentRecords", 4);
+        ReflectionTestUtils.setField(journal, "flushIntervalMs", 1000L);
+        ReflectionTestUtils.setField(journal, "snapshotInterval", Duration.ofHours(1));
+        return journal;
+    }
+
+    private static Game newGame(GameJournal journal, MapStore store, long chatId) {
+        Game game = new Game(chatId, 10L, 3, PackedBoard.NO_SOLUTION, BoardState.of(0L));
+        store.put(game);
+        journal.appendNewGame(game, game.getState().get());
+        return game;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(GameJournal.SEGMENT_PREFIX))
+                    .toList();
+        }
+    }
+
+    private static final class MapStore implements GameStore {
+        final Map<Long, Game> games = new HashMap<>();
+
+        @Override
+        public Game get(long chatId) {
+            return games.get(chatId);
+        }
+
+        @Override
+        public Game put(Game game) {
+            return games.put(game.getChatId(), game);
+        }
+
+        @Override
+        public void remove(long chatId) {
+            games.remove(chatId);
+        }
+
+        @Override
+        public int size() {
+            return games.size();
+        }
+
+        @Override
+        public void forEach(Consumer<Game> action) {
+            games.values().forEach(action);
+        }
+    }
+}
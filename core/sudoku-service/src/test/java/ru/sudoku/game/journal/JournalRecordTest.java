@@ -0,0 +1,68 @@
+package ru.sudoku.game.journal;
+
+import org.junit.jupiter.api.Test;
+import ru.sudoku.game.model.BoardState;
+import ru.sudoku.game.model.Game;
+import ru.sudoku.game.model.PackedBoard;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalRecordTest {
+
+    @Test
+    void recordRoundTripKeepsUserId() {
+        Game game = new Game(-100L, 42L, 6, 0x1234, BoardState.of(0L).withValue(3, 2));
+        ByteBuffer buf = ByteBuffer.allocate(JournalRecord.SIZE);
+
+        JournalRecord.write(buf, 0, JournalRecord.MOVE, game, game.getState().get());
+        JournalRecord record = JournalRecord.read(buf, 0);
+
+        assertThat(JournalRecord.length(buf, 0)).isEqualTo(JournalRecord.SIZE);
+        assertThat(record.type()).isEqualTo(JournalRecord.MOVE);
+        assertThat(record.chatId()).isEqualTo(-100L);
+        assertThat(record.userId()).isEqualTo(42L);
+        Game restored = record.toGame();
+        assertThat(restored.getUserId()).isEqualTo(42L);
+        assertThat(restored.getBlanks()).isEqualTo(6);
+        assertThat(restored.getSolution()).isEqualTo(0x1234);
+        assertThat(restored.getState().get().cells()).isEqualTo(game.getState().get().cells());
+    }
+
+    @Test
+    void legacyRecordsAreReadBackToBack() {
+        // две записи старого формата по 40 байт без userId и новая запись за ними
+        ByteBuffer buf = ByteBuffer.allocate(2 * JournalRecord.LEGACY_SIZE + JournalRecord.SIZE);
+        legacy(buf, 0, 7L);
+        legacy(buf, JournalRecord.LEGACY_SIZE, 8L);
+        Game game = new Game(9L, 90L, 3, PackedBoard.NO_SOLUTION, BoardState.of(0L));
+        JournalRecord.write(buf, 2 * JournalRecord.LEGACY_SIZE, JournalRecord.NEW_GAME, game, game.getState().get());
+
+        int offset = 0;
+        JournalRecord first = JournalRecord.read(buf, offset);
+        offset += JournalRecord.length(buf, offset);
+        JournalRecord second = JournalRecord.read(buf, offset);
+        offset += JournalRecord.length(buf, offset);
+        JournalRecord third = JournalRecord.read(buf, offset);
+
+        assertThat(first.userId()).isEqualTo(7L);
+        assertThat(second.userId()).isEqualTo(8L);
+        assertThat(third.chatId()).isEqualTo(9L);
+        assertThat(third.userId()).isEqualTo(90L);
+    }
+
+    @Test
+    void unwrittenRecordIsNull() {
+        ByteBuffer buf = ByteBuffer.allocate(JournalRecord.SIZE);
+
+        assertThat(JournalRecord.read(buf, 0)).isNull();
+        assertThat(JournalRecord.read(buf, JournalRecord.SIZE)).isNull();
+    }
+
+    private static void legacy(ByteBuffer buf, int offset, long chatId) {
+        buf.put(offset + 1, (byte) 3);
+        buf.putLong(offset + 8, chatId);
+        buf.put(offset, JournalRecord.MOVE);
+    }
+}
@@ -0,0 +1,159 @@
+package ru.sudoku.game.model;
+
+import org.junit.jupiter.api.Test;
+import ru.sudoku.game.exception.InvalidMoveException;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoardStateTest {
+
+    private static final int[][] SOLVED = {
+            {1, 2, 3, 4},
+            {3, 4, 1, 2},
+            {2, 1, 4, 3},
+            {4, 3, 2, 1}
+    };
+
+    @Test
+    void solvedBoardHasAllUnitsComplete() {
+        BoardState state = BoardState.of(PackedBoard.of(SOLVED));
+
+        assertThat(state.isFull()).isTrue();
+        assertThat(state.isSolved()).isTrue();
+        assertThat(state.conflicts()).isZero();
+    }
+
+    @Test
+    void emptyBoardIsNeitherFullNorSolved() {
+        BoardState state = BoardState.of(0L);
+
+        assertThat(state.filled()).isZero();
+        assertThat(state.isFull()).isFalse();
+        assertThat(state.isSolved()).isFalse();
+    }
+
+    @Test
+    void duplicateMarksRowColumnAndBox() {
+        // 1 в (0,0) и (1,1): один блок, разные строки и столбцы
+        BoardState state = BoardState.of(0L)
+                .withValue(PackedBoard.index(0, 0), 1)
+                .withValue(PackedBoard.index(1, 1), 1);
+
+        // биты 0–3 строки, 4–7 столбцы, 8–11 блоки
+        assertThat(state.conflicts()).isEqualTo(1 << 8);
+        assertThat(state.conflictsAt(PackedBoard.index(0, 1))).isTrue();
+        assertThat(state.conflictsAt(PackedBoard.index(3, 3))).isFalse();
+
+        BoardState fixed = state.withValue(PackedBoard.index(1, 1), 2);
+        assertThat(fixed.conflicts()).isZero();
+    }
+
+    @Test
+    void fullBoardWithDuplicatesIsNotSolved() {
+        int[][] wrong = {
+                {1, 2, 3, 4},
+                {3, 4, 1, 2},
+                {2, 1, 4, 3},
+                {4, 3, 1, 2}
+        };
+        BoardState state = BoardState.of(PackedBoard.of(wrong));
+
+        assertThat(state.isFull()).isTrue();
+        assertThat(state.isSolved()).isFalse();
+        assertThat(state.conflicts()).isNotZero();
+    }
+
+    @Test
+    void incrementalMasksMatchFullRecalculation() {
+        Random random = new Random(42);
+        BoardState state = BoardState.of(0L);
+        for (int move = 0; move < 10_000; move++) {
+            int idx = random.nextInt(PackedBoard.CELLS);
+            int value = random.nextInt(PackedBoard.SIZE + 1);
+            int version = state.version();
+            state = state.withValue(idx, value);
+
+            BoardState recalculated = BoardState.of(state.cells(), state.version());
+            assertThat(state.units()).isEqualTo(recalculated.units());
+            assertThat(state.filled()).isEqualTo(recalculated.filled());
+            assertThat(state.version()).isEqualTo(version + 1);
+        }
+    }
+
+    @Test
+    void notesToggleWithoutChangingVersion() {
+        BoardState state = BoardState.of(0L)
+                .withNoteToggled(5, 1)
+                .withNoteToggled(5, 3)
+                .withNoteToggled(6, 4);
+
+        assertThat(state.notes(5)).isEqualTo(0b0101);
+        assertThat(state.notes(6)).isEqualTo(0b1000);
+        assertThat(state.notes(7)).isZero();
+        assertThat(state.version()).isZero();
+        assertThat(state.withNoteToggled(5, 1).notes(5)).isEqualTo(0b0100);
+    }
+
+    @Test
+    void invalidNoteIsRejected() {
+        BoardState state = BoardState.of(0L);
+
+        assertThatThrownBy(() -> state.withNoteToggled(0, 0)).isInstanceOf(InvalidMoveException.class);
+        assertThatThrownBy(() -> state.withNoteToggled(0, 5)).isInstanceOf(InvalidMoveException.class);
+    }
+
+    @Test
+    void placedValueClearsCellNotesAndPeerNotes() {
+        int cell = PackedBoard.index(1, 1);
+        int rowPeer = PackedBoard.index(1, 3);
+        int colPeer = PackedBoard.index(3, 1);
+        int boxPeer = PackedBoard.index(0, 0);
+        int other = PackedBoard.index(3, 3);
+        BoardState state = BoardState.of(0L)
+                .withNoteToggled(cell, 2)
+                .withNoteToggled(rowPeer, 2)
+                .withNoteToggled(rowPeer, 3)
+                .withNoteToggled(colPeer, 2)
+                .withNoteToggled(boxPeer, 2)
+                .withNoteToggled(other, 2);
+
+        BoardState placed = state.withValue(cell, 2);
+
+        assertThat(placed.notes(cell)).isZero();
+        assertThat(placed.notes(rowPeer)).isEqualTo(0b0100);
+        assertThat(placed.notes(colPeer)).isZero();
+        assertThat(placed.notes(boxPeer)).isZero();
+        // не сосед: заметка остаётся
+        assertThat(placed.notes(other)).isEqualTo(0b0010);
+        // стирание числа заметки не возвращает
+        assertThat(placed.withValue(cell, 0).notes(rowPeer)).isEqualTo(0b0100);
+    }
+
+    @Test
+    void eliminationRemovesNotesTakenByUnits() {
+        // 4 в (0,0) поставлено до заметок, поэтому заметки соседей не тронуты
+        BoardState state = BoardState.of(0L).withValue(PackedBoard.index(0, 0), 4)
+                .withNoteToggled(PackedBoard.index(0, 3), 4)
+                .withNoteToggled(PackedBoard.index(0, 3), 1)
+                .withNoteToggled(PackedBoard.index(2, 2), 4);
+
+        BoardState eliminated = state.withNotesEliminated();
+
+        assertThat(eliminated.notes(PackedBoard.index(0, 3))).isEqualTo(0b0001);
+        assertThat(eliminated.notes(PackedBoard.index(2, 2))).isEqualTo(0b1000);
+        assertThat(eliminated.version()).isEqualTo(state.version());
+        assertThat(eliminated.withNotesEliminated()).isSameAs(eliminated);
+    }
+
+    @Test
+    void notesSurviveRestoreFromJournalFields() {
+        BoardState state = BoardState.of(0L).withValue(3, 2).withNoteToggled(0, 1).withNoteToggled(15, 4);
+
+        BoardState restored = BoardState.of(state.cells(), state.version(), state.notes());
+
+        assertThat(restored).isEqualTo(state);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.sudoku.game.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MoveLogTest {
+
+    @Test
+    void moveEncodingRoundTrip() {
+        int move = MoveLog.encode(255, 16, 9);
+
+        assertThat(MoveLog.index(move)).isEqualTo(255);
+        assertThat(MoveLog.oldValue(move)).isEqualTo(16);
+        assertThat(MoveLog.newValue(move)).isEqualTo(9);
+    }
+
+    @Test
+    void undoAndRedoWalkHistoryInOrder() {
+        MoveLog log = new MoveLog();
+        log.record(1, 0, 2);
+        log.record(2, 0, 3);
+
+        assertThat(log.redo()).isEqualTo(MoveLog.NONE);
+        assertThat(log.undo()).isEqualTo(MoveLog.encode(2, 0, 3));
+        assertThat(log.undo()).isEqualTo(MoveLog.encode(1, 0, 2));
+        assertThat(log.undo()).isEqualTo(MoveLog.NONE);
+        assertThat(log.canUndo()).isFalse();
+        assertThat(log.redo()).isEqualTo(MoveLog.encode(1, 0, 2));
+        assertThat(log.redo()).isEqualTo(MoveLog.encode(2, 0, 3));
+        assertThat(log.canRedo()).isFalse();
+    }
+
+    @Test
+    void newMoveClearsRedo() {
+        MoveLog log = new MoveLog();
+        log.record(1, 0, 2);
+        log.record(2, 0, 3);
+        log.record(3, 0, 4);
+        log.undo();
+        log.undo();
+
+        log.record(4, 0, 1);
+
+        assertThat(log.canRedo()).isFalse();
+        assertThat(log.redo()).isEqualTo(MoveLog.NONE);
+        assertThat(log.undo()).isEqualTo(MoveLog.encode(4, 0, 1));
+        assertThat(log.undo()).isEqualTo(MoveLog.encode(1, 0, 2));
+        assertThat(log.undo()).isEqualTo(MoveLog.NONE);
+    }
+
+    @Test
+    void overflowForgetsOldestMoves() {
+        MoveLog log = new MoveLog();
+        int total = MoveLog.CAPACITY + 10;
+        for (int i = 0; i < total; i++) {
+            log.record(i, 0, 1);
+        }
+
+        // отменить можно только последние CAPACITY ходов, начиная с самого нового
+        for (int i = total - 1; i >= total - MoveLog.CAPACITY; i--) {
+            assertThat(log.undo()).isEqualTo(MoveLog.encode(i, 0, 1));
+        }
+        assertThat(log.undo()).isEqualTo(MoveLog.NONE);
+        // и повторить их в прежнем порядке
+        for (int i = total - MoveLog.CAPACITY; i < total; i++) {
+            assertThat(log.redo()).isEqualTo(MoveLog.encode(i, 0, 1));
+        }
+        assertThat(log.redo()).isEqualTo(MoveLog.NONE);
+    }
+
+    @Test
+    void recordAfterUndoInWrappedBufferKeepsOrder() {
+        MoveLog log = new MoveLog();
+        int total = MoveLog.CAPACITY + 5;
+        for (int i = 0; i < total; i++) {
+            log.record(i, 0, 1);
+        }
+        log.undo();
+        log.undo();
+
+        log.record(1000, 1, 2);
+        log.record(1001, 2, 3);
+        log.record(1002, 3, 4);
+
+        // два отменённых хода заменены, третий новый ход вытеснил самый старый
+        assertThat(log.undo()).isEqualTo(MoveLog.encode(1002, 3, 4));
+        assertThat(log.undo()).isEqualTo(MoveLog.encode(1001, 2, 3));
+        assertThat(log.undo()).isEqualTo(MoveLog.encode(1000, 1, 2));
+        int undone = 3;
+        for (int i = total - 3; log.canUndo(); i--) {
+            assertThat(log.undo()).isEqualTo(MoveLog.encode(i, 0, 1));
+            undone++;
+        }
+        assertThat(undone).isEqualTo(MoveLog.CAPACITY);
+    }
+}
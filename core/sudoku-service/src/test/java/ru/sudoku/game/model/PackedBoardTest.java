@@ -0,0 +1,92 @@
+package ru.sudoku.game.model;
+
+import org.junit.jupiter.api.Test;
+import ru.sudoku.game.exception.InvalidMoveException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PackedBoardTest {
+
+    private static final int[][] BOARD = {
+            {1, 0, 3, 0},
+            {0, 4, 0, 2},
+            {2, 0, 4, 0},
+            {0, 3, 0, 1}
+    };
+    private static final int[][] SOLVED = {
+            {1, 2, 3, 4},
+            {3, 4, 1, 2},
+            {2, 1, 4, 3},
+            {4, 3, 2, 1}
+    };
+
+    @Test
+    void packsValuesAndFixedMask() {
+        long packed = PackedBoard.of(BOARD);
+        for (int r = 0; r < PackedBoard.SIZE; r++) {
+            for (int c = 0; c < PackedBoard.SIZE; c++) {
+                assertThat(PackedBoard.value(packed, r, c)).isEqualTo(BOARD[r][c]);
+                assertThat(PackedBoard.isFixed(packed, r, c)).isEqualTo(BOARD[r][c] != 0);
+            }
+        }
+    }
+
+    @Test
+    void withValueChangesOnlyOneCell() {
+        long packed = PackedBoard.of(BOARD);
+        int idx = PackedBoard.index(0, 1);
+        long updated = PackedBoard.withValue(packed, idx, 4);
+
+        assertThat(PackedBoard.value(updated, idx)).isEqualTo(4);
+        assertThat(PackedBoard.isFixed(updated, idx)).isFalse();
+        // остальные биты не задеты: возврат значения даёт исходную доску
+        assertThat(PackedBoard.withValue(updated, idx, 0)).isEqualTo(packed);
+    }
+
+    @Test
+    void everyValueFitsEveryCell() {
+        for (int idx = 0; idx < PackedBoard.CELLS; idx++) {
+            for (int value = 0; value <= PackedBoard.SIZE; value++) {
+                long packed = PackedBoard.withValue(-1L, idx, value);
+                assertThat(PackedBoard.value(packed, idx)).isEqualTo(value);
+                // маска фиксированных ячеек (биты 48–63) не меняется
+                assertThat(packed >>> 48).isEqualTo(0xFFFFL);
+            }
+        }
+    }
+
+    @Test
+    void solutionRoundTrip() {
+        int solution = PackedBoard.solutionOf(SOLVED);
+        assertThat(solution).isNotEqualTo(PackedBoard.NO_SOLUTION);
+        for (int r = 0; r < PackedBoard.SIZE; r++) {
+            for (int c = 0; c < PackedBoard.SIZE; c++) {
+                assertThat(PackedBoard.solutionValue(solution, PackedBoard.index(r, c))).isEqualTo(SOLVED[r][c]);
+            }
+        }
+    }
+
+    @Test
+    void solutionMustBeFull() {
+        assertThatThrownBy(() -> PackedBoard.solutionOf(BOARD))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void notesTakeFourBitsPerCell() {
+        long notes = 0b1010L << (5 * PackedBoard.SIZE) | 0b0001L;
+        assertThat(PackedBoard.notes(notes, 0)).isEqualTo(0b0001);
+        assertThat(PackedBoard.notes(notes, 5)).isEqualTo(0b1010);
+        assertThat(PackedBoard.notes(notes, 15)).isZero();
+        assertThat(PackedBoard.notes(-1L, 15)).isEqualTo(0b1111);
+    }
+
+    @Test
+    void rejectsCellsAndValuesOutsideBoard() {
+        assertThatThrownBy(() -> PackedBoard.index(4, 0)).isInstanceOf(InvalidMoveException.class);
+        assertThatThrownBy(() -> PackedBoard.index(0, -1)).isInstanceOf(InvalidMoveException.class);
+        assertThatThrownBy(() -> PackedBoard.withValue(0L, 0, 5)).isInstanceOf(InvalidMoveException.class);
+        assertThatThrownBy(() -> PackedBoard.withValue(0L, 0, -1)).isInstanceOf(InvalidMoveException.class);
+    }
+}
@@ -0,0 +1,83 @@
+package ru.sudoku.game.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.sudoku.game.model.GameResult;
+import ru.sudoku.game.stats.PlayerStatsService;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class GameResultWriterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PlayerStatsService playerStatsService = mock(PlayerStatsService.class);
+    private GameResultWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.shutdown();
+    }
+
+    @Test
+    void failedBatchIsRetriedWithFreshIds() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            List<GameResult> batch = invocation.getArgument(0);
+            // первые две попытки: id уже выдан, транзакция откатилась
+            assertThat(batch).allMatch(result -> result.getId() == null);
+            if (calls.incrementAndGet() <= 2) {
+                batch.forEach(result -> result.setId(1L));
+                throw new IllegalStateException("база недоступна");
+            }
+            return null;
+        }).when(playerStatsService).saveResults(anyList());
+        writer = writer(5);
+
+        writer.enqueue(GameResult.builder().chatId(1L).userId(10L).build());
+
+        awaitCount("sudoku.results.written", 1);
+        assertThat(calls).hasValue(3);
+        assertThat(registry.counter("sudoku.results.retries").count()).isEqualTo(2);
+        assertThat(registry.counter("sudoku.results.failed").count()).isZero();
+    }
+
+    @Test
+    void batchIsDiscardedAfterMaxAttempts() throws InterruptedException {
+        doAnswer(invocation -> {
+            throw new IllegalStateException("ошибка данных");
+        }).when(playerStatsService).saveResults(anyList());
+        writer = writer(3);
+
+        writer.enqueue(GameResult.builder().chatId(1L).userId(10L).build());
+
+        awaitCount("sudoku.results.failed", 1);
+        assertThat(registry.counter("sudoku.results.retries").count()).isEqualTo(2);
+    }
+
+    private GameResultWriter writer(int maxAttempts) {
+        GameResultWriter writer = new GameResultWriter(playerStatsService, registry);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 100);
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(writer, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(writer, "retryBackoffMs", 5L);
+        ReflectionTestUtils.setField(writer, "maxRetryBackoffMs", 20L);
+        writer.init();
+        return writer;
+    }
+
+    private void awaitCount(String counter, double expected) throws InterruptedException {
+        for (int i = 0; i < 200 && registry.counter(counter).count() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(registry.counter(counter).count()).isEqualTo(expected);
+    }
+}
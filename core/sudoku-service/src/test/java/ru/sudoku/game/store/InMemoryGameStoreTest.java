@@ -0,0 +1,112 @@
+package ru.sudoku.game.store;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.sudoku.game.model.BoardState;
+import ru.sudoku.game.model.Game;
+import ru.sudoku.game.model.PackedBoard;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryGameStoreTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Game> evicted = new ArrayList<>();
+    private InMemoryGameStore store;
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void putReturnsReplacedGameWithoutEviction() {
+        store = store(10, Duration.ofHours(1));
+        Game first = game(1);
+        Game second = game(1);
+
+        assertThat(store.put(first)).isNull();
+        assertThat(store.put(second)).isSameAs(first);
+        assertThat(store.get(1)).isSameAs(second);
+        assertThat(evicted).isEmpty();
+    }
+
+    @Test
+    void removeDoesNotNotifyListeners() {
+        store = store(10, Duration.ofHours(1));
+        store.put(game(1));
+
+        store.remove(1);
+
+        assertThat(store.get(1)).isNull();
+        assertThat(evicted).isEmpty();
+    }
+
+    @Test
+    void overflowEvictsAndNotifies() {
+        store = store(8, Duration.ofHours(1));
+        for (long chatId = 0; chatId < 20; chatId++) {
+            store.put(game(chatId));
+        }
+        // Caffeine вытесняет при обслуживании кэша, здесь — синхронно
+        ReflectionTestUtils.invokeMethod(store, "sweep");
+
+        assertThat(store.size()).isEqualTo(8);
+        assertThat(evicted).hasSize(12);
+        assertThat(registry.counter("sudoku.games.evictions", "cause", "size").count()).isEqualTo(12);
+    }
+
+    @Test
+    void idleGameExpires() throws InterruptedException {
+        store = store(10, Duration.ofMillis(20));
+        Game game = game(1);
+        store.put(game);
+
+        Thread.sleep(50);
+
+        assertThat(store.get(1)).isNull();
+        ReflectionTestUtils.invokeMethod(store, "sweep");
+        assertThat(evicted).containsExactly(game);
+        assertThat(registry.counter("sudoku.games.evictions", "cause", "expired").count()).isEqualTo(1);
+    }
+
+    @Test
+    void estimatedBytesFollowLiveGames() {
+        store = store(10, Duration.ofHours(1));
+        for (long chatId = 0; chatId < 3; chatId++) {
+            store.put(game(chatId));
+        }
+        store.remove(2);
+
+        assertThat(registry.get("sudoku.games.size").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("sudoku.games.estimated.bytes").gauge().value())
+                .isEqualTo(2.0 * InMemoryGameStore.ESTIMATED_ENTRY_BYTES);
+    }
+
+    @SuppressWarnings("unchecked")
+    private InMemoryGameStore store(int maxGames, Duration ttl) {
+        ObjectProvider<GameEvictionListener> listeners = mock(ObjectProvider.class);
+        GameEvictionListener listener = evicted::add;
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+        InMemoryGameStore store = new InMemoryGameStore(registry, listeners);
+        ReflectionTestUtils.setField(store, "maxGames", maxGames);
+        ReflectionTestUtils.setField(store, "ttl", ttl);
+        ReflectionTestUtils.setField(store, "sweepInterval", Duration.ofHours(1));
+        store.init();
+        return store;
+    }
+
+    private static Game game(long chatId) {
+        return new Game(chatId, 3, PackedBoard.NO_SOLUTION, BoardState.of(0L));
+    }
+}